@@ -9,15 +9,15 @@ import com.lge.plugins.metashift.analysis.BranchCoverageCounter;
 import com.lge.plugins.metashift.analysis.BranchCoverageEvaluator;
 import com.lge.plugins.metashift.analysis.Counter;
 import com.lge.plugins.metashift.analysis.Evaluator;
+import com.lge.plugins.metashift.analysis.MetricAccumulator;
 import com.lge.plugins.metashift.models.BranchCoverageData;
 import com.lge.plugins.metashift.models.Configuration;
-import com.lge.plugins.metashift.models.DataList;
 import com.lge.plugins.metashift.models.DataSummary;
 import com.lge.plugins.metashift.models.Recipe;
-import com.lge.plugins.metashift.models.Recipes;
 import com.lge.plugins.metashift.models.TestData;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 /**
  * BranchCoverageDataSummaryAggregator class.
@@ -48,19 +48,11 @@ public class BranchCoverageDataSummaryAggregator
 
   @Override
   public List<DataSummary> parse(Recipe recipe) {
-    Recipes recipes = new Recipes();
-    List<String> files = recipe.objects(BranchCoverageData.class)
-        .map(BranchCoverageData::getFile)
-        .distinct()
-        .collect(Collectors.toList());
-    for (String file : files) {
-      DataList dataList = new DataList();
-      dataList.addAll(recipe.objects(TestData.class).collect(Collectors.toList()));
-      dataList.addAll(recipe.objects(BranchCoverageData.class)
-          .filter(o -> o.getFile().equals(file))
-          .collect(Collectors.toList()));
-      recipes.add(new Recipe(file, dataList));
-    }
-    return parse(recipes);
+    boolean tests = recipe.objects(TestData.class).findAny().isPresent();
+    Map<String, MetricAccumulator> files = new LinkedHashMap<>();
+    recipe.objects(BranchCoverageData.class).forEach(o -> files
+        .computeIfAbsent(o.getFile(), file -> new MetricAccumulator().setTests(tests))
+        .add(o));
+    return parse(files);
   }
 }
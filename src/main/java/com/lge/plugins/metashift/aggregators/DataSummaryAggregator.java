@@ -7,11 +7,15 @@ package com.lge.plugins.metashift.aggregators;
 
 import com.lge.plugins.metashift.analysis.Counter;
 import com.lge.plugins.metashift.analysis.Evaluator;
+import com.lge.plugins.metashift.analysis.MetricAccumulator;
 import com.lge.plugins.metashift.models.Configuration;
 import com.lge.plugins.metashift.models.DataSummary;
+import com.lge.plugins.metashift.models.Evaluation;
 import com.lge.plugins.metashift.models.Recipe;
 import com.lge.plugins.metashift.models.Recipes;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -60,4 +64,24 @@ public abstract class DataSummaryAggregator implements Aggregator<DataSummary> {
         .map(this::newDataSummary)
         .collect(Collectors.toList());
   }
+
+  /**
+   * Creates the summaries of the accumulated metrics which are available.
+   *
+   * @param accumulators of the metrics by name, in order
+   * @return the list of summaries
+   */
+  public List<DataSummary> parse(Map<String, MetricAccumulator> accumulators) {
+    Counter counter = getCounter(configuration);
+    Evaluator evaluator = getEvaluator(configuration);
+    List<DataSummary> summaries = new ArrayList<>();
+    for (Map.Entry<String, MetricAccumulator> entry : accumulators.entrySet()) {
+      Evaluation evaluation = evaluator.parse(entry.getValue());
+      if (evaluation.isAvailable()) {
+        summaries.add(new DataSummary(entry.getKey(), counter.parse(entry.getValue()),
+            evaluation));
+      }
+    }
+    return summaries;
+  }
 }
@@ -7,16 +7,16 @@ package com.lge.plugins.metashift.aggregators;
 
 import com.lge.plugins.metashift.analysis.Counter;
 import com.lge.plugins.metashift.analysis.Evaluator;
+import com.lge.plugins.metashift.analysis.MetricAccumulator;
 import com.lge.plugins.metashift.analysis.MutationTestCounter;
 import com.lge.plugins.metashift.analysis.MutationTestEvaluator;
 import com.lge.plugins.metashift.models.Configuration;
-import com.lge.plugins.metashift.models.DataList;
 import com.lge.plugins.metashift.models.DataSummary;
 import com.lge.plugins.metashift.models.MutationTestData;
 import com.lge.plugins.metashift.models.Recipe;
-import com.lge.plugins.metashift.models.Recipes;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 /**
  * MutationTestDataSummaryAggregator class.
@@ -47,18 +47,10 @@ public class MutationTestDataSummaryAggregator
 
   @Override
   public List<DataSummary> parse(Recipe recipe) {
-    Recipes recipes = new Recipes();
-    List<String> files = recipe.objects(MutationTestData.class)
-        .map(MutationTestData::getFile)
-        .distinct()
-        .collect(Collectors.toList());
-    for (String file : files) {
-      DataList dataList = new DataList();
-      dataList.addAll(recipe.objects(MutationTestData.class)
-          .filter(o -> o.getFile().equals(file))
-          .collect(Collectors.toList()));
-      recipes.add(new Recipe(file, dataList));
-    }
-    return parse(recipes);
+    Map<String, MetricAccumulator> files = new LinkedHashMap<>();
+    recipe.objects(MutationTestData.class).forEach(o -> files
+        .computeIfAbsent(o.getFile(), file -> new MetricAccumulator())
+        .add(o));
+    return parse(files);
   }
 }
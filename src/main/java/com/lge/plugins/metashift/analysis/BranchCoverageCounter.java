@@ -5,8 +5,6 @@
 
 package com.lge.plugins.metashift.analysis;
 
-import com.lge.plugins.metashift.models.BranchCoverageData;
-import com.lge.plugins.metashift.models.CoverageData;
 import com.lge.plugins.metashift.models.Distribution;
 import com.lge.plugins.metashift.models.Streamable;
 
@@ -19,8 +17,11 @@ public class BranchCoverageCounter implements Counter {
 
   @Override
   public Distribution parse(Streamable s) {
-    long covered = s.objects(BranchCoverageData.class).filter(CoverageData::isCovered).count();
-    long uncovered = s.objects(BranchCoverageData.class).filter(o -> !o.isCovered()).count();
-    return new Distribution(covered, uncovered);
+    return parse(new MetricAccumulator().addBranchCoverage(s));
+  }
+
+  @Override
+  public Distribution parse(MetricAccumulator a) {
+    return new Distribution(a.getCoveredBranches(), a.getUncoveredBranches());
   }
 }
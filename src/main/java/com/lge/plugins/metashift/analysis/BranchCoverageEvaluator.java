@@ -5,13 +5,10 @@
 
 package com.lge.plugins.metashift.analysis;
 
-import com.lge.plugins.metashift.models.BranchCoverageData;
 import com.lge.plugins.metashift.models.Configuration;
-import com.lge.plugins.metashift.models.CoverageData;
 import com.lge.plugins.metashift.models.Evaluation;
 import com.lge.plugins.metashift.models.PositiveEvaluation;
 import com.lge.plugins.metashift.models.Streamable;
-import com.lge.plugins.metashift.models.TestData;
 
 /**
  * BranchCoverageEvaluator class.
@@ -33,9 +30,14 @@ public class BranchCoverageEvaluator implements Evaluator {
 
   @Override
   public Evaluation parse(Streamable s) {
-    boolean available = s.contains(TestData.class) && s.contains(BranchCoverageData.class);
-    long denominator = s.objects(BranchCoverageData.class).count();
-    long numerator = s.objects(BranchCoverageData.class).filter(CoverageData::isCovered).count();
+    return parse(new MetricAccumulator().addBranchCoverage(s));
+  }
+
+  @Override
+  public Evaluation parse(MetricAccumulator a) {
+    boolean available = a.hasTests() && a.hasBranchCoverage();
+    long denominator = a.getCoveredBranches() + a.getUncoveredBranches();
+    long numerator = a.getCoveredBranches();
     double threshold = (double) configuration.getBranchCoverageThreshold() / 100.0;
     return new PositiveEvaluation(available, denominator, numerator, threshold);
   }
@@ -56,12 +56,12 @@ public class BuildStatusResolver implements Aggregate<Result>, Collector<Recipes
   /**
    * Sets the build status.
    *
-   * @param recipes to parses
+   * @param accumulator of the metrics
    */
-  private void setUnitTests(Recipes recipes) {
+  private void setUnitTests(MetricAccumulator accumulator) {
     status.put(Type.UNIT_TESTS,
         toResult(configuration.isTestAsUnstable(),
-            new UnitTestEvaluator(configuration).parse(recipes)));
+            new UnitTestEvaluator(configuration).parse(accumulator)));
   }
 
   @Override
@@ -72,12 +72,12 @@ public class BuildStatusResolver implements Aggregate<Result>, Collector<Recipes
   /**
    * Sets the build status.
    *
-   * @param recipes to parses
+   * @param accumulator of the metrics
    */
-  private void setStatementCoverage(Recipes recipes) {
+  private void setStatementCoverage(MetricAccumulator accumulator) {
     status.put(Type.STATEMENT_COVERAGE,
         toResult(configuration.isStatementCoverageAsUnstable(),
-            new StatementCoverageEvaluator(configuration).parse(recipes)));
+            new StatementCoverageEvaluator(configuration).parse(accumulator)));
   }
 
   @Override
@@ -88,12 +88,12 @@ public class BuildStatusResolver implements Aggregate<Result>, Collector<Recipes
   /**
    * Sets the build status.
    *
-   * @param recipes to parses
+   * @param accumulator of the metrics
    */
-  private void setBranchCoverage(Recipes recipes) {
+  private void setBranchCoverage(MetricAccumulator accumulator) {
     status.put(Type.BRANCH_COVERAGE,
         toResult(configuration.isBranchCoverageAsUnstable(),
-            new BranchCoverageEvaluator(configuration).parse(recipes)));
+            new BranchCoverageEvaluator(configuration).parse(accumulator)));
   }
 
   @Override
@@ -104,12 +104,12 @@ public class BuildStatusResolver implements Aggregate<Result>, Collector<Recipes
   /**
    * Sets the build status.
    *
-   * @param recipes to parses
+   * @param accumulator of the metrics
    */
-  private void setMutationTests(Recipes recipes) {
+  private void setMutationTests(MetricAccumulator accumulator) {
     status.put(Type.MUTATION_TESTS,
         toResult(configuration.isMutationTestAsUnstable(),
-            new MutationTestEvaluator(configuration).parse(recipes)));
+            new MutationTestEvaluator(configuration).parse(accumulator)));
   }
 
   /**
@@ -123,10 +123,20 @@ public class BuildStatusResolver implements Aggregate<Result>, Collector<Recipes
 
   @Override
   public Void parse(Recipes recipes) {
-    setUnitTests(recipes);
-    setStatementCoverage(recipes);
-    setBranchCoverage(recipes);
-    setMutationTests(recipes);
+    return parse(MetricAccumulator.of(recipes));
+  }
+
+  /**
+   * Resolves the build status using the accumulated metrics of the recipes.
+   *
+   * @param accumulator of the metrics
+   * @return null
+   */
+  public Void parse(MetricAccumulator accumulator) {
+    setUnitTests(accumulator);
+    setStatementCoverage(accumulator);
+    setBranchCoverage(accumulator);
+    setMutationTests(accumulator);
     return null;
   }
 }
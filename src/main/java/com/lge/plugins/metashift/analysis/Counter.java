@@ -15,4 +15,11 @@ import com.lge.plugins.metashift.models.Streamable;
  */
 public interface Counter extends Collector<Streamable, Distribution> {
 
+  /**
+   * Returns the distribution of the accumulated metrics.
+   *
+   * @param accumulator of the metrics
+   * @return distribution object
+   */
+  Distribution parse(MetricAccumulator accumulator);
 }
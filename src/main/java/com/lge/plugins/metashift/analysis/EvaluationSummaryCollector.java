@@ -46,12 +46,23 @@ public class EvaluationSummaryCollector implements Collector<Recipe, EvaluationS
 
   @SuppressWarnings("PMD.UnusedPrivateMethod")
   private EvaluationSummary createEvaluationSummary(String name, Streamable o) {
+    return parse(name, MetricAccumulator.of(o));
+  }
+
+  /**
+   * Creates the evaluation summary using the accumulated metrics.
+   *
+   * @param name        of the summary
+   * @param accumulator of the metrics
+   * @return evaluation summary
+   */
+  public EvaluationSummary parse(String name, MetricAccumulator accumulator) {
     return new EvaluationSummary(
         name,
-        new UnitTestEvaluator(configuration).parse(o),
-        new StatementCoverageEvaluator(configuration).parse(o),
-        new BranchCoverageEvaluator(configuration).parse(o),
-        new MutationTestEvaluator(configuration).parse(o)
+        new UnitTestEvaluator(configuration).parse(accumulator),
+        new StatementCoverageEvaluator(configuration).parse(accumulator),
+        new BranchCoverageEvaluator(configuration).parse(accumulator),
+        new MutationTestEvaluator(configuration).parse(accumulator)
     );
   }
 }
@@ -15,4 +15,11 @@ import com.lge.plugins.metashift.models.Streamable;
  */
 public interface Evaluator extends Collector<Streamable, Evaluation> {
 
+  /**
+   * Returns the evaluation of the accumulated metrics.
+   *
+   * @param accumulator of the metrics
+   * @return evaluation object
+   */
+  Evaluation parse(MetricAccumulator accumulator);
 }
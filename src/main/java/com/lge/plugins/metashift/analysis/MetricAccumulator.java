@@ -0,0 +1,391 @@
+/*
+ * Copyright (c) 2021 LG Electronics Inc.
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.lge.plugins.metashift.analysis;
+
+import com.lge.plugins.metashift.models.BranchCoverageData;
+import com.lge.plugins.metashift.models.ErrorTestData;
+import com.lge.plugins.metashift.models.FailedTestData;
+import com.lge.plugins.metashift.models.KilledMutationTestData;
+import com.lge.plugins.metashift.models.MutationTestData;
+import com.lge.plugins.metashift.models.PassedTestData;
+import com.lge.plugins.metashift.models.SkippedMutationTestData;
+import com.lge.plugins.metashift.models.SkippedTestData;
+import com.lge.plugins.metashift.models.StatementCoverageData;
+import com.lge.plugins.metashift.models.Streamable;
+import com.lge.plugins.metashift.models.SurvivedMutationTestData;
+import com.lge.plugins.metashift.models.TestData;
+import java.io.Serializable;
+
+/**
+ * MetricAccumulator class.
+ *
+ * <p>Counts the objects of all the metrics in a single pass over the data of each metric, so
+ * that the evaluators, the counters and the build status resolver can share the result instead
+ * of streaming the same data again. The accumulators of different recipes can be merged.</p>
+ *
+ * @author Sung Gon Kim
+ */
+public final class MetricAccumulator implements Serializable {
+
+  /**
+   * Represents the UUID of the class.
+   */
+  private static final long serialVersionUID = 2873519487032618461L;
+
+  private boolean tests;
+  private long passedTests;
+  private long failedTests;
+  private long errorTests;
+  private long skippedTests;
+
+  private boolean statements;
+  private long coveredStatements;
+  private long uncoveredStatements;
+
+  private boolean branches;
+  private long coveredBranches;
+  private long uncoveredBranches;
+
+  private boolean mutations;
+  private long killedMutations;
+  private long survivedMutations;
+  private long skippedMutations;
+
+  /**
+   * Creates an accumulator of all the metrics.
+   *
+   * @param s to parse
+   * @return accumulator object
+   */
+  public static MetricAccumulator of(Streamable s) {
+    return new MetricAccumulator()
+        .addTests(s)
+        .addStatementCoverage(s)
+        .addBranchCoverage(s)
+        .addMutationTests(s);
+  }
+
+  /**
+   * Accumulates the unit test data.
+   *
+   * @param s to parse
+   * @return this object
+   */
+  public MetricAccumulator addTests(Streamable s) {
+    tests |= s.contains(TestData.class);
+    s.objects(TestData.class).forEach(this::add);
+    return this;
+  }
+
+  /**
+   * Accumulates the unit test object.
+   *
+   * @param o to accumulate
+   * @return this object
+   */
+  public MetricAccumulator add(TestData o) {
+    tests = true;
+    if (o instanceof PassedTestData) {
+      passedTests++;
+    } else if (o instanceof FailedTestData) {
+      failedTests++;
+    } else if (o instanceof ErrorTestData) {
+      errorTests++;
+    } else if (o instanceof SkippedTestData) {
+      skippedTests++;
+    }
+    return this;
+  }
+
+  /**
+   * Marks the unit test data as available, which the coverage metrics depend on.
+   *
+   * @param available true if the unit test data are available
+   * @return this object
+   */
+  public MetricAccumulator setTests(boolean available) {
+    tests |= available;
+    return this;
+  }
+
+  /**
+   * Accumulates the statement coverage data.
+   *
+   * @param s to parse
+   * @return this object
+   */
+  public MetricAccumulator addStatementCoverage(Streamable s) {
+    statements |= s.contains(StatementCoverageData.class);
+    tests |= s.contains(TestData.class);
+    s.objects(StatementCoverageData.class).forEach(this::add);
+    return this;
+  }
+
+  /**
+   * Accumulates the statement coverage object.
+   *
+   * @param o to accumulate
+   * @return this object
+   */
+  public MetricAccumulator add(StatementCoverageData o) {
+    statements = true;
+    if (o.isCovered()) {
+      coveredStatements++;
+    } else {
+      uncoveredStatements++;
+    }
+    return this;
+  }
+
+  /**
+   * Accumulates the branch coverage data.
+   *
+   * @param s to parse
+   * @return this object
+   */
+  public MetricAccumulator addBranchCoverage(Streamable s) {
+    branches |= s.contains(BranchCoverageData.class);
+    tests |= s.contains(TestData.class);
+    s.objects(BranchCoverageData.class).forEach(this::add);
+    return this;
+  }
+
+  /**
+   * Accumulates the branch coverage object.
+   *
+   * @param o to accumulate
+   * @return this object
+   */
+  public MetricAccumulator add(BranchCoverageData o) {
+    branches = true;
+    if (o.isCovered()) {
+      coveredBranches++;
+    } else {
+      uncoveredBranches++;
+    }
+    return this;
+  }
+
+  /**
+   * Accumulates the mutation test data.
+   *
+   * @param s to parse
+   * @return this object
+   */
+  public MetricAccumulator addMutationTests(Streamable s) {
+    mutations |= s.contains(MutationTestData.class);
+    s.objects(MutationTestData.class).forEach(this::add);
+    return this;
+  }
+
+  /**
+   * Accumulates the mutation test object.
+   *
+   * @param o to accumulate
+   * @return this object
+   */
+  public MetricAccumulator add(MutationTestData o) {
+    mutations = true;
+    if (o instanceof KilledMutationTestData) {
+      killedMutations++;
+    } else if (o instanceof SurvivedMutationTestData) {
+      survivedMutations++;
+    } else if (o instanceof SkippedMutationTestData) {
+      skippedMutations++;
+    }
+    return this;
+  }
+
+  /**
+   * Merges the other accumulator into this object.
+   *
+   * @param other accumulator
+   * @return this object
+   */
+  public MetricAccumulator merge(MetricAccumulator other) {
+    tests |= other.tests;
+    passedTests += other.passedTests;
+    failedTests += other.failedTests;
+    errorTests += other.errorTests;
+    skippedTests += other.skippedTests;
+    statements |= other.statements;
+    coveredStatements += other.coveredStatements;
+    uncoveredStatements += other.uncoveredStatements;
+    branches |= other.branches;
+    coveredBranches += other.coveredBranches;
+    uncoveredBranches += other.uncoveredBranches;
+    mutations |= other.mutations;
+    killedMutations += other.killedMutations;
+    survivedMutations += other.survivedMutations;
+    skippedMutations += other.skippedMutations;
+    return this;
+  }
+
+  /**
+   * Creates an accumulator by merging the accumulators, of the recipes for example.
+   *
+   * @param partials to merge
+   * @return accumulator object
+   */
+  public static MetricAccumulator merge(Iterable<MetricAccumulator> partials) {
+    MetricAccumulator accumulator = new MetricAccumulator();
+    partials.forEach(accumulator::merge);
+    return accumulator;
+  }
+
+  /**
+   * Test if the unit test data are available.
+   *
+   * @return true if available, false otherwise
+   */
+  public boolean hasTests() {
+    return tests;
+  }
+
+  /**
+   * Returns the number of passed tests.
+   *
+   * @return number of passed tests
+   */
+  public long getPassedTests() {
+    return passedTests;
+  }
+
+  /**
+   * Returns the number of failed tests.
+   *
+   * @return number of failed tests
+   */
+  public long getFailedTests() {
+    return failedTests;
+  }
+
+  /**
+   * Returns the number of error tests.
+   *
+   * @return number of error tests
+   */
+  public long getErrorTests() {
+    return errorTests;
+  }
+
+  /**
+   * Returns the number of skipped tests.
+   *
+   * @return number of skipped tests
+   */
+  public long getSkippedTests() {
+    return skippedTests;
+  }
+
+  /**
+   * Returns the number of total tests.
+   *
+   * @return number of total tests
+   */
+  public long getTotalTests() {
+    return passedTests + failedTests + errorTests + skippedTests;
+  }
+
+  /**
+   * Test if the statement coverage data are available.
+   *
+   * @return true if available, false otherwise
+   */
+  public boolean hasStatementCoverage() {
+    return statements;
+  }
+
+  /**
+   * Returns the number of covered statements.
+   *
+   * @return number of covered statements
+   */
+  public long getCoveredStatements() {
+    return coveredStatements;
+  }
+
+  /**
+   * Returns the number of uncovered statements.
+   *
+   * @return number of uncovered statements
+   */
+  public long getUncoveredStatements() {
+    return uncoveredStatements;
+  }
+
+  /**
+   * Test if the branch coverage data are available.
+   *
+   * @return true if available, false otherwise
+   */
+  public boolean hasBranchCoverage() {
+    return branches;
+  }
+
+  /**
+   * Returns the number of covered branches.
+   *
+   * @return number of covered branches
+   */
+  public long getCoveredBranches() {
+    return coveredBranches;
+  }
+
+  /**
+   * Returns the number of uncovered branches.
+   *
+   * @return number of uncovered branches
+   */
+  public long getUncoveredBranches() {
+    return uncoveredBranches;
+  }
+
+  /**
+   * Test if the mutation test data are available.
+   *
+   * @return true if available, false otherwise
+   */
+  public boolean hasMutationTests() {
+    return mutations;
+  }
+
+  /**
+   * Returns the number of killed mutations.
+   *
+   * @return number of killed mutations
+   */
+  public long getKilledMutations() {
+    return killedMutations;
+  }
+
+  /**
+   * Returns the number of survived mutations.
+   *
+   * @return number of survived mutations
+   */
+  public long getSurvivedMutations() {
+    return survivedMutations;
+  }
+
+  /**
+   * Returns the number of skipped mutations.
+   *
+   * @return number of skipped mutations
+   */
+  public long getSkippedMutations() {
+    return skippedMutations;
+  }
+
+  /**
+   * Returns the number of total mutations.
+   *
+   * @return number of total mutations
+   */
+  public long getTotalMutations() {
+    return killedMutations + survivedMutations + skippedMutations;
+  }
+}
@@ -6,10 +6,7 @@
 package com.lge.plugins.metashift.analysis;
 
 import com.lge.plugins.metashift.models.Distribution;
-import com.lge.plugins.metashift.models.KilledMutationTestData;
-import com.lge.plugins.metashift.models.SkippedMutationTestData;
 import com.lge.plugins.metashift.models.Streamable;
-import com.lge.plugins.metashift.models.SurvivedMutationTestData;
 
 /**
  * MutationTestCounter class.
@@ -20,9 +17,12 @@ public class MutationTestCounter implements Counter {
 
   @Override
   public Distribution parse(Streamable s) {
-    long killed = s.objects(KilledMutationTestData.class).count();
-    long survived = s.objects(SurvivedMutationTestData.class).count();
-    long skipped = s.objects(SkippedMutationTestData.class).count();
-    return new Distribution(killed, survived, skipped);
+    return parse(new MetricAccumulator().addMutationTests(s));
+  }
+
+  @Override
+  public Distribution parse(MetricAccumulator a) {
+    return new Distribution(a.getKilledMutations(), a.getSurvivedMutations(),
+        a.getSkippedMutations());
   }
 }
@@ -7,8 +7,6 @@ package com.lge.plugins.metashift.analysis;
 
 import com.lge.plugins.metashift.models.Configuration;
 import com.lge.plugins.metashift.models.Evaluation;
-import com.lge.plugins.metashift.models.KilledMutationTestData;
-import com.lge.plugins.metashift.models.MutationTestData;
 import com.lge.plugins.metashift.models.PositiveEvaluation;
 import com.lge.plugins.metashift.models.Streamable;
 
@@ -32,9 +30,14 @@ public class MutationTestEvaluator implements Evaluator {
 
   @Override
   public Evaluation parse(Streamable s) {
-    boolean available = s.contains(MutationTestData.class);
-    long denominator = s.objects(MutationTestData.class).count();
-    long numerator = s.objects(KilledMutationTestData.class).count();
+    return parse(new MetricAccumulator().addMutationTests(s));
+  }
+
+  @Override
+  public Evaluation parse(MetricAccumulator a) {
+    boolean available = a.hasMutationTests();
+    long denominator = a.getTotalMutations();
+    long numerator = a.getKilledMutations();
     double threshold = (double) configuration.getMutationTestThreshold() / 100.0;
     return new PositiveEvaluation(available, denominator, numerator, threshold);
   }
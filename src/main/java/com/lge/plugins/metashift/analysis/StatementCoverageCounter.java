@@ -5,9 +5,7 @@
 
 package com.lge.plugins.metashift.analysis;
 
-import com.lge.plugins.metashift.models.CoverageData;
 import com.lge.plugins.metashift.models.Distribution;
-import com.lge.plugins.metashift.models.StatementCoverageData;
 import com.lge.plugins.metashift.models.Streamable;
 
 /**
@@ -19,8 +17,11 @@ public class StatementCoverageCounter implements Counter {
 
   @Override
   public Distribution parse(Streamable s) {
-    long covered = s.objects(StatementCoverageData.class).filter(CoverageData::isCovered).count();
-    long uncovered = s.objects(StatementCoverageData.class).filter(o -> !o.isCovered()).count();
-    return new Distribution(covered, uncovered);
+    return parse(new MetricAccumulator().addStatementCoverage(s));
+  }
+
+  @Override
+  public Distribution parse(MetricAccumulator a) {
+    return new Distribution(a.getCoveredStatements(), a.getUncoveredStatements());
   }
 }
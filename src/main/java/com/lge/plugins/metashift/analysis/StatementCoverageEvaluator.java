@@ -6,12 +6,9 @@
 package com.lge.plugins.metashift.analysis;
 
 import com.lge.plugins.metashift.models.Configuration;
-import com.lge.plugins.metashift.models.CoverageData;
 import com.lge.plugins.metashift.models.Evaluation;
 import com.lge.plugins.metashift.models.PositiveEvaluation;
-import com.lge.plugins.metashift.models.StatementCoverageData;
 import com.lge.plugins.metashift.models.Streamable;
-import com.lge.plugins.metashift.models.TestData;
 
 /**
  * StatementCoverageEvaluator class.
@@ -33,9 +30,14 @@ public class StatementCoverageEvaluator implements Evaluator {
 
   @Override
   public Evaluation parse(Streamable s) {
-    boolean available = s.contains(TestData.class) && s.contains(StatementCoverageData.class);
-    long denominator = s.objects(StatementCoverageData.class).count();
-    long numerator = s.objects(StatementCoverageData.class).filter(CoverageData::isCovered).count();
+    return parse(new MetricAccumulator().addStatementCoverage(s));
+  }
+
+  @Override
+  public Evaluation parse(MetricAccumulator a) {
+    boolean available = a.hasTests() && a.hasStatementCoverage();
+    long denominator = a.getCoveredStatements() + a.getUncoveredStatements();
+    long numerator = a.getCoveredStatements();
     double threshold = (double) configuration.getStatementCoverageThreshold() / 100.0;
     return new PositiveEvaluation(available, denominator, numerator, threshold);
   }
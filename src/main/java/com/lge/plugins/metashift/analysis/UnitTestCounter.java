@@ -6,10 +6,6 @@
 package com.lge.plugins.metashift.analysis;
 
 import com.lge.plugins.metashift.models.Distribution;
-import com.lge.plugins.metashift.models.ErrorTestData;
-import com.lge.plugins.metashift.models.FailedTestData;
-import com.lge.plugins.metashift.models.PassedTestData;
-import com.lge.plugins.metashift.models.SkippedTestData;
 import com.lge.plugins.metashift.models.Streamable;
 
 /**
@@ -21,10 +17,12 @@ public class UnitTestCounter implements Counter {
 
   @Override
   public Distribution parse(Streamable s) {
-    long passed = s.objects(PassedTestData.class).count();
-    long failed = s.objects(FailedTestData.class).count();
-    long error = s.objects(ErrorTestData.class).count();
-    long skipped = s.objects(SkippedTestData.class).count();
-    return new Distribution(passed, failed, error, skipped);
+    return parse(new MetricAccumulator().addTests(s));
+  }
+
+  @Override
+  public Distribution parse(MetricAccumulator a) {
+    return new Distribution(a.getPassedTests(), a.getFailedTests(), a.getErrorTests(),
+        a.getSkippedTests());
   }
 }
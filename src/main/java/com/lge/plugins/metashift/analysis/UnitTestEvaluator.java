@@ -7,10 +7,8 @@ package com.lge.plugins.metashift.analysis;
 
 import com.lge.plugins.metashift.models.Configuration;
 import com.lge.plugins.metashift.models.Evaluation;
-import com.lge.plugins.metashift.models.PassedTestData;
 import com.lge.plugins.metashift.models.PositiveEvaluation;
 import com.lge.plugins.metashift.models.Streamable;
-import com.lge.plugins.metashift.models.TestData;
 
 /**
  * UnitTestEvaluator class.
@@ -32,9 +30,14 @@ public class UnitTestEvaluator implements Evaluator {
 
   @Override
   public Evaluation parse(Streamable s) {
-    boolean available = s.contains(TestData.class);
-    long denominator = s.objects(TestData.class).count();
-    long numerator = s.objects(PassedTestData.class).count();
+    return parse(new MetricAccumulator().addTests(s));
+  }
+
+  @Override
+  public Evaluation parse(MetricAccumulator a) {
+    boolean available = a.hasTests();
+    long denominator = a.getTotalTests();
+    long numerator = a.getPassedTests();
     double threshold = (double) configuration.getTestThreshold() / 100.0;
     return new PositiveEvaluation(available, denominator, numerator, threshold);
   }
@@ -5,16 +5,17 @@
 
 package com.lge.plugins.metashift.builders;
 
-import com.lge.plugins.metashift.aggregators.Aggregator;
 import com.lge.plugins.metashift.aggregators.BranchCoverageDataSummaryAggregator;
-import com.lge.plugins.metashift.aggregators.EvaluationSummaryAggregator;
+import com.lge.plugins.metashift.aggregators.DataSummaryAggregator;
 import com.lge.plugins.metashift.aggregators.MutationTestDataSummaryAggregator;
 import com.lge.plugins.metashift.aggregators.StatementCoverageDataSummaryAggregator;
 import com.lge.plugins.metashift.aggregators.UnitTestDataSummaryAggregator;
 import com.lge.plugins.metashift.analysis.BranchCoverageCounter;
 import com.lge.plugins.metashift.analysis.BranchCoverageEvaluator;
 import com.lge.plugins.metashift.analysis.Counter;
+import com.lge.plugins.metashift.analysis.EvaluationSummaryCollector;
 import com.lge.plugins.metashift.analysis.Evaluator;
+import com.lge.plugins.metashift.analysis.MetricAccumulator;
 import com.lge.plugins.metashift.analysis.MutationTestCounter;
 import com.lge.plugins.metashift.analysis.MutationTestEvaluator;
 import com.lge.plugins.metashift.analysis.StatementCoverageCounter;
@@ -26,16 +27,17 @@ import com.lge.plugins.metashift.builders.Constants.Metric;
 import com.lge.plugins.metashift.builders.Constants.Scope;
 import com.lge.plugins.metashift.models.Configuration;
 import com.lge.plugins.metashift.models.DataSummary;
-import com.lge.plugins.metashift.models.Distribution;
-import com.lge.plugins.metashift.models.Evaluation;
 import com.lge.plugins.metashift.models.EvaluationSummary;
+import com.lge.plugins.metashift.models.Recipe;
 import com.lge.plugins.metashift.models.Recipes;
 import com.lge.plugins.metashift.persistence.DataSource;
+import com.lge.plugins.metashift.persistence.DataSource.Batch;
 import com.lge.plugins.metashift.utils.ExecutorServiceUtils;
-import com.lge.plugins.metashift.utils.ExecutorServiceUtils.Function;
 import java.io.IOException;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.concurrent.Callable;
+import java.util.Map;
+import java.util.stream.Collectors;
 import net.sf.json.JSONArray;
 import net.sf.json.JSONObject;
 
@@ -60,76 +62,102 @@ public class ProjectReportBuilder implements Builder<Recipes, ProjectReport> {
     this.dataSource = dataSource;
   }
 
-  private <T> void put(Metric metric, Data data, T object) throws IOException {
-    dataSource.put(object, Scope.PROJECT.name(), metric.name(), data.name());
+  private <T> void put(Batch batch, Metric metric, Data data, T object) throws IOException {
+    batch.put(object, Scope.PROJECT.name(), metric.name(), data.name());
   }
 
   @SuppressWarnings("PMD.UnusedPrivateMethod")
-  private void add(Metric metric, Evaluator evaluator, Counter counter,
-      Aggregator<DataSummary> aggregator, Recipes recipes) throws IOException {
-    Evaluation evaluation = evaluator.parse(recipes);
-    put(metric, Data.EVALUATION, JSONObject.fromObject(evaluation));
-    Distribution distribution = counter.parse(recipes);
-    put(metric, Data.DISTRIBUTION, JSONObject.fromObject(distribution));
-    List<DataSummary> summaries = aggregator.parse(recipes);
-    put(metric, Data.SUMMARIES, JSONArray.fromObject(summaries));
+  private void add(Batch batch, Metric metric, Evaluator evaluator, Counter counter,
+      DataSummaryAggregator aggregator, Map<String, MetricAccumulator> partials,
+      MetricAccumulator total) throws IOException {
+    put(batch, metric, Data.EVALUATION, JSONObject.fromObject(evaluator.parse(total)));
+    put(batch, metric, Data.DISTRIBUTION, JSONObject.fromObject(counter.parse(total)));
+    List<DataSummary> summaries = aggregator.parse(partials);
+    put(batch, metric, Data.SUMMARIES, JSONArray.fromObject(summaries));
   }
 
-  private Void addUnitTests(Recipes recipes) throws IOException {
-    add(Metric.UNIT_TESTS,
+  private Void addUnitTests(Batch batch, Map<String, MetricAccumulator> partials,
+      MetricAccumulator total) throws IOException {
+    add(batch, Metric.UNIT_TESTS,
         new UnitTestEvaluator(configuration),
         new UnitTestCounter(),
         new UnitTestDataSummaryAggregator(configuration),
-        recipes);
+        partials, total);
     return null;
   }
 
-  private Void addStatementCoverage(Recipes recipes) throws IOException {
-    add(Metric.STATEMENT_COVERAGE,
+  private Void addStatementCoverage(Batch batch, Map<String, MetricAccumulator> partials,
+      MetricAccumulator total) throws IOException {
+    add(batch, Metric.STATEMENT_COVERAGE,
         new StatementCoverageEvaluator(configuration),
         new StatementCoverageCounter(),
         new StatementCoverageDataSummaryAggregator(configuration),
-        recipes);
+        partials, total);
     return null;
   }
 
-  private Void addBranchCoverage(Recipes recipes) throws IOException {
-    add(Metric.BRANCH_COVERAGE,
+  private Void addBranchCoverage(Batch batch, Map<String, MetricAccumulator> partials,
+      MetricAccumulator total) throws IOException {
+    add(batch, Metric.BRANCH_COVERAGE,
         new BranchCoverageEvaluator(configuration),
         new BranchCoverageCounter(),
         new BranchCoverageDataSummaryAggregator(configuration),
-        recipes);
+        partials, total);
     return null;
   }
 
-  private Void addMutationTests(Recipes recipes) throws IOException {
-    add(Metric.MUTATION_TESTS,
+  private Void addMutationTests(Batch batch, Map<String, MetricAccumulator> partials,
+      MetricAccumulator total) throws IOException {
+    add(batch, Metric.MUTATION_TESTS,
         new MutationTestEvaluator(configuration),
         new MutationTestCounter(),
         new MutationTestDataSummaryAggregator(configuration),
-        recipes);
+        partials, total);
     return null;
   }
 
-  private Void addSummaries(Recipes recipes) throws IOException {
-    List<EvaluationSummary> objects = new EvaluationSummaryAggregator(configuration).parse(recipes);
-    put(Metric.NONE, Data.SUMMARIES, JSONArray.fromObject(objects));
+  private Void addSummaries(Batch batch, Map<String, MetricAccumulator> partials)
+      throws IOException {
+    EvaluationSummaryCollector collector = new EvaluationSummaryCollector(configuration);
+    List<EvaluationSummary> objects = partials.entrySet().stream()
+        .map(o -> collector.parse(o.getKey(), o.getValue()))
+        .collect(Collectors.toList());
+    put(batch, Metric.NONE, Data.SUMMARIES, JSONArray.fromObject(objects));
     return null;
   }
 
-  private Callable<Void> newTask(Function<Recipes, Void> functor, Recipes recipes) {
-    return () -> functor.apply(recipes);
-  }
-
   @Override
   public ProjectReport parse(Recipes recipes) throws IOException, InterruptedException {
+    Map<String, MetricAccumulator> partials = new LinkedHashMap<>();
+    for (Recipe recipe : recipes) {
+      partials.put(recipe.getName(), MetricAccumulator.of(recipe));
+    }
+    return parse(partials);
+  }
+
+  /**
+   * Creates the project report by combining the accumulated metrics of the recipes, which costs
+   * time in proportion to the number of recipes rather than the amount of data. The project
+   * metrics are evaluated once on the merged metrics, so that a metric depending on the others,
+   * like the coverage on the tests, is available if the project has all of them.
+   *
+   * @param partials accumulated metrics by the recipe name, in order
+   * @return project report
+   * @throws IOException          if failed to operate with files
+   * @throws InterruptedException if an interruption occurs
+   */
+  public ProjectReport parse(Map<String, MetricAccumulator> partials)
+      throws IOException, InterruptedException {
+    MetricAccumulator total = MetricAccumulator.merge(partials.values());
+    Batch batch = dataSource.begin();
     ExecutorServiceUtils.invokeAll(
-        newTask(this::addUnitTests, recipes),
-        newTask(this::addStatementCoverage, recipes),
-        newTask(this::addBranchCoverage, recipes),
-        newTask(this::addMutationTests, recipes),
-        newTask(this::addSummaries, recipes)
+        () -> addUnitTests(batch, partials, total),
+        () -> addStatementCoverage(batch, partials, total),
+        () -> addBranchCoverage(batch, partials, total),
+        () -> addMutationTests(batch, partials, total),
+        () -> addSummaries(batch, partials)
     );
+    batch.commit();
     return new ProjectReport(dataSource);
   }
 }
@@ -14,6 +14,7 @@ import com.lge.plugins.metashift.analysis.BranchCoverageCounter;
 import com.lge.plugins.metashift.analysis.BranchCoverageEvaluator;
 import com.lge.plugins.metashift.analysis.Counter;
 import com.lge.plugins.metashift.analysis.Evaluator;
+import com.lge.plugins.metashift.analysis.MetricAccumulator;
 import com.lge.plugins.metashift.analysis.MutationTestCounter;
 import com.lge.plugins.metashift.analysis.MutationTestEvaluator;
 import com.lge.plugins.metashift.analysis.StatementCoverageCounter;
@@ -33,15 +34,15 @@ import com.lge.plugins.metashift.models.Recipe;
 import com.lge.plugins.metashift.models.StatementCoverageData;
 import com.lge.plugins.metashift.models.TestData;
 import com.lge.plugins.metashift.persistence.DataSource;
+import com.lge.plugins.metashift.persistence.DataSource.Batch;
 import com.lge.plugins.metashift.utils.ExecutorServiceUtils;
-import com.lge.plugins.metashift.utils.ExecutorServiceUtils.Function;
 import hudson.FilePath;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.concurrent.Callable;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import net.sf.json.JSONArray;
@@ -75,33 +76,31 @@ public class RecipeReportBuilder implements Builder<Recipe, RecipeReport> {
     this.reportRoot = reportRoot;
   }
 
-  private <T> void put(Metric metric, Data data, String recipe, T object) throws IOException {
-    dataSource.put(object, Scope.RECIPE.name(), metric.name(), data.name(), recipe);
-  }
-
-  private <T> void put(Metric metric, Data data, String recipe, String file, T object)
+  private <T> void put(Batch batch, Metric metric, Data data, String recipe, T object)
       throws IOException {
-    dataSource.put(object, Scope.RECIPE.name(), metric.name(), data.name(), recipe, file);
+    batch.put(object, Scope.RECIPE.name(), metric.name(), data.name(), recipe);
   }
 
   @SuppressWarnings("PMD.UnusedPrivateMethod")
-  private void add(Metric metric, Evaluator evaluator, Counter counter,
-      RecipeAggregator<?> aggregator, Recipe recipe) throws IOException {
-    Evaluation evaluation = evaluator.parse(recipe);
-    put(metric, Data.EVALUATION, recipe.getName(), JSONObject.fromObject(evaluation));
-    Distribution distribution = counter.parse(recipe);
-    put(metric, Data.DISTRIBUTION, recipe.getName(), JSONObject.fromObject(distribution));
+  private void add(Batch batch, Metric metric, Evaluator evaluator, Counter counter,
+      RecipeAggregator<?> aggregator, Recipe recipe, MetricAccumulator accumulator)
+      throws IOException {
+    Evaluation evaluation = evaluator.parse(accumulator);
+    put(batch, metric, Data.EVALUATION, recipe.getName(), JSONObject.fromObject(evaluation));
+    Distribution distribution = counter.parse(accumulator);
+    put(batch, metric, Data.DISTRIBUTION, recipe.getName(), JSONObject.fromObject(distribution));
     List<?> summaries = aggregator.parse(recipe);
-    put(metric, Data.SUMMARIES, recipe.getName(), JSONArray.fromObject(summaries));
+    put(batch, metric, Data.SUMMARIES, recipe.getName(), JSONArray.fromObject(summaries));
   }
 
   /**
    * Stores the sources of every file the reports refer to. Source storage is a
    * best-effort extra: it must never fail the build, hence the policy boundary here.
    *
+   * @param batch  to store the sources with the other objects of the recipe
    * @param recipe object holding the source directory
    */
-  private Void addSources(Recipe recipe) {
+  private Void addSources(Batch batch, Recipe recipe) {
     if (recipe.getSourceDir() == null || reportRoot == null) {
       return null;
     }
@@ -114,14 +113,14 @@ public class RecipeReportBuilder implements Builder<Recipe, RecipeReport> {
           .flatMap(files -> files)
           .filter(file -> file != null && !file.isEmpty())
           .distinct()
-          .forEach(file -> writeSource(recipe, file));
+          .forEach(file -> writeSource(batch, recipe, file));
     } catch (RuntimeException ignored) {
       // source storage must never fail the build
     }
     return null;
   }
 
-  private void writeSource(Recipe recipe, String file) {
+  private void writeSource(Batch batch, Recipe recipe, String file) {
     // only store files that stay within the source root
     if (escapesSourceRoot(file)) {
       return;
@@ -133,7 +132,8 @@ public class RecipeReportBuilder implements Builder<Recipe, RecipeReport> {
         return;
       }
       String data = IOUtils.toString(filePath.read(), StandardCharsets.UTF_8);
-      put(Metric.NONE, Data.FILE, recipe.getName(), file, data);
+      batch.put(data, Scope.RECIPE.name(), Metric.NONE.name(), Data.FILE.name(),
+          recipe.getName(), file);
     } catch (IOException | InterruptedException ignored) {
       // the source file is unavailable: the file page falls back to the summary
     }
@@ -158,75 +158,94 @@ public class RecipeReportBuilder implements Builder<Recipe, RecipeReport> {
     return false;
   }
 
-  private <T> Void addObjects(Metric metric, String recipe, Map<String, List<T>> group)
-      throws IOException {
+  private <T> Void addObjects(Batch batch, Metric metric, String recipe,
+      Map<String, List<T>> group) throws IOException {
+    Map<String, JSONArray> objects = new LinkedHashMap<>();
     for (Entry<String, List<T>> entry : group.entrySet()) {
-      put(metric, Data.OBJECTS, recipe, entry.getKey(), JSONArray.fromObject(entry.getValue()));
+      objects.put(entry.getKey(), JSONArray.fromObject(entry.getValue()));
     }
+    batch.putAll(objects, Scope.RECIPE.name(), metric.name(), Data.OBJECTS.name(), recipe);
     return null;
   }
 
-  private Void addUnitTests(Recipe recipe) throws IOException {
-    add(Metric.UNIT_TESTS,
+  private Void addUnitTests(Batch batch, Recipe recipe, MetricAccumulator accumulator)
+      throws IOException {
+    add(batch, Metric.UNIT_TESTS,
         new UnitTestEvaluator(configuration),
         new UnitTestCounter(),
         new UnitTestDataSummaryAggregator(configuration),
-        recipe);
+        recipe, accumulator);
     return null;
   }
 
-  private Void addStatementCoverage(Recipe recipe) throws IOException {
-    add(Metric.STATEMENT_COVERAGE,
+  private Void addStatementCoverage(Batch batch, Recipe recipe, MetricAccumulator accumulator)
+      throws IOException {
+    add(batch, Metric.STATEMENT_COVERAGE,
         new StatementCoverageEvaluator(configuration),
         new StatementCoverageCounter(),
         new StatementCoverageDataSummaryAggregator(configuration),
-        recipe);
+        recipe, accumulator);
 
     Map<String, List<CoverageData>> group = recipe.objects(StatementCoverageData.class)
         .collect(Collectors.groupingBy(CoverageData::getFile));
-    addObjects(Metric.STATEMENT_COVERAGE, recipe.getName(), group);
+    addObjects(batch, Metric.STATEMENT_COVERAGE, recipe.getName(), group);
     return null;
   }
 
-  private Void addBranchCoverage(Recipe recipe) throws IOException {
-    add(Metric.BRANCH_COVERAGE,
+  private Void addBranchCoverage(Batch batch, Recipe recipe, MetricAccumulator accumulator)
+      throws IOException {
+    add(batch, Metric.BRANCH_COVERAGE,
         new BranchCoverageEvaluator(configuration),
         new BranchCoverageCounter(),
         new BranchCoverageDataSummaryAggregator(configuration),
-        recipe);
+        recipe, accumulator);
 
     Map<String, List<CoverageData>> group = recipe.objects(BranchCoverageData.class)
         .collect(Collectors.groupingBy(CoverageData::getFile));
-    addObjects(Metric.BRANCH_COVERAGE, recipe.getName(), group);
+    addObjects(batch, Metric.BRANCH_COVERAGE, recipe.getName(), group);
     return null;
   }
 
-  private Void addMutationTests(Recipe recipe) throws IOException {
-    add(Metric.MUTATION_TESTS,
+  private Void addMutationTests(Batch batch, Recipe recipe, MetricAccumulator accumulator)
+      throws IOException {
+    add(batch, Metric.MUTATION_TESTS,
         new MutationTestEvaluator(configuration),
         new MutationTestCounter(),
         new MutationTestDataSummaryAggregator(configuration),
-        recipe);
+        recipe, accumulator);
 
     Map<String, List<MutationTestData>> group = recipe.objects(MutationTestData.class)
         .collect(Collectors.groupingBy(MutationTestData::getFile));
-    addObjects(Metric.MUTATION_TESTS, recipe.getName(), group);
+    addObjects(batch, Metric.MUTATION_TESTS, recipe.getName(), group);
     return null;
   }
 
-  private Callable<Void> newTask(Function<Recipe, Void> functor, Recipe recipe) {
-    return () -> functor.apply(recipe);
-  }
-
   @Override
   public RecipeReport parse(Recipe recipe) throws IOException, InterruptedException {
+    return parse(recipe, MetricAccumulator.of(recipe));
+  }
+
+  /**
+   * Creates the recipe report using the accumulated metrics of the recipe, which are shared with
+   * the project report.
+   *
+   * @param recipe      to parse
+   * @param accumulator of the metrics of the recipe
+   * @return recipe report
+   * @throws IOException          if failed to operate with files
+   * @throws InterruptedException if an interruption occurs
+   */
+  public RecipeReport parse(Recipe recipe, MetricAccumulator accumulator)
+      throws IOException, InterruptedException {
+    Batch batch = dataSource.begin();
     ExecutorServiceUtils.invokeAll(
-        newTask(this::addUnitTests, recipe),
-        newTask(this::addStatementCoverage, recipe),
-        newTask(this::addBranchCoverage, recipe),
-        newTask(this::addMutationTests, recipe),
-        newTask(this::addSources, recipe)
+        () -> addUnitTests(batch, recipe, accumulator),
+        () -> addStatementCoverage(batch, recipe, accumulator),
+        () -> addBranchCoverage(batch, recipe, accumulator),
+        () -> addMutationTests(batch, recipe, accumulator),
+        () -> addSources(batch, recipe)
     );
+    batch.commit();
     return new RecipeReport(dataSource, recipe.getName());
   }
 }
@@ -8,15 +8,20 @@ package com.lge.plugins.metashift.models;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Stream;
 
 /**
  * A heterogeneous data list class.
  *
+ * <p>The objects are partitioned into buckets by their concrete class, so that a query of a type
+ * only visits the buckets of its subclasses. The list is thread-safe while the parsers add the
+ * objects, and can be sealed afterwards to be read without locking.</p>
+ *
  * @author Sung Gon Kim
  */
 public class DataList implements Streamable, Serializable {
@@ -27,18 +32,51 @@ public class DataList implements Streamable, Serializable {
   private static final long serialVersionUID = 7792884940286821063L;
 
   /**
-   * Represents the object list.
+   * Represents the objects grouped by the concrete class, in insertion order.
+   */
+  private final Map<Class<?>, List<Object>> buckets;
+
+  /**
+   * Represents the compact coverage objects.
    */
-  private final List<Object> objects;
+  private final List<FileCoverage> files;
 
   /**
    * Represents the object types.
    */
   private final Set<Class<?>> types;
 
+  /**
+   * Represents whether the list is read-only.
+   */
+  private volatile boolean sealed;
+
+  /**
+   * Default constructor.
+   */
   public DataList() {
-    objects = Collections.synchronizedList(new ArrayList<>());
-    types = Collections.synchronizedSet(new HashSet<>());
+    buckets = new LinkedHashMap<>();
+    files = new ArrayList<>();
+    types = new HashSet<>();
+    sealed = false;
+  }
+
+  /**
+   * Makes the list read-only, so that the objects are read without locking.
+   */
+  public synchronized void seal() {
+    buckets.values().forEach(bucket -> ((ArrayList<Object>) bucket).trimToSize());
+    ((ArrayList<FileCoverage>) files).trimToSize();
+    sealed = true;
+  }
+
+  /**
+   * Test if the list is read-only.
+   *
+   * @return true if sealed, false otherwise
+   */
+  public boolean isSealed() {
+    return sealed;
   }
 
   /**
@@ -47,7 +85,20 @@ public class DataList implements Streamable, Serializable {
    * @return the number of elements in the list
    */
   public int size() {
-    return objects.size();
+    if (!sealed) {
+      synchronized (this) {
+        return count();
+      }
+    }
+    return count();
+  }
+
+  private int count() {
+    int size = files.stream().mapToInt(FileCoverage::size).sum();
+    for (List<Object> bucket : buckets.values()) {
+      size += bucket.size();
+    }
+    return size;
   }
 
   /**
@@ -56,9 +107,19 @@ public class DataList implements Streamable, Serializable {
    * @param object to add
    * @param <T>    object type
    */
-  public <T> void add(final T object) {
-    objects.add(object);
-    types.add(object.getClass());
+  public synchronized <T> void add(final T object) {
+    checkNotSealed();
+    append(object);
+  }
+
+  /**
+   * Adds the compact coverage object to the list.
+   *
+   * @param coverage to add
+   */
+  public synchronized void add(final FileCoverage coverage) {
+    checkNotSealed();
+    append(coverage);
   }
 
   /**
@@ -66,7 +127,8 @@ public class DataList implements Streamable, Serializable {
    *
    * @param type to add
    */
-  public <T> void add(final Class<T> type) {
+  public synchronized <T> void add(final Class<T> type) {
+    checkNotSealed();
     types.add(type);
   }
 
@@ -76,19 +138,87 @@ public class DataList implements Streamable, Serializable {
    * @param collection to add
    * @param <T>        object type
    */
-  public <T> void addAll(final Collection<? extends T> collection) {
-    objects.addAll(collection);
-    collection.stream().map(Object::getClass).distinct().forEach(types::add);
+  public synchronized <T> void addAll(final Collection<? extends T> collection) {
+    checkNotSealed();
+    for (T object : collection) {
+      append(object);
+    }
+  }
+
+  /**
+   * Adds the object to its bucket, or to the compact coverage objects regardless of the static
+   * type of the caller.
+   *
+   * @param object to add
+   */
+  private void append(final Object object) {
+    if (object instanceof FileCoverage) {
+      append((FileCoverage) object);
+      return;
+    }
+    buckets.computeIfAbsent(object.getClass(), key -> new ArrayList<>()).add(object);
+    types.add(object.getClass());
+  }
+
+  private void append(final FileCoverage coverage) {
+    files.add(coverage);
+    if (coverage.getStatements() > 0) {
+      types.add(StatementCoverageData.class);
+    }
+    if (coverage.getBranches() > 0) {
+      types.add(BranchCoverageData.class);
+    }
+  }
+
+  private void checkNotSealed() {
+    if (sealed) {
+      throw new UnsupportedOperationException("Sealed data list");
+    }
   }
 
   @Override
-  public <T> boolean contains(Class<T> clazz) {
+  public <T> boolean contains(final Class<T> clazz) {
+    if (!sealed) {
+      synchronized (this) {
+        return types.stream().anyMatch(clazz::isAssignableFrom);
+      }
+    }
     return types.stream().anyMatch(clazz::isAssignableFrom);
   }
 
   @Override
-  @SuppressWarnings({"unchecked", "PMD.UnnecessaryModifier"})
+  @SuppressWarnings("PMD.UnnecessaryModifier")
   public <T> Stream<T> objects(final Class<T> clazz) {
-    return (Stream<T>) objects.stream().filter(o -> clazz.isAssignableFrom(o.getClass()));
+    if (!sealed) {
+      synchronized (this) {
+        return select(clazz, true);
+      }
+    }
+    return select(clazz, false);
+  }
+
+  /**
+   * Returns the stream of the buckets which match the given class type.
+   *
+   * @param clazz class type
+   * @param copy  true to copy the buckets which might be modified later
+   * @param <T>   type of the stream
+   * @return a stream object
+   */
+  @SuppressWarnings("unchecked")
+  private <T> Stream<T> select(final Class<T> clazz, final boolean copy) {
+    Stream<Object> stream = Stream.empty();
+    for (Map.Entry<Class<?>, List<Object>> entry : buckets.entrySet()) {
+      if (clazz.isAssignableFrom(entry.getKey())) {
+        List<Object> bucket = copy ? new ArrayList<>(entry.getValue()) : entry.getValue();
+        stream = Stream.concat(stream, bucket.stream());
+      }
+    }
+    if (!files.isEmpty() && (clazz.isAssignableFrom(StatementCoverageData.class)
+        || clazz.isAssignableFrom(BranchCoverageData.class))) {
+      List<FileCoverage> coverages = copy ? new ArrayList<>(files) : files;
+      stream = Stream.concat(stream, coverages.stream().flatMap(file -> file.objects(clazz)));
+    }
+    return (Stream<T>) stream;
   }
 }
@@ -0,0 +1,264 @@
+/*
+ * Copyright (c) 2021 LG Electronics Inc.
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.lge.plugins.metashift.models;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * A compact coverage representation of a file.
+ *
+ * <p>Instead of the StatementCoverageData and BranchCoverageData objects, the line numbers are
+ * kept in an int array, the statement coverage in a bit set, and the number of covered and total
+ * branches of each line in parallel arrays. The coverage objects are created on demand when
+ * streamed, in the same order as the parser would create them.</p>
+ *
+ * @author Sung Gon Kim
+ */
+public final class FileCoverage implements Streamable, Serializable {
+
+  /**
+   * Represents the UUID of the class.
+   */
+  private static final long serialVersionUID = -5402361876117409561L;
+
+  /**
+   * Represents the recipe name.
+   */
+  private final String recipe;
+
+  /**
+   * Represents the file name.
+   */
+  private final String file;
+
+  /**
+   * Represents the line numbers.
+   */
+  private final int[] lines;
+
+  /**
+   * Represents the statement coverage of each line.
+   */
+  private final BitSet covered;
+
+  /**
+   * Represents the number of covered branches of each line.
+   */
+  private final int[] coveredBranches;
+
+  /**
+   * Represents the number of total branches of each line.
+   */
+  private final int[] totalBranches;
+
+  /**
+   * Default constructor.
+   *
+   * @param builder to copy
+   */
+  private FileCoverage(final Builder builder) {
+    this.recipe = builder.recipe;
+    this.file = builder.file;
+    this.lines = Arrays.copyOf(builder.lines, builder.size);
+    this.covered = (BitSet) builder.covered.clone();
+    this.coveredBranches = Arrays.copyOf(builder.coveredBranches, builder.size);
+    this.totalBranches = Arrays.copyOf(builder.totalBranches, builder.size);
+  }
+
+  /**
+   * Returns the recipe name.
+   *
+   * @return recipe name
+   */
+  public String getRecipe() {
+    return recipe;
+  }
+
+  /**
+   * Returns the file name.
+   *
+   * @return file name
+   */
+  public String getFile() {
+    return file;
+  }
+
+  /**
+   * Returns the number of the statement coverage objects.
+   *
+   * @return number of statements
+   */
+  public int getStatements() {
+    return lines.length;
+  }
+
+  /**
+   * Returns the number of the branch coverage objects.
+   *
+   * @return number of branches
+   */
+  public int getBranches() {
+    int sum = 0;
+    for (int i = 0; i < lines.length; i++) {
+      sum += branches(i);
+    }
+    return sum;
+  }
+
+  /**
+   * Returns the number of the coverage objects.
+   *
+   * @return number of objects
+   */
+  public int size() {
+    return getStatements() + getBranches();
+  }
+
+  private int branches(final int i) {
+    return Math.max(coveredBranches[i], totalBranches[i]);
+  }
+
+  @Override
+  public <T> boolean contains(final Class<T> clazz) {
+    return (lines.length > 0 && clazz.isAssignableFrom(StatementCoverageData.class))
+        || (getBranches() > 0 && clazz.isAssignableFrom(BranchCoverageData.class));
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> Stream<T> objects(final Class<T> clazz) {
+    boolean statements = clazz.isAssignableFrom(StatementCoverageData.class);
+    boolean branches = clazz.isAssignableFrom(BranchCoverageData.class);
+    if (!statements && !branches) {
+      return Stream.empty();
+    }
+    return (Stream<T>) IntStream.range(0, lines.length).boxed().flatMap(i -> {
+      Stream<CoverageData> stream = statements
+          ? Stream.of(new StatementCoverageData(recipe, file, lines[i], covered.get(i)))
+          : Stream.empty();
+      if (branches && branches(i) > 0) {
+        stream = Stream.concat(stream, IntStream.range(0, branches(i)).mapToObj(index ->
+            new BranchCoverageData(recipe, file, lines[i], index, index < coveredBranches[i])));
+      }
+      return stream;
+    });
+  }
+
+  /**
+   * Builder class for the FileCoverage objects.
+   */
+  public static final class Builder {
+
+    /**
+     * Represents the recipe name.
+     */
+    private final String recipe;
+
+    /**
+     * Represents the file name.
+     */
+    private final String file;
+
+    /**
+     * Represents the number of lines.
+     */
+    private int size;
+
+    /**
+     * Represents the line numbers.
+     */
+    private int[] lines;
+
+    /**
+     * Represents the statement coverage of each line.
+     */
+    private final BitSet covered;
+
+    /**
+     * Represents the number of covered branches of each line.
+     */
+    private int[] coveredBranches;
+
+    /**
+     * Represents the number of total branches of each line.
+     */
+    private int[] totalBranches;
+
+    /**
+     * Default constructor.
+     *
+     * @param recipe name
+     * @param file   name
+     */
+    public Builder(final String recipe, final String file) {
+      this.recipe = recipe;
+      this.file = file;
+      this.size = 0;
+      this.lines = new int[16];
+      this.covered = new BitSet();
+      this.coveredBranches = new int[16];
+      this.totalBranches = new int[16];
+    }
+
+    /**
+     * Adds the coverage of a line.
+     *
+     * @param line            number
+     * @param statement       true if the statement is covered, false otherwise
+     * @param coveredBranches number of covered branches
+     * @param totalBranches   number of total branches
+     * @return builder object
+     */
+    public Builder add(final int line, final boolean statement, final int coveredBranches,
+        final int totalBranches) {
+      if (size == lines.length) {
+        int capacity = size * 2;
+        lines = Arrays.copyOf(lines, capacity);
+        this.coveredBranches = Arrays.copyOf(this.coveredBranches, capacity);
+        this.totalBranches = Arrays.copyOf(this.totalBranches, capacity);
+      }
+      lines[size] = line;
+      covered.set(size, statement);
+      this.coveredBranches[size] = coveredBranches;
+      this.totalBranches[size] = totalBranches;
+      size++;
+      return this;
+    }
+
+    /**
+     * Test if no line is added.
+     *
+     * @return true if empty, false otherwise
+     */
+    public boolean isEmpty() {
+      return size == 0;
+    }
+
+    /**
+     * Removes all the lines.
+     *
+     * @return builder object
+     */
+    public Builder clear() {
+      size = 0;
+      covered.clear();
+      return this;
+    }
+
+    /**
+     * Creates a FileCoverage object.
+     *
+     * @return FileCoverage object
+     */
+    public FileCoverage build() {
+      return new FileCoverage(this);
+    }
+  }
+}
@@ -5,11 +5,11 @@
 
 package com.lge.plugins.metashift.parsers;
 
-import com.lge.plugins.metashift.models.BranchCoverageData;
 import com.lge.plugins.metashift.models.CoverageData;
 import com.lge.plugins.metashift.models.DataList;
-import com.lge.plugins.metashift.models.StatementCoverageData;
+import com.lge.plugins.metashift.models.FileCoverage;
 import com.lge.plugins.metashift.utils.xml.SimpleXmlParser;
+import com.lge.plugins.metashift.utils.xml.StreamingXmlParser;
 import com.lge.plugins.metashift.utils.xml.Tag;
 import hudson.FilePath;
 import java.io.IOException;
@@ -20,6 +20,7 @@ import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLStreamException;
 import org.apache.commons.io.output.NullPrintStream;
 import org.xml.sax.SAXException;
 
@@ -30,6 +31,11 @@ import org.xml.sax.SAXException;
  */
 public class CoverageParser extends Parser {
 
+  /**
+   * Represents the pattern of the condition-coverage attribute.
+   */
+  private static final Pattern CONDITION_PATTERN = Pattern.compile("(\\d+)/(\\d+)");
+
   private final FilePath path;
   private final DataList dataList;
   private final PrintStream logger;
@@ -64,22 +70,14 @@ public class CoverageParser extends Parser {
       report = path.child("coverage").child("cobertura-coverage.xml");
     }
     try {
-      SimpleXmlParser parser = new SimpleXmlParser(report);
-      List<CoverageData> objects = new ArrayList<>();
-
       String sourceRoot = readSourceRoot(path.child("coverage"));
-      for (Tag tag : parser.getChildNodes("class")) {
-        String filename = relativize(sourceRoot, tag.getAttribute("filename"));
-        if (isHidden(filename)) {
-          continue;
-        }
-        for (Tag line : tag.getChildNodes("lines").last().getChildNodes("line")) {
-          objects.addAll(createInstances(path.getName(), filename, line));
-        }
+      if (isStreaming()) {
+        parseStream(report, sourceRoot);
+      } else {
+        parseDocument(report, sourceRoot);
       }
-      dataList.addAll(objects);
       dataList.add(CoverageData.class);
-    } catch (ParserConfigurationException | SAXException e) {
+    } catch (ParserConfigurationException | SAXException | XMLStreamException e) {
       throw new IllegalArgumentException("Failed to parse: " + report, e);
     } catch (NoSuchFileException e) {
       logger.printf("[meta-shift-plugin] -> coverage report not found: %s%n", e.getFile());
@@ -87,43 +85,102 @@ public class CoverageParser extends Parser {
   }
 
   /**
-   * Creates a list of coverage objects based on the given tags.
+   * Parses the report by building the document tree.
    *
-   * @param recipe   name
-   * @param filename name
-   * @param line     number
-   * @return a list of coverage objects
+   * @param report     to parse
+   * @param sourceRoot source root path, nullable
    */
-  private static List<CoverageData> createInstances(String recipe, String filename, Tag line) {
-    List<CoverageData> list = new ArrayList<>();
-    if (line == null) {
-      return list;
+  private void parseDocument(FilePath report, String sourceRoot)
+      throws IOException, InterruptedException, ParserConfigurationException, SAXException {
+    SimpleXmlParser parser = new SimpleXmlParser(report);
+    List<FileCoverage> objects = new ArrayList<>();
+    for (Tag tag : parser.getChildNodes("class")) {
+      String filename = relativize(sourceRoot, tag.getAttribute("filename"));
+      if (isHidden(filename)) {
+        continue;
+      }
+      FileCoverage.Builder builder = new FileCoverage.Builder(path.getName(), filename);
+      for (Tag line : tag.getChildNodes("lines").last().getChildNodes("line")) {
+        add(builder, line.getAttribute("number", "0"), line.getAttribute("hits", "0"),
+            line.hasAttribute("condition-coverage")
+                ? line.getAttribute("condition-coverage") : null);
+      }
+      objects.add(builder.build());
     }
-    try {
-      long lineNumber = Long.parseLong(line.getAttribute("number", "0"));
-      boolean covered = Long.parseLong(line.getAttribute("hits", "0")) > 0;
-      list.add(new StatementCoverageData(recipe, filename, lineNumber, covered));
+    objects.forEach(dataList::add);
+  }
 
-      if (line.hasAttribute("condition-coverage")) {
-        Pattern pattern = Pattern.compile("(\\d+)/(\\d+)");
-        Matcher matcher = pattern.matcher(line.getAttribute("condition-coverage"));
-        if (matcher.find()) {
-          int coveredBranches = Integer.parseInt(matcher.group(1));
-          int totalBranches = Integer.parseInt(matcher.group(2));
-          int index = 0;
-          // Create covered branch coverage data
-          for (; index < coveredBranches; index++) {
-            list.add(new BranchCoverageData(recipe, filename, lineNumber, index, true));
+  /**
+   * Parses the report in a single pass, adding the coverage of each class as soon as its tag is
+   * closed. Only the last lines tag of each class is used, as the document tree mode does.
+   *
+   * @param report     to parse
+   * @param sourceRoot source root path, nullable
+   */
+  private void parseStream(FilePath report, String sourceRoot)
+      throws IOException, InterruptedException, XMLStreamException {
+    try (StreamingXmlParser parser = new StreamingXmlParser(report)) {
+      FileCoverage.Builder builder = null;
+      int linesDepth = 0;
+      while (parser.next()) {
+        String name = parser.getTagName();
+        if (parser.isStartTag()) {
+          if (name.equals("class")) {
+            String filename = relativize(sourceRoot, parser.getAttribute("filename"));
+            builder = isHidden(filename) ? null
+                : new FileCoverage.Builder(path.getName(), filename);
+          } else if (builder != null && name.equals("lines")) {
+            builder.clear();
+            linesDepth = parser.getDepth();
+          } else if (linesDepth > 0 && name.equals("line")) {
+            add(builder, parser.getAttribute("number", "0"), parser.getAttribute("hits", "0"),
+                parser.hasAttribute("condition-coverage")
+                    ? parser.getAttribute("condition-coverage") : null);
           }
-          // Create uncovered branch coverage data
-          for (; index < totalBranches; index++) {
-            list.add(new BranchCoverageData(recipe, filename, lineNumber, index, false));
+        } else if (name.equals("lines") && parser.getDepth() == linesDepth) {
+          linesDepth = 0;
+        } else if (name.equals("class")) {
+          if (builder != null) {
+            dataList.add(builder.build());
           }
+          builder = null;
         }
       }
+    }
+  }
+
+  /**
+   * Adds the coverage of a line based on the given attributes.
+   *
+   * @param builder   to add the line
+   * @param number    line number
+   * @param hits      hit count of the line
+   * @param condition condition coverage, nullable
+   */
+  private static void add(FileCoverage.Builder builder, String number, String hits,
+      String condition) {
+    int line;
+    boolean covered;
+    try {
+      line = Integer.parseInt(number);
+      covered = Long.parseLong(hits) > 0;
     } catch (NumberFormatException ignored) {
-      // ignored
+      return;
+    }
+    int coveredBranches = 0;
+    int totalBranches = 0;
+    if (condition != null) {
+      Matcher matcher = CONDITION_PATTERN.matcher(condition);
+      if (matcher.find()) {
+        try {
+          coveredBranches = Integer.parseInt(matcher.group(1));
+          totalBranches = Integer.parseInt(matcher.group(2));
+        } catch (NumberFormatException ignored) {
+          coveredBranches = 0;
+          totalBranches = 0;
+        }
+      }
     }
-    return list;
+    builder.add(line, covered, coveredBranches, totalBranches);
   }
 }
@@ -12,13 +12,26 @@ import com.lge.plugins.metashift.models.Recipe;
 import com.lge.plugins.metashift.models.Recipes;
 import com.lge.plugins.metashift.models.TestData;
 import com.lge.plugins.metashift.utils.ExecutorServiceUtils;
+import com.lge.plugins.metashift.utils.JsonUtils;
+import com.lge.plugins.metashift.utils.ManagedExecutor;
 import com.lge.plugins.metashift.utils.NamingUtils;
+import com.lge.plugins.metashift.utils.xml.SimpleXmlParser;
 import hudson.FilePath;
+import hudson.remoting.VirtualChannel;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.PrintStream;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
+import jenkins.MasterToSlaveFileCallable;
+import jenkins.util.SystemProperties;
 import org.apache.commons.io.output.NullPrintStream;
 
 /**
@@ -30,6 +43,18 @@ public class FileParser {
 
   private final PrintStream logger;
 
+  /**
+   * Represents the parallel mode, which parses the recipes on the shared executor at once.
+   */
+  private boolean parallel = SystemProperties.getBoolean(FileParser.class.getName() + ".parallel",
+      true);
+
+  /**
+   * Represents the agent mode, which parses the remote files on the agent where they are.
+   */
+  private boolean agent = SystemProperties.getBoolean(FileParser.class.getName() + ".agent",
+      true);
+
   /**
    * Default constructor.
    *
@@ -46,6 +71,42 @@ public class FileParser {
     this(NullPrintStream.NULL_PRINT_STREAM);
   }
 
+  /**
+   * Test if the parallel mode is enabled.
+   *
+   * @return true if the parallel mode is enabled, false otherwise
+   */
+  public boolean isParallel() {
+    return parallel;
+  }
+
+  /**
+   * Sets the parallel mode.
+   *
+   * @param parallel true to parse the recipes at once, false to parse them one at a time
+   */
+  public void setParallel(boolean parallel) {
+    this.parallel = parallel;
+  }
+
+  /**
+   * Test if the agent mode is enabled.
+   *
+   * @return true if the agent mode is enabled, false otherwise
+   */
+  public boolean isAgent() {
+    return agent;
+  }
+
+  /**
+   * Sets the agent mode.
+   *
+   * @param agent true to parse the remote files on the agent, false to read them over the channel
+   */
+  public void setAgent(boolean agent) {
+    this.agent = agent;
+  }
+
   /**
    * Parses the files in the directory to create the list of recipes.
    *
@@ -53,6 +114,11 @@ public class FileParser {
    * @return list of recipes
    */
   public Recipes parse(FilePath path) throws IOException, InterruptedException {
+    if (agent && path.isRemote()) {
+      Result result = path.act(new ParseCallable(parallel));
+      logger.print(result.getLog());
+      return result.getRecipes();
+    }
     if (!path.exists()) {
       throw new IllegalArgumentException("Directory not found: " + path);
     }
@@ -67,9 +133,13 @@ public class FileParser {
 
     logger.println("[meta-shift-plugin] Parsing the meta-shift report...");
     Recipes recipes = new Recipes();
-    for (FilePath directory : directories) {
-      logger.printf("[meta-shift-plugin] -> %s%n", directory.getName());
-      recipes.add(parseEach(directory));
+    if (parallel && directories.size() > 1) {
+      recipes.addAll(parseAll(directories));
+    } else {
+      for (FilePath directory : directories) {
+        logger.printf("[meta-shift-plugin] -> %s%n", directory.getName());
+        recipes.add(parseEach(directory));
+      }
     }
 
     logger.println("[meta-shift-plugin] Removing recipe data with no report data...");
@@ -101,17 +171,86 @@ public class FileParser {
     if (!path.isDirectory()) {
       throw new IllegalArgumentException("Not a directory: " + path);
     }
+    DataList dataList = new DataList();
+    ExecutorServiceUtils.invokeAll(createParsers(path, dataList, logger));
+    return createRecipe(path, dataList);
+  }
+
+  /**
+   * Creates Recipe objects by running the parsers of all the directories on the shared executor.
+   * The recipes and the log messages keep the order of the directories, as the parsers of each
+   * directory log into a buffer which is printed after the name of the directory.
+   *
+   * @param directories to the recipe directories
+   * @return list of recipes
+   * @throws IOException          if a file IO fails
+   * @throws InterruptedException if an interruption occurs
+   */
+  private List<Recipe> parseAll(List<FilePath> directories)
+      throws IOException, InterruptedException {
+    ManagedExecutor executor = ManagedExecutor.getInstance();
+    List<DataList> dataLists = new ArrayList<>();
+    List<ByteArrayOutputStream> buffers = new ArrayList<>();
+    List<List<Future<Void>>> futures = new ArrayList<>();
+    try {
+      for (FilePath directory : directories) {
+        if (!directory.isDirectory()) {
+          throw new IllegalArgumentException("Not a directory: " + directory);
+        }
+        DataList dataList = new DataList();
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        PrintStream log = new PrintStream(buffer, true, StandardCharsets.UTF_8.name());
+        futures.add(executor.submitAll(Arrays.asList(createParsers(directory, dataList, log))));
+        dataLists.add(dataList);
+        buffers.add(buffer);
+      }
+      List<Recipe> recipes = new ArrayList<>();
+      for (int i = 0; i < directories.size(); i++) {
+        logger.printf("[meta-shift-plugin] -> %s%n", directories.get(i).getName());
+        for (Future<Void> future : futures.get(i)) {
+          executor.get(future);
+        }
+        logger.print(buffers.get(i).toString(StandardCharsets.UTF_8.name()));
+        recipes.add(createRecipe(directories.get(i), dataLists.get(i)));
+      }
+      return recipes;
+    } finally {
+      futures.forEach(executor::cancelAll);
+    }
+  }
+
+  /**
+   * Creates the parsers of the recipe directory.
+   *
+   * @param path     to the recipe directory
+   * @param dataList to store objects
+   * @param logger   for logging
+   * @return parsers
+   * @throws IllegalArgumentException if the recipe name is malformed
+   */
+  private Parser[] createParsers(FilePath path, DataList dataList, PrintStream logger) {
     String name = path.getName();
     if (!NamingUtils.isValid(name)) {
       throw new IllegalArgumentException("Invalid recipe name: " + name);
     }
-    DataList dataList = new DataList();
-    ExecutorServiceUtils.invokeAll(
+    return new Parser[]{
         new CoverageParser(path, dataList, logger),
         new MutationTestParser(path, dataList, logger),
         new TestParser(path, dataList, logger)
-    );
-    Recipe recipe = new Recipe(NamingUtils.getRecipe(name), dataList);
+    };
+  }
+
+  /**
+   * Creates a Recipe object using the parsed objects, sealing the data list as no more objects
+   * are added.
+   *
+   * @param path     to the recipe directory
+   * @param dataList of the parsed objects
+   * @return recipe object
+   */
+  private Recipe createRecipe(FilePath path, DataList dataList) throws InterruptedException {
+    dataList.seal();
+    Recipe recipe = new Recipe(NamingUtils.getRecipe(path.getName()), dataList);
     recipe.setSourceDir(readSourceDir(path));
     return recipe;
   }
@@ -131,4 +270,99 @@ public class FileParser {
     }
     return null;
   }
+
+  /**
+   * A callable which parses the recipe directories on the agent, so that only the parsed objects
+   * are sent back instead of the report files.
+   */
+  static final class ParseCallable extends MasterToSlaveFileCallable<Result> {
+
+    /**
+     * Represents the UUID of the class.
+     */
+    private static final long serialVersionUID = -1905838455734914163L;
+
+    /**
+     * Represents the parallel mode.
+     */
+    private final boolean parallel;
+
+    /**
+     * Default constructor.
+     *
+     * @param parallel mode
+     */
+    ParseCallable(boolean parallel) {
+      this.parallel = parallel;
+    }
+
+    @Override
+    public Result invoke(File file, VirtualChannel channel)
+        throws IOException, InterruptedException {
+      ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+      PrintStream logger = new PrintStream(buffer, true, StandardCharsets.UTF_8.name());
+      FileParser parser = new FileParser(logger);
+      parser.setParallel(parallel);
+      parser.setAgent(false);
+      FilePath path = new FilePath(file);
+      try {
+        Recipes recipes = parser.parse(path);
+        return new Result(recipes, buffer.toString(StandardCharsets.UTF_8.name()));
+      } finally {
+        // the caches of the agent are not released by the controller
+        SimpleXmlParser.getCache().invalidate(path);
+        JsonUtils.getCache().invalidate(path);
+      }
+    }
+  }
+
+  /**
+   * The result of the callable, with the log messages printed on the agent.
+   */
+  static final class Result implements Serializable {
+
+    /**
+     * Represents the UUID of the class.
+     */
+    private static final long serialVersionUID = 2254380734937128496L;
+
+    /**
+     * Represents the parsed recipes.
+     */
+    private final Recipes recipes;
+
+    /**
+     * Represents the log messages.
+     */
+    private final String log;
+
+    /**
+     * Default constructor.
+     *
+     * @param recipes parsed
+     * @param log     messages
+     */
+    Result(Recipes recipes, String log) {
+      this.recipes = recipes;
+      this.log = log;
+    }
+
+    /**
+     * Returns the parsed recipes.
+     *
+     * @return recipes
+     */
+    Recipes getRecipes() {
+      return recipes;
+    }
+
+    /**
+     * Returns the log messages.
+     *
+     * @return log messages
+     */
+    String getLog() {
+      return log;
+    }
+  }
 }
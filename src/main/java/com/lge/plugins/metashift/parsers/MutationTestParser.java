@@ -11,6 +11,7 @@ import com.lge.plugins.metashift.models.MutationTestData;
 import com.lge.plugins.metashift.models.SkippedMutationTestData;
 import com.lge.plugins.metashift.models.SurvivedMutationTestData;
 import com.lge.plugins.metashift.utils.xml.SimpleXmlParser;
+import com.lge.plugins.metashift.utils.xml.StreamingXmlParser;
 import com.lge.plugins.metashift.utils.xml.Tag;
 import hudson.FilePath;
 import java.io.IOException;
@@ -19,7 +20,9 @@ import java.nio.file.NoSuchFileException;
 import java.util.ArrayList;
 import java.util.List;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLStreamException;
 import org.apache.commons.io.output.NullPrintStream;
+import org.apache.commons.lang3.StringUtils;
 import org.xml.sax.SAXException;
 
 /**
@@ -60,27 +63,133 @@ public class MutationTestParser extends Parser {
   public void parse() throws IOException, InterruptedException {
     FilePath report = path.child("checktest").child("mutations.xml");
     try {
-      SimpleXmlParser parser = new SimpleXmlParser(report);
-      List<MutationTestData> objects = new ArrayList<>();
-
       String sourceRoot = readSourceRoot(path.child("checktest"));
-      for (Tag tag : parser.getChildNodes("mutation")) {
-        String file = relativize(sourceRoot,
-            tag.getChildNodes("sourceFilePath").first().getTextContent());
-        if (isHidden(file)) {
-          continue;
-        }
-        objects.add(createInstance(path.getName(), file, tag));
+      if (isStreaming()) {
+        parseStream(report, sourceRoot);
+      } else {
+        parseDocument(report, sourceRoot);
       }
-      dataList.addAll(objects);
       dataList.add(MutationTestData.class);
-    } catch (ParserConfigurationException | SAXException e) {
+    } catch (ParserConfigurationException | SAXException | XMLStreamException e) {
       throw new IllegalArgumentException("Failed to parse: " + report, e);
     } catch (NoSuchFileException e) {
       logger.printf("[meta-shift-plugin] -> mutation test report not found: %s%n", e.getFile());
     }
   }
 
+  /**
+   * Parses the report by building the document tree.
+   *
+   * @param report     to parse
+   * @param sourceRoot source root path, nullable
+   */
+  private void parseDocument(FilePath report, String sourceRoot)
+      throws IOException, InterruptedException, ParserConfigurationException, SAXException {
+    SimpleXmlParser parser = new SimpleXmlParser(report);
+    List<MutationTestData> objects = new ArrayList<>();
+    for (Tag tag : parser.getChildNodes("mutation")) {
+      String file = relativize(sourceRoot,
+          tag.getChildNodes("sourceFilePath").first().getTextContent());
+      if (isHidden(file)) {
+        continue;
+      }
+      objects.add(createInstance(path.getName(), file, tag));
+    }
+    dataList.addAll(objects);
+  }
+
+  /**
+   * Parses the report in a single pass, reading the child tags of each mutation tag once.
+   *
+   * @param report     to parse
+   * @param sourceRoot source root path, nullable
+   */
+  private void parseStream(FilePath report, String sourceRoot)
+      throws IOException, InterruptedException, SAXException, XMLStreamException {
+    List<MutationTestData> objects = new ArrayList<>();
+    try (StreamingXmlParser parser = new StreamingXmlParser(report)) {
+      while (parser.next()) {
+        if (!parser.isStartTag() || !parser.getTagName().equals("mutation")) {
+          continue;
+        }
+        String detected = parser.getAttribute("detected");
+        String sourceFilePath = null;
+        String mutatedClass = null;
+        String mutatedMethod = null;
+        String lineNumber = null;
+        String mutator = null;
+        String killingTest = null;
+        int depth = parser.getDepth();
+        while (parser.next() && parser.getDepth() > depth) {
+          switch (parser.getTagName()) {
+            case "sourceFilePath":
+              sourceFilePath = first(sourceFilePath, parser);
+              break;
+            case "mutatedClass":
+              mutatedClass = first(mutatedClass, parser);
+              break;
+            case "mutatedMethod":
+              mutatedMethod = first(mutatedMethod, parser);
+              break;
+            case "lineNumber":
+              lineNumber = first(lineNumber, parser);
+              break;
+            case "mutator":
+              mutator = first(mutator, parser);
+              break;
+            case "killingTest":
+              killingTest = first(killingTest, parser);
+              break;
+            default:
+              parser.skip();
+              break;
+          }
+        }
+        String file = relativize(sourceRoot, StringUtils.defaultString(sourceFilePath));
+        if (isHidden(file)) {
+          continue;
+        }
+        objects.add(createInstance(path.getName(), file, detected,
+            StringUtils.defaultString(mutatedClass), StringUtils.defaultString(mutatedMethod),
+            parseLineNumber(StringUtils.defaultString(lineNumber)),
+            StringUtils.defaultString(mutator), StringUtils.defaultString(killingTest)));
+      }
+    }
+    dataList.addAll(objects);
+  }
+
+  /**
+   * Returns the value if already read, or the content of the current tag otherwise.
+   *
+   * @param value  read before, nullable
+   * @param parser positioned at the start tag
+   * @return tag content
+   * @throws XMLStreamException if failed to parse the file
+   */
+  private static String first(final String value, final StreamingXmlParser parser)
+      throws XMLStreamException {
+    if (value == null) {
+      return parser.getTextContent();
+    }
+    parser.skip();
+    return value;
+  }
+
+  /**
+   * Returns the line number of the content, which is a parse error if missing or malformed.
+   *
+   * @param value of the lineNumber tag
+   * @return line number
+   * @throws SAXException if the value is not a number
+   */
+  private static long parseLineNumber(final String value) throws SAXException {
+    try {
+      return Long.parseLong(value);
+    } catch (NumberFormatException e) {
+      throw new SAXException("Invalid line number: '" + value + "'", e);
+    }
+  }
+
   /**
    * Parse the tag to create a data object.
    *
@@ -95,9 +204,30 @@ public class MutationTestParser extends Parser {
     String detected = tag.getAttribute("detected");
     String mutatedClass = tag.getChildNodes("mutatedClass").first().getTextContent();
     String mutatedMethod = tag.getChildNodes("mutatedMethod").first().getTextContent();
-    long line = Long.parseLong(tag.getChildNodes("lineNumber").first().getTextContent());
+    long line = parseLineNumber(tag.getChildNodes("lineNumber").first().getTextContent());
     String mutator = tag.getChildNodes("mutator").first().getTextContent();
     String killingTest = tag.getChildNodes("killingTest").first().getTextContent();
+    return createInstance(recipe, file, detected, mutatedClass, mutatedMethod, line, mutator,
+        killingTest);
+  }
+
+  /**
+   * Creates a data object based on the detected attribute.
+   *
+   * @param recipe        name
+   * @param file          source file path
+   * @param detected      attribute value
+   * @param mutatedClass  name
+   * @param mutatedMethod name
+   * @param line          number
+   * @param mutator       name
+   * @param killingTest   name
+   * @return an object
+   * @throws SAXException if the detected attribute is unknown
+   */
+  private static MutationTestData createInstance(final String recipe, final String file,
+      final String detected, final String mutatedClass, final String mutatedMethod,
+      final long line, final String mutator, final String killingTest) throws SAXException {
     switch (detected.toLowerCase()) {
       case "true":
         return new KilledMutationTestData(recipe, file, mutatedClass, mutatedMethod, line, mutator,
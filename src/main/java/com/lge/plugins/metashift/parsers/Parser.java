@@ -11,6 +11,7 @@ import hudson.FilePath;
 import java.io.File;
 import java.io.IOException;
 import java.util.concurrent.Callable;
+import jenkins.util.SystemProperties;
 import net.sf.json.JSONException;
 
 /**
@@ -20,6 +21,30 @@ import net.sf.json.JSONException;
  */
 public abstract class Parser implements Callable<Void> {
 
+  /**
+   * Represents the streaming mode, which reads the reports without building a document tree.
+   */
+  private boolean streaming = SystemProperties.getBoolean(Parser.class.getName() + ".streaming",
+      true);
+
+  /**
+   * Test if the streaming mode is enabled.
+   *
+   * @return true if the streaming mode is enabled, false otherwise
+   */
+  public boolean isStreaming() {
+    return streaming;
+  }
+
+  /**
+   * Sets the streaming mode.
+   *
+   * @param streaming true to read the reports in a single pass, false to use a document tree
+   */
+  public void setStreaming(boolean streaming) {
+    this.streaming = streaming;
+  }
+
   /**
    * Test if the path of the file is hidden.
    *
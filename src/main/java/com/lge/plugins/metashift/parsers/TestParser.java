@@ -12,15 +12,20 @@ import com.lge.plugins.metashift.models.PassedTestData;
 import com.lge.plugins.metashift.models.SkippedTestData;
 import com.lge.plugins.metashift.models.TestData;
 import com.lge.plugins.metashift.utils.xml.SimpleXmlParser;
+import com.lge.plugins.metashift.utils.xml.StreamingXmlParser;
 import com.lge.plugins.metashift.utils.xml.Tag;
 import hudson.FilePath;
 import java.io.IOException;
 import java.io.PrintStream;
 import java.nio.file.NoSuchFileException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLStreamException;
 import org.apache.commons.io.output.NullPrintStream;
 import org.apache.commons.lang3.StringUtils;
 import org.xml.sax.SAXException;
@@ -32,6 +37,11 @@ import org.xml.sax.SAXException;
  */
 public class TestParser extends Parser {
 
+  /**
+   * Represents the maximum length of the message captured in the streaming mode.
+   */
+  static final int MAX_MESSAGE_LENGTH = 64 * 1024;
+
   private final FilePath path;
   private final DataList dataList;
   private final PrintStream logger;
@@ -70,8 +80,12 @@ public class TestParser extends Parser {
       String sourceRoot = readSourceRoot(path.child("test"));
       for (FilePath file : files) {
         try {
-          objects.addAll(parseFile(path.getName(), sourceRoot, file));
-        } catch (ParserConfigurationException | SAXException e) {
+          if (isStreaming()) {
+            objects.addAll(parseStream(path.getName(), sourceRoot, file));
+          } else {
+            objects.addAll(parseFile(path.getName(), sourceRoot, file));
+          }
+        } catch (ParserConfigurationException | SAXException | XMLStreamException e) {
           throw new IllegalArgumentException("Failed to parse: " + file, e);
         }
       }
@@ -110,6 +124,116 @@ public class TestParser extends Parser {
     return list;
   }
 
+  /**
+   * Parses the report file in a single pass to create list of test data. The bodies of the
+   * system-out and system-err tags are skipped without being read into memory, and the messages
+   * are truncated to {@link #MAX_MESSAGE_LENGTH} characters.
+   *
+   * <p>A testcase of nested testsuite tags belongs to every enclosing testsuite, and the objects
+   * are grouped by the testsuites in document order, as {@link #parseFile} does.
+   *
+   * @param recipe     name
+   * @param sourceRoot source root path, nullable
+   * @param file       report file
+   * @return a list of test data objects
+   * @throws IOException          if failed to parse the xml files
+   * @throws SAXException         if an unknown status tag is found
+   * @throws XMLStreamException   if failed to parse the xml files
+   * @throws InterruptedException if an interruption occurs
+   */
+  private Collection<? extends TestData> parseStream(final String recipe,
+      final String sourceRoot, final FilePath file)
+      throws IOException, SAXException, XMLStreamException, InterruptedException {
+    List<List<TestData>> groups = new ArrayList<>();
+    Deque<String> suites = new ArrayDeque<>();
+    Deque<List<TestData>> openGroups = new ArrayDeque<>();
+    try (StreamingXmlParser parser = new StreamingXmlParser(file)) {
+      while (parser.next()) {
+        if (parser.isEndTag()) {
+          if (parser.getTagName().equals("testsuite")) {
+            suites.pop();
+            openGroups.pop();
+          }
+        } else if (parser.getTagName().equals("testsuite")) {
+          suites.push(parser.getAttribute("name"));
+          openGroups.push(new ArrayList<>());
+          groups.add(openGroups.peek());
+        } else if (parser.getTagName().equals("testcase") && !suites.isEmpty()) {
+          Iterator<List<TestData>> group = openGroups.iterator();
+          for (TestData object : createInstances(recipe, suites, sourceRoot, parser)) {
+            group.next().add(object);
+          }
+        } else if (!suites.isEmpty()) {
+          parser.skip();
+        }
+      }
+    }
+    List<TestData> list = new ArrayList<>();
+    groups.forEach(list::addAll);
+    return list;
+  }
+
+  /**
+   * Creates the test data instances from the testcase tag, and moves to its end tag.
+   *
+   * @param recipe     name
+   * @param suites     names of the enclosing testsuites
+   * @param sourceRoot source root path, nullable
+   * @param parser     positioned at the testcase tag
+   * @return a test data object for each of the suites in the same order
+   */
+  private List<TestData> createInstances(final String recipe, final Collection<String> suites,
+      final String sourceRoot, final StreamingXmlParser parser)
+      throws SAXException, XMLStreamException {
+    String name = parser.getAttribute("name");
+    String file = relativize(sourceRoot, parser.getAttribute("file", ""));
+    long line;
+    try {
+      line = Long.parseLong(parser.getAttribute("line", "0"));
+    } catch (NumberFormatException ignored) {
+      line = 0;
+    }
+    int depth = parser.getDepth();
+    String status = null;
+    String message = "";
+    while (parser.next() && parser.getDepth() > depth) {
+      if (status != null) {
+        parser.skip();
+        continue;
+      }
+      String tag = parser.getTagName().toLowerCase();
+      switch (tag) {
+        case "failure":
+        case "error":
+        case "skipped":
+          status = tag;
+          message = parser.getAttribute("message");
+          if (message.isEmpty()) {
+            message = parser.getTextContent(MAX_MESSAGE_LENGTH);
+          } else {
+            message = StringUtils.left(message, MAX_MESSAGE_LENGTH);
+            parser.skip();
+          }
+          message = strip(message);
+          break;
+        case "system-out":
+        case "system-err":
+        case "properties":
+          // standard JUnit children that do not carry the test status
+          parser.skip();
+          break;
+        default:
+          throw new SAXException("Unknown status tag: " + tag);
+      }
+    }
+    List<TestData> objects = new ArrayList<>();
+    for (String suite : suites) {
+      objects.add(status == null ? new PassedTestData(recipe, suite, name, "", file, line)
+          : createInstance(recipe, suite, name, status, message, file, line));
+    }
+    return objects;
+  }
+
   /**
    * Creates a test data instance using the given tag.
    *
@@ -133,11 +257,9 @@ public class TestParser extends Parser {
       String status = tag.getTagName().toLowerCase();
       switch (status) {
         case "failure":
-          return new FailedTestData(recipe, suite, name, message(tag), file, line);
         case "error":
-          return new ErrorTestData(recipe, suite, name, message(tag), file, line);
         case "skipped":
-          return new SkippedTestData(recipe, suite, name, message(tag), file, line);
+          return createInstance(recipe, suite, name, status, message(tag), file, line);
         case "system-out":
         case "system-err":
         case "properties":
@@ -150,9 +272,36 @@ public class TestParser extends Parser {
     return new PassedTestData(recipe, suite, name, "", file, line);
   }
 
+  /**
+   * Creates a test data instance of the given status.
+   *
+   * @param recipe  name
+   * @param suite   name
+   * @param name    of the test
+   * @param status  tag name, one of failure, error or skipped
+   * @param message of the test
+   * @param file    name
+   * @param line    number
+   * @return a test data object
+   */
+  private static TestData createInstance(final String recipe, final String suite,
+      final String name, final String status, final String message, final String file,
+      final long line) {
+    switch (status) {
+      case "failure":
+        return new FailedTestData(recipe, suite, name, message, file, line);
+      case "error":
+        return new ErrorTestData(recipe, suite, name, message, file, line);
+      default:
+        return new SkippedTestData(recipe, suite, name, message, file, line);
+    }
+  }
+
   private static String message(final Tag tag) {
-    String message = tag.getAttribute("message", tag.getTextContent());
-    message = StringUtils.removeStart(message, "<![CDATA[");
-    return StringUtils.removeEnd(message, "]]>");
+    return strip(tag.getAttribute("message", tag.getTextContent()));
+  }
+
+  private static String strip(final String message) {
+    return StringUtils.removeEnd(StringUtils.removeStart(message, "<![CDATA["), "]]>");
   }
 }
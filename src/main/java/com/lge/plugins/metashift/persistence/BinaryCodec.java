@@ -0,0 +1,318 @@
+/*
+ * Copyright (c) 2021 LG Electronics Inc.
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.lge.plugins.metashift.persistence;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import net.sf.json.JSONArray;
+import net.sf.json.JSONNull;
+import net.sf.json.JSONObject;
+
+/**
+ * Codec which encodes the JSON values and the strings in a compact binary form.
+ *
+ * <p>Each value is written with a one-byte tag, the integers in variable length, and every
+ * distinct string only once, so that the repeated keys of the JSON objects in an array take a
+ * byte or two each. The values of the other types, and the strings which json-lib would not keep
+ * as they are, are written by the Java serialization.</p>
+ *
+ * @author Sung Gon Kim
+ */
+public final class BinaryCodec implements Codec {
+
+  /**
+   * Represents the magic number, which never starts the Java serialization stream.
+   */
+  private static final byte MAGIC = 0x4d;
+
+  /**
+   * Represents the version of the encoding.
+   */
+  private static final byte VERSION = 1;
+
+  private static final int NULL = 0;
+  private static final int JSON_NULL = 1;
+  private static final int FALSE = 2;
+  private static final int TRUE = 3;
+  private static final int INTEGER = 4;
+  private static final int LONG = 5;
+  private static final int DOUBLE = 6;
+  private static final int STRING = 7;
+  private static final int OBJECT = 8;
+  private static final int NULL_OBJECT = 9;
+  private static final int ARRAY = 10;
+  private static final int SERIALIZED = 11;
+
+  /**
+   * Represents the codec of the values which are not supported.
+   */
+  private final SerializationCodec fallback = new SerializationCodec();
+
+  /**
+   * Signals a value which is not supported.
+   */
+  private static final class UnsupportedValueException extends Exception {
+
+    private static final long serialVersionUID = 3360717219407745683L;
+  }
+
+  @Override
+  public byte[] encode(final Object object) throws IOException {
+    ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    try (DataOutputStream dos = new DataOutputStream(bos)) {
+      dos.writeByte(MAGIC);
+      dos.writeByte(VERSION);
+      try {
+        new Writer(dos).write(object);
+      } catch (UnsupportedValueException ignored) {
+        bos.reset();
+        dos.writeByte(MAGIC);
+        dos.writeByte(VERSION);
+        dos.writeByte(SERIALIZED);
+        dos.write(fallback.encode(object));
+      }
+    }
+    return bos.toByteArray();
+  }
+
+  @Override
+  public Object decode(final byte[] bytes) throws IOException {
+    if (!canDecode(bytes)) {
+      throw new IOException("Unknown encoding");
+    }
+    if (bytes[2] == SERIALIZED) {
+      byte[] serialized = new byte[bytes.length - 3];
+      System.arraycopy(bytes, 3, serialized, 0, serialized.length);
+      return fallback.decode(serialized);
+    }
+    try (DataInputStream dis = new DataInputStream(
+        new ByteArrayInputStream(bytes, 2, bytes.length - 2))) {
+      return new Reader(dis).read();
+    }
+  }
+
+  @Override
+  public boolean canDecode(final byte[] bytes) {
+    return bytes.length >= 3 && bytes[0] == MAGIC && bytes[1] == VERSION;
+  }
+
+  /**
+   * Test if json-lib keeps the string as it is when added to a JSON value.
+   *
+   * @param value to test
+   * @return true if the string is kept, false otherwise
+   */
+  private static boolean isPlain(final String value) {
+    String trimmed = value.trim();
+    return !(trimmed.equals("null")
+        || trimmed.startsWith("[") || trimmed.startsWith("{")
+        || trimmed.startsWith("\"") || trimmed.startsWith("'")
+        || trimmed.startsWith("function"));
+  }
+
+  private static void writeVarLong(final DataOutputStream dos, final long value)
+      throws IOException {
+    long v = value;
+    while ((v & ~0x7fL) != 0) {
+      dos.writeByte((int) ((v & 0x7f) | 0x80));
+      v >>>= 7;
+    }
+    dos.writeByte((int) v);
+  }
+
+  private static long readVarLong(final DataInputStream dis) throws IOException {
+    long value = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      int b = dis.readUnsignedByte();
+      value |= (long) (b & 0x7f) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new IOException("Malformed variable length integer");
+  }
+
+  /**
+   * Writes the values with the table of the strings.
+   */
+  private static final class Writer {
+
+    private final DataOutputStream dos;
+    private final Map<String, Integer> strings;
+
+    Writer(final DataOutputStream dos) {
+      this.dos = dos;
+      this.strings = new HashMap<>();
+    }
+
+    void write(final Object value) throws IOException, UnsupportedValueException {
+      if (value == null) {
+        dos.writeByte(NULL);
+      } else if (value instanceof JSONNull) {
+        dos.writeByte(JSON_NULL);
+      } else if (value instanceof Boolean) {
+        dos.writeByte((Boolean) value ? TRUE : FALSE);
+      } else if (value instanceof Integer) {
+        dos.writeByte(INTEGER);
+        writeVarLong(dos, zigzag((Integer) value));
+      } else if (value instanceof Long) {
+        dos.writeByte(LONG);
+        writeVarLong(dos, zigzag((Long) value));
+      } else if (value instanceof Double) {
+        dos.writeByte(DOUBLE);
+        dos.writeDouble((Double) value);
+      } else if (value instanceof String) {
+        dos.writeByte(STRING);
+        writeString((String) value);
+      } else if (value instanceof JSONObject) {
+        writeObject((JSONObject) value);
+      } else if (value instanceof JSONArray) {
+        JSONArray array = (JSONArray) value;
+        dos.writeByte(ARRAY);
+        writeVarLong(dos, array.size());
+        for (Object element : array) {
+          writeElement(element);
+        }
+      } else {
+        throw new UnsupportedValueException();
+      }
+    }
+
+    private void writeObject(final JSONObject object)
+        throws IOException, UnsupportedValueException {
+      if (object.isNullObject()) {
+        dos.writeByte(NULL_OBJECT);
+        return;
+      }
+      dos.writeByte(OBJECT);
+      writeVarLong(dos, object.size());
+      for (Object entry : object.entrySet()) {
+        Map.Entry<?, ?> e = (Map.Entry<?, ?>) entry;
+        writeString((String) e.getKey());
+        writeElement(e.getValue());
+      }
+    }
+
+    private void writeElement(final Object element)
+        throws IOException, UnsupportedValueException {
+      if (element == null || (element instanceof String && !isPlain((String) element))) {
+        throw new UnsupportedValueException();
+      }
+      write(element);
+    }
+
+    private void writeString(final String value) throws IOException {
+      Integer index = strings.get(value);
+      if (index != null) {
+        writeVarLong(dos, index + 1L);
+        return;
+      }
+      strings.put(value, strings.size());
+      byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+      writeVarLong(dos, 0);
+      writeVarLong(dos, bytes.length);
+      dos.write(bytes);
+    }
+
+    private static long zigzag(final long value) {
+      return (value << 1) ^ (value >> 63);
+    }
+  }
+
+  /**
+   * Reads the values with the table of the strings.
+   */
+  private static final class Reader {
+
+    private final DataInputStream dis;
+    private final List<String> strings;
+
+    Reader(final DataInputStream dis) {
+      this.dis = dis;
+      this.strings = new ArrayList<>();
+    }
+
+    Object read() throws IOException {
+      int tag = dis.readUnsignedByte();
+      switch (tag) {
+        case NULL:
+          return null;
+        case JSON_NULL:
+          return JSONNull.getInstance();
+        case FALSE:
+          return Boolean.FALSE;
+        case TRUE:
+          return Boolean.TRUE;
+        case INTEGER:
+          return (int) unzigzag(readVarLong(dis));
+        case LONG:
+          return unzigzag(readVarLong(dis));
+        case DOUBLE:
+          return dis.readDouble();
+        case STRING:
+          return readString();
+        case OBJECT:
+          return readObject();
+        case NULL_OBJECT:
+          return new JSONObject(true);
+        case ARRAY:
+          return readArray();
+        default:
+          throw new IOException("Unknown tag: " + tag);
+      }
+    }
+
+    private JSONObject readObject() throws IOException {
+      JSONObject object = new JSONObject();
+      long size = readVarLong(dis);
+      for (long i = 0; i < size; i++) {
+        String key = readString();
+        object.element(key, read());
+      }
+      return object;
+    }
+
+    private JSONArray readArray() throws IOException {
+      JSONArray array = new JSONArray();
+      long size = readVarLong(dis);
+      for (long i = 0; i < size; i++) {
+        array.add(read());
+      }
+      return array;
+    }
+
+    private String readString() throws IOException {
+      long index = readVarLong(dis);
+      if (index > 0) {
+        if (index > strings.size()) {
+          throw new IOException("Unknown string: " + index);
+        }
+        return strings.get((int) (index - 1));
+      }
+      long length = readVarLong(dis);
+      if (length > dis.available()) {
+        throw new IOException("Malformed string length: " + length);
+      }
+      byte[] bytes = new byte[(int) length];
+      dis.readFully(bytes);
+      String value = new String(bytes, StandardCharsets.UTF_8);
+      strings.add(value);
+      return value;
+    }
+
+    private static long unzigzag(final long value) {
+      return (value >>> 1) ^ -(value & 1);
+    }
+  }
+}
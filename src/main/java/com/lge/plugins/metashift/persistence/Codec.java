@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2021 LG Electronics Inc.
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.lge.plugins.metashift.persistence;
+
+import java.io.IOException;
+
+/**
+ * Codec interface which converts the objects of the DataSource to bytes and back.
+ *
+ * @author Sung Gon Kim
+ */
+public interface Codec {
+
+  /**
+   * Returns the bytes of the object.
+   *
+   * @param object to encode
+   * @return bytes
+   * @throws IOException if failed to encode the object
+   */
+  byte[] encode(Object object) throws IOException;
+
+  /**
+   * Returns the object of the bytes.
+   *
+   * @param bytes to decode
+   * @return object
+   * @throws IOException if failed to decode the bytes
+   */
+  Object decode(byte[] bytes) throws IOException;
+
+  /**
+   * Test if the bytes are encoded by the codec.
+   *
+   * @param bytes to test
+   * @return true if the codec can decode the bytes, false otherwise
+   */
+  boolean canDecode(byte[] bytes);
+}
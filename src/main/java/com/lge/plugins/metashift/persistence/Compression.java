@@ -0,0 +1,295 @@
+/*
+ * Copyright (c) 2021 LG Electronics Inc.
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.lge.plugins.metashift.persistence;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+import jenkins.util.SystemProperties;
+import org.apache.commons.io.IOUtils;
+
+/**
+ * Compression of the values in the FileStore.
+ *
+ * <p>The values smaller than the threshold are stored raw, so that the reads of the many tiny
+ * records need no decompression. The others are compressed by gzip, or by the raw deflate with a
+ * preset dictionary of the common keys, which has no header and compresses the small records
+ * better. A compressed value is stored raw if it is not smaller.</p>
+ *
+ * @author Sung Gon Kim
+ */
+public final class Compression {
+
+  /**
+   * Compression methods, whose ids are stored with the values.
+   */
+  public enum Method {
+    /**
+     * No compression.
+     */
+    NONE(0),
+    /**
+     * Gzip compression.
+     */
+    GZIP(1),
+    /**
+     * Raw deflate compression with the preset dictionary.
+     */
+    DEFLATE(2);
+
+    /**
+     * Represents the id of the method.
+     */
+    private final byte id;
+
+    Method(final int id) {
+      this.id = (byte) id;
+    }
+
+    /**
+     * Returns the id of the method.
+     *
+     * @return id
+     */
+    public byte getId() {
+      return id;
+    }
+  }
+
+  /**
+   * Compressed bytes with the method.
+   */
+  static final class Block {
+
+    /**
+     * Represents the compression method.
+     */
+    private final Method method;
+
+    /**
+     * Represents the compressed bytes.
+     */
+    private final byte[] bytes;
+
+    /**
+     * Default constructor.
+     *
+     * @param method of the compression
+     * @param bytes  compressed
+     */
+    Block(final Method method, final byte[] bytes) {
+      this.method = method;
+      this.bytes = bytes;
+    }
+
+    /**
+     * Returns the compression method.
+     *
+     * @return method
+     */
+    Method getMethod() {
+      return method;
+    }
+
+    /**
+     * Returns the compressed bytes.
+     *
+     * @return bytes
+     */
+    byte[] getBytes() {
+      return bytes;
+    }
+  }
+
+  /**
+   * Represents the prefix of the system properties.
+   */
+  private static final String PREFIX = FileStore.class.getName();
+
+  /**
+   * Represents the preset dictionary of the deflate method, which must never change.
+   */
+  private static final byte[] DICTIONARY = ("nametypefileslinesfunctionsrecipescoveredcount"
+      + "denominatornumeratorratiothresholdtoleranceavailablequalifiedpassedfailederrorskipped"
+      + "killedsurvivedmutatortestnamemessagestatusleveldescriptionsummaryevaluationdistribution"
+      + "statementsbranchesuncoveredcomplexityduplicatedtokenscommentsFILERECIPEPROJECT")
+      .getBytes(StandardCharsets.US_ASCII);
+
+  /**
+   * Represents the compression method.
+   */
+  private final Method method;
+
+  /**
+   * Represents the compression level.
+   */
+  private final int level;
+
+  /**
+   * Represents the size in bytes below which the values are stored raw.
+   */
+  private final int threshold;
+
+  /**
+   * Default constructor.
+   *
+   * @param method    of the compression
+   * @param level     of the compression, from 1 (fastest) to 9 (smallest)
+   * @param threshold size in bytes below which the values are stored raw
+   */
+  public Compression(final Method method, final int level, final int threshold) {
+    if (level < Deflater.BEST_SPEED || level > Deflater.BEST_COMPRESSION) {
+      throw new IllegalArgumentException("Invalid compression level: " + level);
+    }
+    this.method = method;
+    this.level = level;
+    this.threshold = Math.max(0, threshold);
+  }
+
+  /**
+   * Creates the compression of the system properties.
+   *
+   * @return compression object
+   */
+  static Compression fromProperties() {
+    String name = SystemProperties.getString(PREFIX + ".compression", Method.DEFLATE.name());
+    Method method;
+    try {
+      method = Method.valueOf(name.toUpperCase(Locale.ENGLISH));
+    } catch (IllegalArgumentException ignored) {
+      method = Method.DEFLATE;
+    }
+    int level = SystemProperties.getInteger(PREFIX + ".compressionLevel", Deflater.BEST_SPEED);
+    int threshold = SystemProperties.getInteger(PREFIX + ".rawThreshold", 256);
+    return new Compression(method, Math.min(Math.max(level, 1), 9), threshold);
+  }
+
+  /**
+   * Returns the compression method.
+   *
+   * @return method
+   */
+  public Method getMethod() {
+    return method;
+  }
+
+  /**
+   * Returns the compression level.
+   *
+   * @return level
+   */
+  public int getLevel() {
+    return level;
+  }
+
+  /**
+   * Returns the size below which the values are stored raw.
+   *
+   * @return threshold in bytes
+   */
+  public int getThreshold() {
+    return threshold;
+  }
+
+  /**
+   * Returns the block of the compressed value, or of the value itself if stored raw.
+   *
+   * @param value to compress
+   * @return block object
+   */
+  Block compress(final byte[] value) {
+    if (method == Method.NONE || value.length < threshold) {
+      return new Block(Method.NONE, value);
+    }
+    byte[] bytes = (method == Method.GZIP) ? gzip(value) : deflate(value);
+    return (bytes.length < value.length) ? new Block(method, bytes)
+        : new Block(Method.NONE, value);
+  }
+
+  private byte[] gzip(final byte[] value) {
+    ByteArrayOutputStream bos = new ByteArrayOutputStream(value.length / 2 + 32);
+    try (GZIPOutputStream gos = new GZIPOutputStream(bos) {
+      {
+        def.setLevel(level);
+      }
+    }) {
+      gos.write(value);
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+    return bos.toByteArray();
+  }
+
+  private byte[] deflate(final byte[] value) {
+    Deflater deflater = new Deflater(level, true);
+    try {
+      deflater.setDictionary(DICTIONARY);
+      deflater.setInput(value);
+      deflater.finish();
+      ByteArrayOutputStream bos = new ByteArrayOutputStream(value.length / 2 + 32);
+      byte[] buffer = new byte[4096];
+      while (!deflater.finished()) {
+        bos.write(buffer, 0, deflater.deflate(buffer));
+      }
+      return bos.toByteArray();
+    } finally {
+      deflater.end();
+    }
+  }
+
+  /**
+   * Returns the value of the compressed bytes.
+   *
+   * @param id    of the compression method
+   * @param bytes to decompress
+   * @return value
+   * @throws IOException if failed to decompress the bytes
+   */
+  static byte[] decompress(final byte id, final byte[] bytes) throws IOException {
+    if (id == Method.NONE.getId()) {
+      return bytes;
+    }
+    if (id == Method.GZIP.getId()) {
+      try (InputStream is = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+        return IOUtils.toByteArray(is);
+      }
+    }
+    if (id == Method.DEFLATE.getId()) {
+      return inflate(bytes);
+    }
+    throw new IOException("Unknown compression: " + id);
+  }
+
+  private static byte[] inflate(final byte[] bytes) throws IOException {
+    Inflater inflater = new Inflater(true);
+    try {
+      inflater.setDictionary(DICTIONARY);
+      inflater.setInput(bytes);
+      ByteArrayOutputStream bos = new ByteArrayOutputStream(bytes.length * 3);
+      byte[] buffer = new byte[4096];
+      while (!inflater.finished()) {
+        int count = inflater.inflate(buffer);
+        if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+          throw new IOException("Truncated deflate stream");
+        }
+        bos.write(buffer, 0, count);
+      }
+      return bos.toByteArray();
+    } catch (DataFormatException e) {
+      throw new IOException(e);
+    } finally {
+      inflater.end();
+    }
+  }
+}
@@ -6,22 +6,45 @@
 package com.lge.plugins.metashift.persistence;
 
 import hudson.FilePath;
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import jenkins.util.SystemProperties;
 
 /**
  * Provides functionalities to map keys and values using the filesystem.
  *
+ * <p>The objects are encoded by the codec, which is the compact binary codec by default. The
+ * values are decoded by whichever codec wrote them, so the values of the previous versions, which
+ * are written by the Java serialization, remain readable.</p>
+ *
+ * <p>The encoded values are cached in the ValueCache of the controller, so that the values read
+ * repeatedly are served from memory without reading the store. Each read decodes a new object, as
+ * the decoded objects, JSON objects mostly, are mutable. The values written by the data source are
+ * discarded from the cache.</p>
+ *
  * @author Sung Gon Kim
  */
 public class DataSource implements Serializable {
 
   private static final long serialVersionUID = -2877661754512254098L;
 
+  /**
+   * Represents the codecs to decode the values.
+   */
+  private static final List<Codec> DECODERS = Arrays.asList(
+      new BinaryCodec(), new SerializationCodec());
+
+  /**
+   * Represents the codec to encode the values.
+   */
+  private static volatile Codec codec = createCodec(
+      SystemProperties.getString(DataSource.class.getName() + ".codec", "binary"));
+
   /**
    * Represents the file store object.
    */
@@ -34,6 +57,47 @@ public class DataSource implements Serializable {
    */
   public DataSource(final FilePath path) throws IOException, InterruptedException {
     fileStore = new FileStore(path);
+    ValueCache.getInstance().invalidate(fileStore.getStorage());
+  }
+
+  /**
+   * Creates a data source which shares the large values with the other builds of the job.
+   *
+   * @param path   to store files
+   * @param shared path to the shared store of the job
+   */
+  public DataSource(final FilePath path, final FilePath shared)
+      throws IOException, InterruptedException {
+    fileStore = new FileStore(path, shared);
+    ValueCache.getInstance().invalidate(fileStore.getStorage());
+  }
+
+  /**
+   * Creates the codec of the name.
+   *
+   * @param name of the codec, either binary or serialization
+   * @return codec object
+   */
+  private static Codec createCodec(final String name) {
+    return "serialization".equals(name) ? new SerializationCodec() : new BinaryCodec();
+  }
+
+  /**
+   * Sets the codec to encode the values.
+   *
+   * @param codec to encode the values
+   */
+  public static void setCodec(final Codec codec) {
+    DataSource.codec = codec;
+  }
+
+  /**
+   * Returns the codec to encode the values.
+   *
+   * @return codec object
+   */
+  public static Codec getCodec() {
+    return codec;
   }
 
   /**
@@ -74,15 +138,25 @@ public class DataSource implements Serializable {
    */
   @SuppressWarnings({"unchecked", "PMD.UnnecessaryModifier"})
   public <T> T get(final String... names) {
-    byte[] bytes = fileStore.get(uid(names));
+    String key = uid(names);
+    ValueCache cache = ValueCache.getInstance();
+    ValueCache.Entry entry = cache.lookup(fileStore.getStorage(), key);
+    byte[] bytes;
+    if (entry != null) {
+      bytes = (byte[]) entry.getValue();
+    } else {
+      long generation = cache.getGeneration();
+      bytes = fileStore.get(key);
+      cache.store(fileStore.getStorage(), key, bytes, (bytes == null) ? 0 : bytes.length,
+          generation);
+    }
     if (bytes == null) {
       return null;
     }
-    try (ByteArrayInputStream bis = new ByteArrayInputStream(bytes)) {
-      try (ObjectInputStream ois = new ObjectInputStream(bis)) {
-        return (T) ois.readObject();
-      }
-    } catch (IOException | ClassNotFoundException ignored) {
+    try {
+      // decoded on each read, so that the callers never share a mutable object
+      return (T) decode(bytes);
+    } catch (IOException | ClassCastException ignored) {
       return null;
     }
   }
@@ -92,16 +166,129 @@ public class DataSource implements Serializable {
    *
    * @param object to be associated with the specified key
    * @param names  with which the specified value is to be associated
-   * @throws IOException if failed to operate with index.json or the object
+   * @throws IOException if failed to operate with the index or the object
    */
-  public synchronized void put(final Object object, final String... names) throws IOException {
+  public void put(final Object object, final String... names) throws IOException {
     String key = uid(names);
-    try (ByteArrayOutputStream bos = new ByteArrayOutputStream()) {
-      try (ObjectOutputStream oos = new ObjectOutputStream(bos)) {
-        oos.writeObject(object);
-        oos.close();
-        fileStore.put(key, bos.toByteArray());
+    fileStore.put(key, encode(object));
+    ValueCache.getInstance().invalidate(fileStore.getStorage(), Collections.singleton(key));
+  }
+
+  /**
+   * Begins a batch which writes many objects with a single update of the index.
+   *
+   * @return batch object
+   */
+  public Batch begin() {
+    return new Batch();
+  }
+
+  /**
+   * Returns the encoded bytes of the object.
+   *
+   * @param object to encode
+   * @return bytes
+   * @throws IOException if failed to encode the object
+   */
+  private byte[] encode(final Object object) throws IOException {
+    return codec.encode(object);
+  }
+
+  /**
+   * Returns the object of the bytes, using the codec which wrote them.
+   *
+   * @param bytes to decode
+   * @return object
+   * @throws IOException if failed to decode the bytes
+   */
+  private Object decode(final byte[] bytes) throws IOException {
+    Codec current = codec;
+    if (current.canDecode(bytes)) {
+      return current.decode(bytes);
+    }
+    for (Codec decoder : DECODERS) {
+      if (decoder.canDecode(bytes)) {
+        return decoder.decode(bytes);
+      }
+    }
+    throw new IOException("Unknown encoding");
+  }
+
+  /**
+   * Buffers the objects to write them at once.
+   *
+   * <p>The objects are encoded when added, and written in a single pass with a single update
+   * of the index on commit. The commit is atomic, so none of the objects is visible if it fails
+   * in the middle. The batch is thread-safe.</p>
+   */
+  public final class Batch {
+
+    /**
+     * Represents the encoded objects keyed by the unique key.
+     */
+    private final Map<String, byte[]> values;
+
+    /**
+     * Default constructor.
+     */
+    private Batch() {
+      values = new LinkedHashMap<>();
+    }
+
+    /**
+     * Associates the specified value with the specified key on commit.
+     *
+     * @param object to be associated with the specified key
+     * @param names  with which the specified value is to be associated
+     * @throws IOException if failed to encode the object
+     */
+    public void put(final Object object, final String... names) throws IOException {
+      byte[] bytes = encode(object);
+      synchronized (this) {
+        values.put(uid(names), bytes);
+      }
+    }
+
+    /**
+     * Associates the specified values with the keys on commit, appending each key of the map to
+     * the given names.
+     *
+     * @param objects to be associated with the keys
+     * @param names   to which each key of the map is appended
+     * @throws IOException if failed to encode the objects
+     */
+    public void putAll(final Map<String, ?> objects, final String... names) throws IOException {
+      String prefix = uid(names);
+      Map<String, byte[]> encoded = new LinkedHashMap<>();
+      for (Map.Entry<String, ?> entry : objects.entrySet()) {
+        encoded.put(uid(prefix, entry.getKey()), encode(entry.getValue()));
+      }
+      synchronized (this) {
+        values.putAll(encoded);
+      }
+    }
+
+    /**
+     * Returns the number of buffered objects.
+     *
+     * @return the number of objects
+     */
+    public synchronized int size() {
+      return values.size();
+    }
+
+    /**
+     * Writes the buffered objects atomically.
+     *
+     * @throws IOException if failed to operate with the index or the objects
+     */
+    public synchronized void commit() throws IOException {
+      if (values.isEmpty()) {
+        return;
       }
+      fileStore.putAll(values);
+      ValueCache.getInstance().invalidate(fileStore.getStorage(), values.keySet());
+      values.clear();
     }
   }
 }
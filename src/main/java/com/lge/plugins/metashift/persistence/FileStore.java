@@ -6,25 +6,25 @@
 package com.lge.plugins.metashift.persistence;
 
 import hudson.FilePath;
-import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.Serializable;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.util.zip.GZIPInputStream;
-import java.util.zip.GZIPOutputStream;
-import net.sf.json.JSONException;
-import net.sf.json.JSONObject;
-import org.apache.commons.codec.digest.DigestUtils;
+import java.util.Map;
+import jenkins.util.SystemProperties;
 import org.apache.commons.io.FileUtils;
-import org.apache.commons.io.IOUtils;
 
 /**
  * Provides functionalities to map keys and values using the filesystem.
  *
+ * <p>The values are stored in the append-only data segments of the SegmentStore, which is opened
+ * on the first access and shares its in-memory index with the other objects of the same
+ * directory, so that the reads never parse the index again. The stores in the legacy layout of
+ * index.json and the objects directory are read as well, and can be packed into the segments to
+ * remove the many small object files.</p>
+ *
+ * <p>The builds of a job can share the content-addressed SharedStore, so that the large values
+ * identical in the builds are stored only once.</p>
+ *
  * @author Sung Gon Kim
  */
 public class FileStore implements Serializable {
@@ -32,15 +32,26 @@ public class FileStore implements Serializable {
   private static final long serialVersionUID = 4545484736312677003L;
 
   /**
-   * Represents the path to storage directory.
+   * Represents the path to the legacy objects directory.
    */
   private final File objects;
 
   /**
-   * Represents the path to index.json.
+   * Represents the path to the legacy index.json.
    */
   private final File referer;
 
+  /**
+   * Represents the segment store.
+   */
+  private transient volatile SegmentStore store;
+
+  /**
+   * Represents whether the legacy objects are packed into the segments when a store is opened.
+   */
+  private static volatile boolean packLegacy = SystemProperties.getBoolean(
+      FileStore.class.getName() + ".packLegacy", false);
+
   /**
    * Default constructor.
    *
@@ -50,13 +61,93 @@ public class FileStore implements Serializable {
    */
   public FileStore(final FilePath path) throws IOException, InterruptedException {
     File storage = new File(path.toURI());
-    objects = new File(storage, "objects");
-    FileUtils.forceMkdir(objects);
-    referer = new File(storage, "index.json");
-    FileUtils.forceMkdirParent(referer);
-    if (!referer.exists()) {
-      FileUtils.writeStringToFile(referer, "{}", StandardCharsets.UTF_8);
+    FileUtils.forceMkdir(storage);
+    objects = new File(storage, SegmentStore.LEGACY_OBJECTS);
+    referer = new File(storage, SegmentStore.LEGACY_INDEX);
+  }
+
+  /**
+   * Creates a store which writes the values larger than the threshold to the shared store.
+   *
+   * @param path   to storage directory
+   * @param shared path to the shared store directory of the job
+   * @throws IOException          if failed to operate with the path
+   * @throws InterruptedException if an interruption occurred
+   */
+  public FileStore(final FilePath path, final FilePath shared)
+      throws IOException, InterruptedException {
+    this(path);
+    getStore().attach(new File(shared.toURI()));
+  }
+
+  /**
+   * Sets the compression of the values to write, which is configured by the system properties of
+   * the compression, the compressionLevel and the rawThreshold by default.
+   *
+   * @param compression of the values
+   */
+  public static void setCompression(final Compression compression) {
+    SegmentStore.setCompression(compression);
+  }
+
+  /**
+   * Returns the compression of the values to write.
+   *
+   * @return compression object
+   */
+  public static Compression getCompression() {
+    return SegmentStore.getCompression();
+  }
+
+  /**
+   * Enables or disables packing the legacy objects when a store is opened.
+   *
+   * @param packLegacy true to pack the legacy objects
+   */
+  public static void setPackLegacy(final boolean packLegacy) {
+    FileStore.packLegacy = packLegacy;
+  }
+
+  /**
+   * Enables or disables reading the values through the memory mapped segments, which is
+   * configured by the memoryMapped system property by default.
+   *
+   * @param memoryMapped true to map the segments into memory
+   */
+  public static void setMemoryMapped(final boolean memoryMapped) {
+    SegmentStore.setMemoryMapped(memoryMapped);
+  }
+
+  /**
+   * Returns the segment store, opening it if not opened yet.
+   *
+   * @return segment store
+   * @throws IOException if failed to load the index
+   */
+  private SegmentStore getStore() throws IOException {
+    SegmentStore local = store;
+    if (local == null) {
+      synchronized (this) {
+        local = store;
+        if (local == null) {
+          local = SegmentStore.open(referer.getParentFile());
+          if (packLegacy && local.hasLegacyKeys()) {
+            local.pack();
+          }
+          store = local;
+        }
+      }
     }
+    return local;
+  }
+
+  /**
+   * Returns the path to the storage directory.
+   *
+   * @return storage directory
+   */
+  File getStorage() {
+    return referer.getParentFile();
   }
 
   /**
@@ -66,7 +157,7 @@ public class FileStore implements Serializable {
    */
   public int size() {
     try {
-      return createObject(referer).size();
+      return getStore().size();
     } catch (IOException ignored) {
       return 0;
     }
@@ -80,25 +171,12 @@ public class FileStore implements Serializable {
    */
   public boolean has(final String key) {
     try {
-      JSONObject indices = createObject(referer);
-      return indices.has(key);
+      return getStore().has(key);
     } catch (IOException ignored) {
       return false;
     }
   }
 
-  /**
-   * Create an JSONObject instance from the given file.
-   *
-   * @param path to a json file
-   * @return JSONObject
-   * @throws IOException if failed to operate with the file
-   */
-  private JSONObject createObject(final File path) throws IOException {
-    InputStream is = new BufferedInputStream(Files.newInputStream(path.toPath()));
-    return JSONObject.fromObject(IOUtils.toString(is, StandardCharsets.UTF_8));
-  }
-
   /**
    * Returns the bytes to which the specified key is mapped.
    *
@@ -107,12 +185,8 @@ public class FileStore implements Serializable {
    */
   public byte[] get(final String key) {
     try {
-      JSONObject indices = createObject(referer);
-      File file = new File(objects, indices.getString(key));
-      GZIPInputStream gis = new GZIPInputStream(new BufferedInputStream(
-          Files.newInputStream(file.toPath())));
-      return IOUtils.toByteArray(gis);
-    } catch (IOException | JSONException ignored) {
+      return getStore().get(key);
+    } catch (IOException ignored) {
       return null;
     }
   }
@@ -122,23 +196,31 @@ public class FileStore implements Serializable {
    *
    * @param key   with which the specified value is to be associated
    * @param value to be associated with the specified key
-   * @throws IOException if failed to operate with index.json
-   */
-  public synchronized void put(final String key, final byte[] value) throws IOException {
-    JSONObject indices = createObject(referer);
-    String checksum = DigestUtils.sha256Hex(value);
-    File file = FileUtils.getFile(objects, checksum.substring(0, 2), checksum.substring(2));
-    if (!file.exists()) {
-      FileUtils.forceMkdirParent(file);
-      try (GZIPOutputStream gos = new GZIPOutputStream(
-          new BufferedOutputStream(Files.newOutputStream(file.toPath())))) {
-        IOUtils.write(value, gos);
-      }
-    }
-    if (indices.has(key)) {
-      indices.remove(key);
-    }
-    indices.put(key, objects.toURI().relativize(file.toURI()).getPath());
-    FileUtils.writeStringToFile(referer, indices.toString(2), StandardCharsets.UTF_8);
+   * @throws IOException if failed to operate with the index
+   */
+  public void put(final String key, final byte[] value) throws IOException {
+    getStore().put(key, value);
+  }
+
+  /**
+   * Associates the specified values with the keys in the map atomically, with a single update of
+   * the index.
+   *
+   * @param values to be associated with the keys
+   * @throws IOException if failed to operate with the index
+   */
+  public void putAll(final Map<String, byte[]> values) throws IOException {
+    getStore().putAll(values);
+  }
+
+  /**
+   * Packs the values of the legacy layout, one file per value in the objects directory, into the
+   * data segments, and removes the legacy files.
+   *
+   * @return the number of packed keys
+   * @throws IOException if failed to operate with the files
+   */
+  public int pack() throws IOException {
+    return getStore().pack();
   }
 }
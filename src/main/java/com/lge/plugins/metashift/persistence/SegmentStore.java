@@ -0,0 +1,951 @@
+/*
+ * Copyright (c) 2021 LG Electronics Inc.
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.lge.plugins.metashift.persistence;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPInputStream;
+import jenkins.util.SystemProperties;
+import net.sf.json.JSONException;
+import net.sf.json.JSONObject;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+
+/**
+ * Provides an append-only store of the values in the data segments.
+ *
+ * <p>The values are appended to the data segments, and the locations of the keys are appended to
+ * the binary index log in frames, each of which is checked by CRC32, so that a partially written
+ * frame is discarded on loading. The values are forced to the disk before their frame is written,
+ * so that a committed frame never refers to the values lost by a crash. A put never rewrites the
+ * existing data, and the commits of the concurrent writers are written together in a single
+ * frame. The values with identical contents
+ * are stored only once.</p>
+ *
+ * <p>The keys of the legacy layout, which consists of index.json and the files in objects, are
+ * loaded as well, so that the stores written by the previous versions remain readable.</p>
+ *
+ * <p>The data segments are the packs of the values, which are read at random by the offsets
+ * through the file channel, or through the memory mapped segments if enabled. The values in the
+ * legacy objects directory can be packed into the segments, removing the files.</p>
+ *
+ * <p>The index is kept in memory, and the opened stores are shared by the storage directory, so
+ * that the index is loaded only once however many objects refer to the same directory. A shared
+ * store reloads its index in place when the index log is written by others, so that there is
+ * never more than one writer of the directory in the controller.</p>
+ *
+ * <p>If a shared store of the job is attached, the values larger than its threshold are written
+ * to the shared store instead, and the index records only their checksums.</p>
+ *
+ * @author Sung Gon Kim
+ */
+final class SegmentStore {
+
+  /**
+   * Represents the name of the segments directory.
+   */
+  static final String SEGMENTS = "segments";
+
+  /**
+   * Represents the name of the index log.
+   */
+  static final String INDEX = "index.log";
+
+  /**
+   * Represents the name of the legacy objects directory.
+   */
+  static final String LEGACY_OBJECTS = "objects";
+
+  /**
+   * Represents the name of the legacy index.
+   */
+  static final String LEGACY_INDEX = "index.json";
+
+  /**
+   * Represents the name of the link to the shared store in the segments directory.
+   */
+  static final String SHARED_LINK = "shared";
+
+  /**
+   * Represents the segment number of the legacy object files.
+   */
+  private static final int LEGACY = -1;
+
+  /**
+   * Represents the segment number of the values in the shared store.
+   */
+  private static final int SHARED = -2;
+
+  /**
+   * Represents the magic number of the index log.
+   */
+  private static final int MAGIC = 0x4d534958;
+
+  /**
+   * Represents the version of the index log.
+   */
+  private static final int VERSION = 1;
+
+  /**
+   * Represents the size of the index log header.
+   */
+  private static final int HEADER = 8;
+
+  /**
+   * Represents the maximum size of a data segment.
+   */
+  static final long SEGMENT_SIZE = 64L * 1024 * 1024;
+
+  /**
+   * Represents the compression of the values to write.
+   */
+  private static volatile Compression compression = Compression.fromProperties();
+
+  /**
+   * Represents whether the segments are memory mapped to read the values.
+   */
+  private static volatile boolean memoryMapped = SystemProperties.getBoolean(
+      FileStore.class.getName() + ".memoryMapped", false);
+
+  /**
+   * Represents the size of the legacy values packed at once.
+   */
+  private static final long PACK_CHUNK_SIZE = 16L * 1024 * 1024;
+
+  /**
+   * Represents the opened stores keyed by the storage directory.
+   */
+  private static final Map<File, WeakReference<SegmentStore>> STORES = new HashMap<>();
+
+  /**
+   * Location of a value.
+   */
+  static final class Location {
+
+    /**
+     * Represents the segment number, or a negative number for the legacy or shared value.
+     */
+    private final int segment;
+
+    /**
+     * Represents the offset in the segment.
+     */
+    private final long offset;
+
+    /**
+     * Represents the length of the stored bytes.
+     */
+    private final int length;
+
+    /**
+     * Represents the compression of the stored bytes.
+     */
+    private final byte compression;
+
+    /**
+     * Represents the path of the legacy object file relative to the objects directory, or the
+     * checksum of the shared value.
+     */
+    private final String path;
+
+    /**
+     * Default constructor.
+     *
+     * @param segment     number
+     * @param offset      in the segment
+     * @param length      of the stored bytes
+     * @param compression of the stored bytes
+     * @param path        of the legacy object file, or checksum of the shared value
+     */
+    private Location(int segment, long offset, int length, byte compression, String path) {
+      this.segment = segment;
+      this.offset = offset;
+      this.length = length;
+      this.compression = compression;
+      this.path = path;
+    }
+  }
+
+  /**
+   * Pending commit of the index records.
+   */
+  private static final class Commit {
+
+    /**
+     * Represents the locations of the keys.
+     */
+    private final Map<String, Location> records;
+
+    /**
+     * Represents the checksums of the locations.
+     */
+    private final Map<Location, byte[]> checksums;
+
+    /**
+     * Represents whether the commit is written by any writer.
+     */
+    private boolean done;
+
+    /**
+     * Represents the failure of the writer, nullable.
+     */
+    private IOException failure;
+
+    /**
+     * Default constructor.
+     *
+     * @param records   to commit
+     * @param checksums of the locations
+     */
+    Commit(Map<String, Location> records, Map<Location, byte[]> checksums) {
+      this.records = records;
+      this.checksums = checksums;
+    }
+  }
+
+  /**
+   * Represents the path to the storage directory.
+   */
+  private final File storage;
+
+  /**
+   * Represents the path to the segments directory.
+   */
+  private final File segments;
+
+  /**
+   * Represents the path to the index log.
+   */
+  private final File log;
+
+  /**
+   * Represents the locations of the keys.
+   */
+  private final Map<String, Location> index;
+
+  /**
+   * Represents the memory mapped segments keyed by the segment number.
+   */
+  private final Map<Integer, MappedByteBuffer> mapped;
+
+  /**
+   * Represents the locations of the stored contents keyed by the checksum.
+   */
+  private final Map<String, Location> contents;
+
+  /**
+   * Represents the commits waiting for the index log.
+   */
+  private final List<Commit> queue;
+
+  /**
+   * Represents the lock of the data segments.
+   */
+  private final Object dataLock;
+
+  /**
+   * Represents the lock of the index log.
+   */
+  private final Object logLock;
+
+  /**
+   * Represents the shared store of the large values, nullable.
+   */
+  private volatile SharedStore shared;
+
+  /**
+   * Represents the name of this store in the reference lists of the shared store.
+   */
+  private volatile String referer;
+
+  /**
+   * Represents the length of the valid frames in the index log.
+   */
+  private long committed;
+
+  /**
+   * Represents the length of the index log when loaded or written by this object.
+   */
+  private volatile long length;
+
+  /**
+   * Represents whether the invalid frames are truncated from the index log.
+   */
+  private boolean repaired;
+
+  /**
+   * Represents the current data segment number.
+   */
+  private int segment;
+
+  /**
+   * Represents the end of the current data segment.
+   */
+  private long position;
+
+  /**
+   * Default constructor.
+   *
+   * @param storage directory
+   * @throws IOException if failed to load the index
+   */
+  SegmentStore(final File storage) throws IOException {
+    this.storage = storage;
+    this.segments = new File(storage, SEGMENTS);
+    this.log = new File(segments, INDEX);
+    this.index = new ConcurrentHashMap<>();
+    this.mapped = new ConcurrentHashMap<>();
+    this.contents = new HashMap<>();
+    this.queue = new ArrayList<>();
+    this.dataLock = new Object();
+    this.logLock = new Object();
+    this.segment = -1;
+    loadLegacyIndex();
+    loadIndex();
+    loadLink();
+  }
+
+  /**
+   * Returns the store of the storage directory, sharing the opened one if its index is up to date.
+   *
+   * @param storage directory
+   * @return segment store
+   * @throws IOException if failed to load the index
+   */
+  static SegmentStore open(final File storage) throws IOException {
+    File key = storage.getCanonicalFile();
+    synchronized (STORES) {
+      STORES.values().removeIf(reference -> reference.get() == null);
+      WeakReference<SegmentStore> reference = STORES.get(key);
+      SegmentStore store = (reference == null) ? null : reference.get();
+      if (store == null) {
+        store = new SegmentStore(key);
+        STORES.put(key, new WeakReference<>(store));
+      } else if (store.isModified()) {
+        store.reload();
+      }
+      return store;
+    }
+  }
+
+  /**
+   * Loads the index log written by others into this object, so that all the objects referring
+   * to this store keep writing through the same segment position. The readers see either the
+   * previous or the new location of a key, both of which are valid as the segments are only
+   * appended.
+   *
+   * @throws IOException if failed to load the index
+   */
+  private void reload() throws IOException {
+    synchronized (logLock) {
+      synchronized (dataLock) {
+        if (!isModified()) {
+          return;
+        }
+        SegmentStore loaded = new SegmentStore(storage);
+        index.putAll(loaded.index);
+        index.keySet().retainAll(loaded.index.keySet());
+        contents.clear();
+        contents.putAll(loaded.contents);
+        mapped.clear();
+        committed = loaded.committed;
+        length = loaded.length;
+        repaired = false;
+        segment = -1;
+        position = 0;
+        referer = loaded.referer;
+        shared = loaded.shared;
+      }
+    }
+  }
+
+  /**
+   * Test if the index log is written by others after loaded.
+   *
+   * @return true if modified, false otherwise
+   */
+  private boolean isModified() {
+    return log.length() != length;
+  }
+
+  /**
+   * Attaches the shared store, to which the values larger than the threshold are written from now
+   * on. The link is written in the segments directory, so that the store is attached on loading.
+   *
+   * @param directory of the shared store
+   * @throws IOException if failed to open the shared store or to write the link
+   */
+  void attach(final File directory) throws IOException {
+    SharedStore store = SharedStore.open(directory);
+    String name = store.getReferer(storage);
+    String path = storage.getCanonicalFile().toPath()
+        .relativize(store.getStorage().toPath()).toString().replace(File.separatorChar, '/');
+    FileUtils.forceMkdir(segments);
+    FileUtils.writeLines(new File(segments, SHARED_LINK), StandardCharsets.UTF_8.name(),
+        Arrays.asList(path, name));
+    referer = name;
+    shared = store;
+  }
+
+  /**
+   * Loads the link to the shared store if exists.
+   *
+   * @throws IOException if failed to read the link or to open the shared store
+   */
+  private void loadLink() throws IOException {
+    File link = new File(segments, SHARED_LINK);
+    if (!link.exists()) {
+      return;
+    }
+    List<String> lines = FileUtils.readLines(link, StandardCharsets.UTF_8);
+    if (lines.size() < 2) {
+      throw new IOException("Invalid link to the shared store: " + link);
+    }
+    referer = lines.get(1);
+    shared = SharedStore.open(new File(storage, lines.get(0)));
+  }
+
+  /**
+   * Sets the compression of the values to write.
+   *
+   * @param compression of the values
+   */
+  static void setCompression(final Compression compression) {
+    SegmentStore.compression = compression;
+  }
+
+  /**
+   * Returns the compression of the values to write.
+   *
+   * @return compression object
+   */
+  static Compression getCompression() {
+    return compression;
+  }
+
+  /**
+   * Enables or disables reading the values through the memory mapped segments.
+   *
+   * @param memoryMapped true to map the segments into memory
+   */
+  static void setMemoryMapped(final boolean memoryMapped) {
+    SegmentStore.memoryMapped = memoryMapped;
+  }
+
+  /**
+   * Test if the values are read through the memory mapped segments.
+   *
+   * @return true if the segments are mapped into memory
+   */
+  static boolean isMemoryMapped() {
+    return memoryMapped;
+  }
+
+  /**
+   * Returns the number of stored keys.
+   *
+   * @return the number of stored keys
+   */
+  int size() {
+    return index.size();
+  }
+
+  /**
+   * Returns the stored keys.
+   *
+   * @return set of the keys
+   */
+  Set<String> keys() {
+    return Collections.unmodifiableSet(index.keySet());
+  }
+
+  /**
+   * Returns the length of the bytes stored for the key, which is compressed if written so.
+   *
+   * @param key of the value
+   * @return length in bytes, or 0 if not found
+   */
+  long getStoredLength(final String key) {
+    Location location = (key == null) ? null : index.get(key);
+    return (location == null) ? 0 : location.length;
+  }
+
+  /**
+   * Test if the key exists.
+   *
+   * @param key to test
+   * @return true if the key exists, false otherwise
+   */
+  boolean has(final String key) {
+    return key != null && index.containsKey(key);
+  }
+
+  /**
+   * Returns the bytes to which the specified key is mapped.
+   *
+   * @param key whose associated value is to be returned
+   * @return the value to which the specified key is mapped, or null if no mapping found
+   */
+  byte[] get(final String key) {
+    Location location = (key == null) ? null : index.get(key);
+    if (location == null) {
+      return null;
+    }
+    try {
+      return read(location);
+    } catch (IOException ignored) {
+      return null;
+    }
+  }
+
+  /**
+   * Associates the specified value with the specified key.
+   *
+   * @param key   with which the specified value is to be associated
+   * @param value to be associated with the specified key
+   * @throws IOException if failed to write the value or the index
+   */
+  void put(final String key, final byte[] value) throws IOException {
+    putAll(Collections.singletonMap(key, value));
+  }
+
+  /**
+   * Associates the specified values with the keys atomically, writing the index in a single frame.
+   *
+   * @param values to be associated with the keys
+   * @throws IOException if failed to write the values or the index
+   */
+  void putAll(final Map<String, byte[]> values) throws IOException {
+    Compression current = compression;
+    SharedStore sharedStore = shared;
+    Map<String, byte[]> checksums = new LinkedHashMap<>();
+    Map<String, Compression.Block> encoded = new HashMap<>();
+    Map<String, byte[]> sharing = new LinkedHashMap<>();
+    for (Map.Entry<String, byte[]> entry : values.entrySet()) {
+      byte[] checksum = DigestUtils.sha256(entry.getValue());
+      checksums.put(entry.getKey(), checksum);
+      String hex = Hex.encodeHexString(checksum);
+      if (sharedStore != null && entry.getValue().length >= SharedStore.getThreshold()) {
+        sharing.put(hex, entry.getValue());
+      } else {
+        encoded.computeIfAbsent(hex, k -> current.compress(entry.getValue()));
+      }
+    }
+    if (!sharing.isEmpty()) {
+      sharedStore.putAll(referer, sharing);
+    }
+
+    Map<String, Location> records = new LinkedHashMap<>();
+    Map<Location, byte[]> locations = new HashMap<>();
+    Map<Integer, FileChannel> channels = new HashMap<>();
+    try {
+      synchronized (dataLock) {
+        for (Map.Entry<String, byte[]> entry : checksums.entrySet()) {
+          String hex = Hex.encodeHexString(entry.getValue());
+          Location location = contents.get(hex);
+          if (sharing.containsKey(hex)) {
+            if (location == null || location.segment != SHARED) {
+              location = new Location(SHARED, 0, sharing.get(hex).length,
+                  Compression.Method.NONE.getId(), hex);
+              contents.put(hex, location);
+            }
+          } else if (location == null || location.segment < 0) {
+            location = append(encoded.get(hex), channels);
+            contents.put(hex, location);
+          }
+          records.put(entry.getKey(), location);
+          locations.put(location, entry.getValue());
+        }
+      }
+      // the values must be on the disk before the index refers to them
+      for (FileChannel channel : channels.values()) {
+        channel.force(false);
+      }
+    } finally {
+      for (FileChannel channel : channels.values()) {
+        channel.close();
+      }
+    }
+    commit(new Commit(records, locations));
+  }
+
+  /**
+   * Test if any key refers to the legacy objects directory.
+   *
+   * @return true if the store has legacy keys, false otherwise
+   */
+  boolean hasLegacyKeys() {
+    return index.values().stream().anyMatch(location -> location.segment == LEGACY);
+  }
+
+  /**
+   * Packs the values of the legacy objects directory into the data segments in chunks, and then
+   * removes the legacy index and the object files. The keys remain readable in the middle, as the
+   * legacy files are removed only after all the values are packed.
+   *
+   * @return the number of packed keys
+   * @throws IOException if failed to read the legacy objects or to write the segments
+   */
+  int pack() throws IOException {
+    int count = 0;
+    long size = 0;
+    Map<String, byte[]> values = new LinkedHashMap<>();
+    for (Map.Entry<String, Location> entry : index.entrySet()) {
+      if (entry.getValue().segment != LEGACY) {
+        continue;
+      }
+      byte[] value = read(entry.getValue());
+      values.put(entry.getKey(), value);
+      size += value.length;
+      if (size >= PACK_CHUNK_SIZE) {
+        putAll(values);
+        count += values.size();
+        values.clear();
+        size = 0;
+      }
+    }
+    if (!values.isEmpty()) {
+      putAll(values);
+      count += values.size();
+    }
+    synchronized (dataLock) {
+      contents.values().removeIf(location -> location.segment == LEGACY);
+    }
+    FileUtils.deleteQuietly(new File(storage, LEGACY_INDEX));
+    FileUtils.deleteDirectory(new File(storage, LEGACY_OBJECTS));
+    return count;
+  }
+
+  /**
+   * Appends the block to the current data segment, through the channel of the segment which is
+   * kept open for the rest of the batch.
+   *
+   * @param block    to append
+   * @param channels of the segments opened by the batch
+   * @return location of the block
+   * @throws IOException if failed to write the segment
+   */
+  private Location append(final Compression.Block block, final Map<Integer, FileChannel> channels)
+      throws IOException {
+    byte[] bytes = block.getBytes();
+    if (segment < 0) {
+      FileUtils.forceMkdir(segments);
+      segment = 0;
+      while (getSegment(segment + 1).exists()) {
+        segment++;
+      }
+      position = getSegment(segment).length();
+    }
+    if (position > 0 && position + bytes.length > SEGMENT_SIZE) {
+      segment++;
+      position = 0;
+    }
+    FileChannel channel = channels.get(segment);
+    if (channel == null) {
+      channel = FileChannel.open(getSegment(segment).toPath(),
+          StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+      channels.put(segment, channel);
+    }
+    write(channel, ByteBuffer.wrap(bytes), position);
+    Location location = new Location(segment, position, bytes.length,
+        block.getMethod().getId(), null);
+    position += bytes.length;
+    return location;
+  }
+
+  /**
+   * Writes the commit to the index log, together with the other pending commits.
+   *
+   * @param commit to write
+   * @throws IOException if failed to write the index log
+   */
+  private void commit(final Commit commit) throws IOException {
+    synchronized (queue) {
+      queue.add(commit);
+    }
+    synchronized (logLock) {
+      if (!commit.done) {
+        List<Commit> batch;
+        synchronized (queue) {
+          batch = new ArrayList<>(queue);
+          queue.clear();
+        }
+        IOException failure = null;
+        try {
+          writeFrame(batch);
+          for (Commit c : batch) {
+            index.putAll(c.records);
+          }
+        } catch (IOException e) {
+          failure = e;
+        }
+        for (Commit c : batch) {
+          c.done = true;
+          c.failure = failure;
+        }
+      }
+      if (commit.failure != null) {
+        throw new IOException("Failed to write the index: " + log, commit.failure);
+      }
+    }
+  }
+
+  /**
+   * Appends a frame of the index records to the index log.
+   *
+   * @param batch of the commits
+   * @throws IOException if failed to write the index log
+   */
+  private void writeFrame(final List<Commit> batch) throws IOException {
+    ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    try (DataOutputStream dos = new DataOutputStream(bos)) {
+      dos.writeInt(batch.stream().mapToInt(c -> c.records.size()).sum());
+      for (Commit c : batch) {
+        for (Map.Entry<String, Location> entry : c.records.entrySet()) {
+          Location location = entry.getValue();
+          dos.writeUTF(entry.getKey());
+          dos.writeInt(location.segment);
+          dos.writeLong(location.offset);
+          dos.writeInt(location.length);
+          dos.writeByte(location.compression);
+          dos.write(c.checksums.get(location));
+        }
+      }
+    }
+    byte[] payload = bos.toByteArray();
+    CRC32 crc = new CRC32();
+    crc.update(payload);
+    ByteBuffer frame = ByteBuffer.allocate(HEADER + payload.length);
+    frame.putInt(payload.length).putInt((int) crc.getValue()).put(payload).flip();
+
+    FileUtils.forceMkdir(segments);
+    try (FileChannel channel = FileChannel.open(log.toPath(),
+        StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+      if (!repaired) {
+        if (committed < HEADER) {
+          channel.truncate(0);
+          ByteBuffer header = ByteBuffer.allocate(HEADER);
+          header.putInt(MAGIC).putInt(VERSION).flip();
+          write(channel, header, 0);
+          committed = HEADER;
+        } else if (channel.size() > committed) {
+          channel.truncate(committed);
+        }
+        repaired = true;
+      }
+      long offset = channel.size();
+      write(channel, frame, offset);
+      length = offset + HEADER + payload.length;
+    }
+  }
+
+  /**
+   * Writes the whole buffer to the channel at the given position.
+   *
+   * @param channel  to write
+   * @param buffer   to write
+   * @param position to write at
+   * @throws IOException if failed to write the channel
+   */
+  private static void write(FileChannel channel, ByteBuffer buffer, long position)
+      throws IOException {
+    long offset = position;
+    while (buffer.hasRemaining()) {
+      offset += channel.write(buffer, offset);
+    }
+  }
+
+  /**
+   * Reads the value of the location.
+   *
+   * @param location of the value
+   * @return value
+   * @throws IOException if failed to read the value
+   */
+  private byte[] read(final Location location) throws IOException {
+    if (location.segment == SHARED) {
+      byte[] value = (shared == null) ? null : shared.get(location.path);
+      if (value == null) {
+        throw new IOException("Shared value not found: " + location.path);
+      }
+      return value;
+    }
+    if (location.segment == LEGACY) {
+      File file = new File(new File(storage, LEGACY_OBJECTS), location.path);
+      try (InputStream is = new GZIPInputStream(new BufferedInputStream(
+          Files.newInputStream(file.toPath())))) {
+        return IOUtils.toByteArray(is);
+      }
+    }
+    byte[] bytes = new byte[location.length];
+    ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    if (memoryMapped) {
+      ByteBuffer view = map(location).duplicate();
+      view.position((int) location.offset).limit((int) location.offset + location.length);
+      buffer.put(view);
+    } else {
+      try (FileChannel channel = FileChannel.open(getSegment(location.segment).toPath(),
+          StandardOpenOption.READ)) {
+        long offset = location.offset;
+        while (buffer.hasRemaining()) {
+          int count = channel.read(buffer, offset);
+          if (count < 0) {
+            throw new EOFException("Truncated segment: " + location.segment);
+          }
+          offset += count;
+        }
+      }
+    }
+    return Compression.decompress(location.compression, bytes);
+  }
+
+  /**
+   * Returns the memory mapped segment of the location, mapping it again if the segment has grown
+   * since mapped.
+   *
+   * @param location of the value
+   * @return mapped buffer
+   * @throws IOException if failed to map the segment
+   */
+  private MappedByteBuffer map(final Location location) throws IOException {
+    MappedByteBuffer buffer = mapped.get(location.segment);
+    if (buffer == null || buffer.capacity() < location.offset + location.length) {
+      try (FileChannel channel = FileChannel.open(getSegment(location.segment).toPath(),
+          StandardOpenOption.READ)) {
+        if (channel.size() < location.offset + location.length) {
+          throw new EOFException("Truncated segment: " + location.segment);
+        }
+        buffer = channel.map(MapMode.READ_ONLY, 0, channel.size());
+      }
+      mapped.put(location.segment, buffer);
+    }
+    return buffer;
+  }
+
+  private File getSegment(final int number) {
+    return new File(segments, String.format("%08d.dat", number));
+  }
+
+  /**
+   * Loads the keys of the legacy index.json.
+   *
+   * @throws IOException if failed to read the legacy index
+   */
+  private void loadLegacyIndex() throws IOException {
+    File referer = new File(storage, LEGACY_INDEX);
+    if (!referer.exists()) {
+      return;
+    }
+    JSONObject indices;
+    try {
+      indices = JSONObject.fromObject(FileUtils.readFileToString(referer, StandardCharsets.UTF_8));
+    } catch (JSONException e) {
+      throw new IOException("Failed to parse the legacy index: " + referer, e);
+    }
+    Iterator<?> keys = indices.keys();
+    while (keys.hasNext()) {
+      String key = (String) keys.next();
+      String path = indices.getString(key);
+      Location location = contents.computeIfAbsent(path.replace("/", ""),
+          k -> new Location(LEGACY, 0, 0, Compression.Method.GZIP.getId(), path));
+      index.put(key, location);
+    }
+  }
+
+  /**
+   * Loads the valid frames of the index log.
+   *
+   * @throws IOException if failed to read the index log
+   */
+  private void loadIndex() throws IOException {
+    if (!log.exists()) {
+      return;
+    }
+    length = log.length();
+    try (DataInputStream dis = new DataInputStream(new BufferedInputStream(
+        Files.newInputStream(log.toPath())))) {
+      if (length < HEADER) {
+        return;
+      }
+      if (dis.readInt() != MAGIC || dis.readInt() != VERSION) {
+        throw new IOException("Invalid index log: " + log);
+      }
+      committed = HEADER;
+      while (committed + HEADER <= length) {
+        int size = dis.readInt();
+        int checksum = dis.readInt();
+        if (size < 0 || committed + HEADER + size > length) {
+          break;
+        }
+        byte[] payload = new byte[size];
+        dis.readFully(payload);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        if ((int) crc.getValue() != checksum) {
+          break;
+        }
+        loadFrame(payload);
+        committed += HEADER + size;
+      }
+    } catch (EOFException ignored) {
+      // a partially written frame is discarded.
+    }
+  }
+
+  /**
+   * Loads the index records of a frame.
+   *
+   * @param payload of the frame
+   * @throws IOException if failed to read the frame
+   */
+  private void loadFrame(final byte[] payload) throws IOException {
+    try (DataInputStream dis = new DataInputStream(new ByteArrayInputStream(payload))) {
+      int count = dis.readInt();
+      byte[] checksum = new byte[32];
+      for (int i = 0; i < count; i++) {
+        String key = dis.readUTF();
+        int number = dis.readInt();
+        long offset = dis.readLong();
+        int size = dis.readInt();
+        byte compression = dis.readByte();
+        dis.readFully(checksum);
+        String hex = Hex.encodeHexString(checksum);
+        Location location = contents.computeIfAbsent(hex,
+            k -> new Location(number, offset, size, compression,
+                (number == SHARED) ? hex : null));
+        index.put(key, location);
+      }
+    }
+  }
+}
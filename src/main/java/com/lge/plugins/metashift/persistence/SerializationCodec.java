@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2021 LG Electronics Inc.
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.lge.plugins.metashift.persistence;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+/**
+ * Codec which uses the Java serialization, in which the values of the previous versions are
+ * stored.
+ *
+ * @author Sung Gon Kim
+ */
+public final class SerializationCodec implements Codec {
+
+  @Override
+  public byte[] encode(final Object object) throws IOException {
+    try (ByteArrayOutputStream bos = new ByteArrayOutputStream()) {
+      try (ObjectOutputStream oos = new ObjectOutputStream(bos)) {
+        oos.writeObject(object);
+      }
+      return bos.toByteArray();
+    }
+  }
+
+  @Override
+  public Object decode(final byte[] bytes) throws IOException {
+    try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+      return ois.readObject();
+    } catch (ClassNotFoundException e) {
+      throw new IOException(e);
+    }
+  }
+
+  @Override
+  public boolean canDecode(final byte[] bytes) {
+    return bytes.length >= 2 && bytes[0] == (byte) 0xac && bytes[1] == (byte) 0xed;
+  }
+}
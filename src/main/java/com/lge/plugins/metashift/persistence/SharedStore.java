@@ -0,0 +1,477 @@
+/*
+ * Copyright (c) 2021 LG Electronics Inc.
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.lge.plugins.metashift.persistence;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import jenkins.util.SystemProperties;
+import org.apache.commons.io.FileUtils;
+
+/**
+ * Provides a content-addressed store shared by the builds of a job.
+ *
+ * <p>The values are keyed by the SHA-256 checksum, so that the identical values of the builds,
+ * such as the unchanged source files and coverage objects, are stored only once. Each build
+ * records the checksums it refers to in its own reference list, and the number of the lists
+ * containing a checksum is the reference count of the value, which records each checksum once.
+ * When a build is deleted, its list is released, and the values no longer referred to are
+ * collected later by compacting the store once they take at least half of its size.</p>
+ *
+ * @author Sung Gon Kim
+ */
+public final class SharedStore {
+
+  /**
+   * Represents the name of the shared store directory in the job directory.
+   */
+  public static final String DIRECTORY = "meta-shift-objects";
+
+  /**
+   * Represents the name of the reference lists directory.
+   */
+  static final String REFS = "refs";
+
+  /**
+   * Represents the name of the directory where the live values are compacted.
+   */
+  private static final String COMPACTING = "compacting";
+
+  /**
+   * Represents the name of the segments directory replaced by the compacted one.
+   */
+  private static final String BACKUP = "segments.old";
+
+  /**
+   * Represents the extension of the reference lists.
+   */
+  private static final String EXTENSION = ".refs";
+
+  /**
+   * Represents the maximum number of the referers whose recorded checksums are kept in memory.
+   */
+  private static final int MAX_REFERERS = 16;
+
+  /**
+   * Represents the size of the live values copied at once.
+   */
+  private static final long CHUNK_SIZE = 16L * 1024 * 1024;
+
+  /**
+   * Represents whether the builds share the store of the job.
+   */
+  private static volatile boolean enabled = SystemProperties.getBoolean(
+      SharedStore.class.getName() + ".enabled", false);
+
+  /**
+   * Represents the size in bytes from which the values are shared.
+   */
+  private static volatile int threshold = SystemProperties.getInteger(
+      SharedStore.class.getName() + ".threshold", 1024);
+
+  /**
+   * Represents the opened stores keyed by the storage directory.
+   */
+  private static final Map<File, WeakReference<SharedStore>> STORES = new HashMap<>();
+
+  /**
+   * Represents the path to the storage directory.
+   */
+  private final File storage;
+
+  /**
+   * Represents the path to the reference lists directory.
+   */
+  private final File refs;
+
+  /**
+   * Represents the lock which excludes the garbage collection from the other operations.
+   */
+  private final ReadWriteLock lock;
+
+  /**
+   * Represents the lock of the reference lists.
+   */
+  private final Object refsLock;
+
+  /**
+   * Represents the checksums recorded in the reference lists of the latest referers.
+   */
+  private final LinkedHashMap<String, Set<String>> recorded;
+
+  /**
+   * Represents whether a collection is requested and not started yet.
+   */
+  private final AtomicBoolean pending;
+
+  /**
+   * Represents the values keyed by the checksum.
+   */
+  private SegmentStore store;
+
+  /**
+   * Default constructor.
+   *
+   * @param storage directory
+   * @throws IOException if failed to load the store
+   */
+  private SharedStore(final File storage) throws IOException {
+    this.storage = storage;
+    this.refs = new File(storage, REFS);
+    this.lock = new ReentrantReadWriteLock();
+    this.refsLock = new Object();
+    this.recorded = new LinkedHashMap<>(16, 0.75f, true);
+    this.pending = new AtomicBoolean();
+    recover();
+    this.store = new SegmentStore(storage);
+  }
+
+  /**
+   * Returns the shared store of the storage directory, opening it if not opened yet.
+   *
+   * @param storage directory
+   * @return shared store
+   * @throws IOException if failed to load the store
+   */
+  public static SharedStore open(final File storage) throws IOException {
+    File key = storage.getCanonicalFile();
+    synchronized (STORES) {
+      STORES.values().removeIf(reference -> reference.get() == null);
+      WeakReference<SharedStore> reference = STORES.get(key);
+      SharedStore store = (reference == null) ? null : reference.get();
+      if (store == null) {
+        FileUtils.forceMkdir(key);
+        store = new SharedStore(key);
+        STORES.put(key, new WeakReference<>(store));
+      }
+      return store;
+    }
+  }
+
+  /**
+   * Test if the builds share the store of the job.
+   *
+   * @return true if enabled, false otherwise
+   */
+  public static boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Enables or disables the shared store of the job.
+   *
+   * @param enabled true to share the store
+   */
+  public static void setEnabled(final boolean enabled) {
+    SharedStore.enabled = enabled;
+  }
+
+  /**
+   * Returns the size from which the values are shared.
+   *
+   * @return threshold in bytes
+   */
+  public static int getThreshold() {
+    return threshold;
+  }
+
+  /**
+   * Sets the size from which the values are shared.
+   *
+   * @param threshold in bytes
+   */
+  public static void setThreshold(final int threshold) {
+    SharedStore.threshold = threshold;
+  }
+
+  /**
+   * Returns the path to the storage directory.
+   *
+   * @return storage directory
+   */
+  File getStorage() {
+    return storage;
+  }
+
+  /**
+   * Returns the name of the referer, which is the path to its storage relative to the job.
+   *
+   * @param source storage directory of the referer
+   * @return name of the referer
+   * @throws IOException if failed to resolve the path
+   */
+  String getReferer(final File source) throws IOException {
+    return storage.getParentFile().toPath()
+        .relativize(source.getCanonicalFile().toPath())
+        .toString().replace(File.separatorChar, '/');
+  }
+
+  private File getReferences(final String referer) throws IOException {
+    return new File(refs, URLEncoder.encode(referer, StandardCharsets.UTF_8.name()) + EXTENSION);
+  }
+
+  /**
+   * Stores the values keyed by the checksum, and adds them to the reference list of the referer.
+   * The references are recorded before the values, so that no value is collected while used.
+   *
+   * @param referer name
+   * @param values  keyed by the checksum
+   * @throws IOException if failed to write the values or the references
+   */
+  void putAll(final String referer, final Map<String, byte[]> values) throws IOException {
+    lock.readLock().lock();
+    try {
+      addReferences(referer, values.keySet());
+      Map<String, byte[]> missing = new LinkedHashMap<>();
+      for (Map.Entry<String, byte[]> entry : values.entrySet()) {
+        if (!store.has(entry.getKey())) {
+          missing.put(entry.getKey(), entry.getValue());
+        }
+      }
+      if (!missing.isEmpty()) {
+        store.putAll(missing);
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private void addReferences(final String referer, final Collection<String> checksums)
+      throws IOException {
+    synchronized (refsLock) {
+      File file = getReferences(referer);
+      Set<String> known = recorded.get(referer);
+      if (known == null) {
+        known = file.exists()
+            ? new HashSet<>(Files.readAllLines(file.toPath(), StandardCharsets.UTF_8))
+            : new HashSet<>();
+        recorded.put(referer, known);
+        Iterator<String> iterator = recorded.keySet().iterator();
+        while (recorded.size() > MAX_REFERERS && iterator.hasNext()) {
+          iterator.next();
+          iterator.remove();
+        }
+      }
+      Set<String> added = new LinkedHashSet<>(checksums);
+      added.removeAll(known);
+      if (added.isEmpty()) {
+        return;
+      }
+      FileUtils.forceMkdir(refs);
+      Files.write(file.toPath(), added, StandardCharsets.UTF_8,
+          StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+      known.addAll(added);
+    }
+  }
+
+  /**
+   * Returns the value of the checksum.
+   *
+   * @param checksum of the value
+   * @return the value, or null if not found
+   */
+  byte[] get(final String checksum) {
+    lock.readLock().lock();
+    try {
+      return store.get(checksum);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Returns the number of the stored values.
+   *
+   * @return the number of values
+   */
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return store.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Returns the number of the reference lists containing the checksum.
+   *
+   * @param checksum of the value
+   * @return reference count
+   * @throws IOException if failed to read the reference lists
+   */
+  public int getReferenceCount(final String checksum) throws IOException {
+    synchronized (refsLock) {
+      int count = 0;
+      for (File file : listReferences()) {
+        if (Files.readAllLines(file.toPath(), StandardCharsets.UTF_8).contains(checksum)) {
+          count++;
+        }
+      }
+      return count;
+    }
+  }
+
+  private List<File> listReferences() {
+    File[] files = refs.listFiles((dir, name) -> name.endsWith(EXTENSION));
+    List<File> list = new ArrayList<>();
+    if (files != null) {
+      for (File file : files) {
+        list.add(file);
+      }
+    }
+    return list;
+  }
+
+  /**
+   * Releases the reference list of the referer. The values no longer referred to remain until
+   * the store is collected.
+   *
+   * @param source storage directory of the referer
+   * @throws IOException if failed to delete the reference list
+   */
+  public void release(final File source) throws IOException {
+    String referer = getReferer(source);
+    synchronized (refsLock) {
+      recorded.remove(referer);
+      Files.deleteIfExists(getReferences(referer).toPath());
+    }
+  }
+
+  /**
+   * Requests a collection of the store, which is to be run in the background.
+   *
+   * @return true if requested, false if a requested collection has not started yet
+   */
+  public boolean requestCollection() {
+    return pending.compareAndSet(false, true);
+  }
+
+  /**
+   * Collects the values no longer referred to, if they take at least half of the store. The
+   * reference lists of the referers whose storage no longer exists are released as well.
+   *
+   * @return the number of collected values
+   * @throws IOException if failed to operate with the files
+   */
+  public int collect() throws IOException {
+    pending.set(false);
+    lock.writeLock().lock();
+    try {
+      Set<String> live = new HashSet<>();
+      synchronized (refsLock) {
+        for (File file : listReferences()) {
+          String name = file.getName();
+          String referer = URLDecoder.decode(name.substring(0, name.length() - EXTENSION.length()),
+              StandardCharsets.UTF_8.name());
+          if (new File(storage.getParentFile(), referer).exists()) {
+            live.addAll(Files.readAllLines(file.toPath(), StandardCharsets.UTF_8));
+          } else {
+            recorded.remove(referer);
+            Files.deleteIfExists(file.toPath());
+          }
+        }
+      }
+      long total = 0;
+      long garbage = 0;
+      int count = 0;
+      for (String checksum : store.keys()) {
+        long length = store.getStoredLength(checksum);
+        total += length;
+        if (!live.contains(checksum)) {
+          garbage += length;
+          count++;
+        }
+      }
+      if (count == 0 || garbage * 2 < total) {
+        return 0;
+      }
+      compact(live);
+      return count;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Copies the live values to a new store, and replaces the segments with the new ones.
+   *
+   * @param live checksums
+   * @throws IOException if failed to operate with the files
+   */
+  private void compact(final Set<String> live) throws IOException {
+    File temp = new File(storage, COMPACTING);
+    FileUtils.deleteDirectory(temp);
+    SegmentStore target = new SegmentStore(temp);
+    Map<String, byte[]> values = new LinkedHashMap<>();
+    long size = 0;
+    for (String checksum : store.keys()) {
+      byte[] value = live.contains(checksum) ? store.get(checksum) : null;
+      if (value == null) {
+        continue;
+      }
+      values.put(checksum, value);
+      size += value.length;
+      if (size >= CHUNK_SIZE) {
+        target.putAll(values);
+        values.clear();
+        size = 0;
+      }
+    }
+    if (!values.isEmpty()) {
+      target.putAll(values);
+    }
+
+    File segments = new File(storage, SegmentStore.SEGMENTS);
+    File backup = new File(storage, BACKUP);
+    File compacted = new File(temp, SegmentStore.SEGMENTS);
+    if (segments.exists()) {
+      FileUtils.moveDirectory(segments, backup);
+    }
+    if (compacted.exists()) {
+      FileUtils.moveDirectory(compacted, segments);
+    }
+    FileUtils.deleteDirectory(backup);
+    FileUtils.deleteDirectory(temp);
+    store = new SegmentStore(storage);
+  }
+
+  /**
+   * Recovers the segments from the compaction which was interrupted.
+   *
+   * @throws IOException if failed to operate with the files
+   */
+  private void recover() throws IOException {
+    File segments = new File(storage, SegmentStore.SEGMENTS);
+    File backup = new File(storage, BACKUP);
+    if (backup.exists()) {
+      if (segments.exists()) {
+        FileUtils.deleteDirectory(backup);
+      } else {
+        FileUtils.moveDirectory(backup, segments);
+      }
+    }
+    FileUtils.deleteDirectory(new File(storage, COMPACTING));
+  }
+}
@@ -0,0 +1,342 @@
+/*
+ * Copyright (c) 2021 LG Electronics Inc.
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.lge.plugins.metashift.persistence;
+
+import java.io.File;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import jenkins.util.SystemProperties;
+
+/**
+ * Provides a size-bounded cache of the encoded values shared by the data sources.
+ *
+ * <p>The values are keyed by the storage directory of the build and the key of the value, which
+ * consists of the scope, the metric, the data, the recipe and the file, so that the repeated views
+ * of the reports are served from memory without reading the stores again. The least recently used
+ * values are evicted once the total size of their encoded bytes exceeds the maximum. The absent
+ * values are cached as well. The cached values are shared, and must not be modified.</p>
+ *
+ * @author Sung Gon Kim
+ */
+public final class ValueCache {
+
+  /**
+   * Represents the estimated size of an entry besides the encoded bytes.
+   */
+  private static final long OVERHEAD = 64;
+
+  /**
+   * Represents the cache of the controller.
+   */
+  private static final ValueCache INSTANCE = new ValueCache(SystemProperties.getLong(
+      ValueCache.class.getName() + ".maxSize", 64L * 1024 * 1024));
+
+  /**
+   * Key of a cached value.
+   */
+  private static final class Key {
+
+    /**
+     * Represents the path to the storage directory.
+     */
+    private final String storage;
+
+    /**
+     * Represents the key of the value in the storage.
+     */
+    private final String name;
+
+    /**
+     * Default constructor.
+     *
+     * @param storage path
+     * @param name    of the value
+     */
+    Key(final String storage, final String name) {
+      this.storage = storage;
+      this.name = name;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key key = (Key) o;
+      return storage.equals(key.storage) && name.equals(key.name);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(storage, name);
+    }
+  }
+
+  /**
+   * Cached value with its size.
+   */
+  public static final class Entry {
+
+    /**
+     * Represents the cached value, nullable.
+     */
+    private final Object value;
+
+    /**
+     * Represents the estimated size of the entry.
+     */
+    private final long weight;
+
+    /**
+     * Default constructor.
+     *
+     * @param value  cached
+     * @param weight of the entry
+     */
+    private Entry(final Object value, final long weight) {
+      this.value = value;
+      this.weight = weight;
+    }
+
+    /**
+     * Returns the cached value.
+     *
+     * @return the value, or null if the value is absent
+     */
+    public Object getValue() {
+      return value;
+    }
+  }
+
+  /**
+   * Represents the entries in the access order.
+   */
+  private final LinkedHashMap<Key, Entry> entries;
+
+  /**
+   * Represents the maximum size of the entries.
+   */
+  private long maxWeight;
+
+  /**
+   * Represents the total size of the entries.
+   */
+  private long weight;
+
+  /**
+   * Represents the number of the invalidations, which discards the values loaded before.
+   */
+  private long generation;
+
+  private long hitCount;
+  private long missCount;
+  private long evictionCount;
+
+  /**
+   * Default constructor.
+   *
+   * @param maxWeight maximum size of the entries in bytes, or 0 to disable the cache
+   */
+  ValueCache(final long maxWeight) {
+    this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    this.maxWeight = Math.max(0, maxWeight);
+  }
+
+  /**
+   * Returns the cache of the controller.
+   *
+   * @return cache object
+   */
+  public static ValueCache getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Returns the cached entry of the key, counting the hit or the miss.
+   *
+   * @param storage directory of the value
+   * @param name    of the value
+   * @return the entry, or null if not cached
+   */
+  synchronized Entry lookup(final File storage, final String name) {
+    Entry entry = entries.get(new Key(storage.getPath(), name));
+    if (entry == null) {
+      missCount++;
+    } else {
+      hitCount++;
+    }
+    return entry;
+  }
+
+  /**
+   * Returns the generation to pass to {@link #store}, which must be taken before loading.
+   *
+   * @return generation
+   */
+  synchronized long getGeneration() {
+    return generation;
+  }
+
+  /**
+   * Caches the loaded value unless any value is invalidated since the generation is taken.
+   *
+   * @param storage    directory of the value
+   * @param name       of the value
+   * @param value      to cache, or null if absent
+   * @param size       of the encoded bytes
+   * @param generation taken before loading
+   */
+  synchronized void store(final File storage, final String name, final Object value,
+      final long size, final long generation) {
+    long entryWeight = size + name.length() * 2L + OVERHEAD;
+    if (generation != this.generation || entryWeight > maxWeight) {
+      return;
+    }
+    Entry previous = entries.put(new Key(storage.getPath(), name), new Entry(value, entryWeight));
+    if (previous != null) {
+      weight -= previous.weight;
+    }
+    weight += entryWeight;
+    evict();
+  }
+
+  private void evict() {
+    Iterator<Entry> iterator = entries.values().iterator();
+    while (weight > maxWeight && iterator.hasNext()) {
+      weight -= iterator.next().weight;
+      iterator.remove();
+      evictionCount++;
+    }
+  }
+
+  /**
+   * Discards the cached values of the keys.
+   *
+   * @param storage directory of the values
+   * @param names   of the values
+   */
+  synchronized void invalidate(final File storage, final Iterable<String> names) {
+    generation++;
+    for (String name : names) {
+      Entry entry = entries.remove(new Key(storage.getPath(), name));
+      if (entry != null) {
+        weight -= entry.weight;
+      }
+    }
+  }
+
+  /**
+   * Discards the cached values of the storage directory.
+   *
+   * @param storage directory of the values
+   */
+  synchronized void invalidate(final File storage) {
+    generation++;
+    String path = storage.getPath();
+    Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+    while (iterator.hasNext()) {
+      Map.Entry<Key, Entry> entry = iterator.next();
+      if (entry.getKey().storage.equals(path)) {
+        weight -= entry.getValue().weight;
+        iterator.remove();
+      }
+    }
+  }
+
+  /**
+   * Discards all the cached values, keeping the statistics.
+   */
+  public synchronized void clear() {
+    generation++;
+    entries.clear();
+    weight = 0;
+  }
+
+  /**
+   * Sets the maximum size of the entries, evicting the entries over it.
+   *
+   * @param maxWeight maximum size in bytes, or 0 to disable the cache
+   */
+  public synchronized void setMaxWeight(final long maxWeight) {
+    this.maxWeight = Math.max(0, maxWeight);
+    evict();
+  }
+
+  /**
+   * Returns the maximum size of the entries.
+   *
+   * @return maximum size in bytes
+   */
+  public synchronized long getMaxWeight() {
+    return maxWeight;
+  }
+
+  /**
+   * Returns the total size of the entries.
+   *
+   * @return size in bytes
+   */
+  public synchronized long getWeight() {
+    return weight;
+  }
+
+  /**
+   * Returns the number of the entries.
+   *
+   * @return the number of entries
+   */
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  /**
+   * Returns the number of the lookups served from the cache.
+   *
+   * @return hit count
+   */
+  public synchronized long getHitCount() {
+    return hitCount;
+  }
+
+  /**
+   * Returns the number of the lookups which loaded the values.
+   *
+   * @return miss count
+   */
+  public synchronized long getMissCount() {
+    return missCount;
+  }
+
+  /**
+   * Returns the number of the evicted entries.
+   *
+   * @return eviction count
+   */
+  public synchronized long getEvictionCount() {
+    return evictionCount;
+  }
+
+  /**
+   * Returns the ratio of the hits to the lookups.
+   *
+   * @return hit ratio, or 0 if no lookup
+   */
+  public synchronized double getHitRatio() {
+    long total = hitCount + missCount;
+    return (total == 0) ? 0 : (double) hitCount / total;
+  }
+
+  @Override
+  public synchronized String toString() {
+    return String.format("ValueCache{size=%d, weight=%d/%d, hits=%d, misses=%d, evictions=%d}",
+        entries.size(), weight, maxWeight, hitCount, missCount, evictionCount);
+  }
+}
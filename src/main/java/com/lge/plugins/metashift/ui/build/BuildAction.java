@@ -5,9 +5,12 @@
 
 package com.lge.plugins.metashift.ui.build;
 
+import com.lge.plugins.metashift.analysis.MetricAccumulator;
 import com.lge.plugins.metashift.builders.ProjectGroup;
 import com.lge.plugins.metashift.builders.ProjectReport;
 import com.lge.plugins.metashift.builders.ProjectReportBuilder;
+import com.lge.plugins.metashift.builders.RecipeReport;
+import com.lge.plugins.metashift.builders.RecipeReportBuilder;
 import com.lge.plugins.metashift.models.Configuration;
 import com.lge.plugins.metashift.models.Recipe;
 import com.lge.plugins.metashift.models.Recipes;
@@ -17,6 +20,7 @@ import com.lge.plugins.metashift.ui.project.MetaShiftProjectAction;
 import com.lge.plugins.metashift.ui.recipe.RecipeAction;
 import com.lge.plugins.metashift.ui.tables.EvaluationSummaryTableModel;
 import com.lge.plugins.metashift.ui.tables.NativeTables;
+import com.lge.plugins.metashift.utils.ManagedExecutor;
 import hudson.FilePath;
 import hudson.Functions;
 import hudson.model.Action;
@@ -25,17 +29,24 @@ import hudson.model.Result;
 import hudson.model.Run;
 import hudson.model.TaskListener;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import io.jenkins.plugins.datatables.AsyncTableContentProvider;
 import io.jenkins.plugins.datatables.TableModel;
 import jenkins.model.RunAction2;
 import jenkins.tasks.SimpleBuildStep.LastBuildAction;
+import jenkins.util.SystemProperties;
 import net.sf.json.JSONArray;
 import org.kohsuke.stapler.Stapler;
 import org.kohsuke.stapler.StaplerRequest2;
@@ -55,28 +66,151 @@ public class BuildAction extends Actionable
 
   private final ProjectReport projectReport;
 
+  /**
+   * Represents whether the recipe actions are resolved on demand instead of being stored.
+   */
+  private static volatile boolean lazyRecipes = SystemProperties.getBoolean(
+      BuildAction.class.getName() + ".lazyRecipes", false);
+
+  /**
+   * Represents the maximum number of the recipes whose reports are built at the same time.
+   */
+  private static volatile int recipeThreads = SystemProperties.getInteger(
+      BuildAction.class.getName() + ".recipeThreads", Runtime.getRuntime().availableProcessors());
+
+  /**
+   * Represents the data source of the reports, null for the builds published before.
+   */
+  private DataSource dataSource;
+
+  /**
+   * Represents the names of the recipes whose actions are resolved on demand, null if the recipe
+   * actions are stored in the build.
+   */
+  private List<String> recipeNames;
+
   /**
    * Default constructor.
    */
   public BuildAction(Run<?, ?> run, TaskListener listener, Configuration configuration,
       DataSource dataSource, FilePath reportRoot, Recipes recipes)
       throws IOException, InterruptedException {
+    this(run, listener, configuration, dataSource, reportRoot, recipes, accumulate(recipes));
+  }
+
+  /**
+   * Default constructor, reusing the accumulated metrics of the recipes.
+   */
+  public BuildAction(Run<?, ?> run, TaskListener listener, Configuration configuration,
+      DataSource dataSource, FilePath reportRoot, Recipes recipes,
+      Map<String, MetricAccumulator> partials) throws IOException, InterruptedException {
     this.run = run;
 
-    this.projectReport = new ProjectReportBuilder(configuration, dataSource).parse(recipes);
+    // the metrics of each recipe are counted once, and the project report combines them
+    this.projectReport = new ProjectReportBuilder(configuration, dataSource).parse(partials);
 
     listener.getLogger().println("[meta-shift-plugin] Publishing the meta-shift results...");
 
-    for (Recipe recipe : recipes) {
-      listener.getLogger().printf("[meta-shift-plugin] -> %s%n", recipe.getName());
-      RecipeAction recipeAction =
-          new RecipeAction(this, configuration, dataSource, reportRoot, recipe);
-      this.addAction(recipeAction);
+    List<RecipeReport> reports = parseRecipes(listener, configuration, dataSource, reportRoot,
+        recipes, partials);
+    if (lazyRecipes) {
+      this.dataSource = dataSource;
+      this.recipeNames = new ArrayList<>();
+      for (Recipe recipe : recipes) {
+        this.recipeNames.add(recipe.getName());
+      }
+    } else {
+      for (int i = 0; i < recipes.size(); i++) {
+        this.addAction(new RecipeAction(this, recipes.get(i).getName(), reports.get(i)));
+      }
     }
 
     listener.getLogger().println("[meta-shift-plugin] Successfully published.");
   }
 
+  /**
+   * Enables or disables resolving the recipe actions on demand from the data source, so that the
+   * recipe actions are not stored in the build.
+   *
+   * @param lazyRecipes true to resolve the recipe actions on demand
+   */
+  public static void setLazyRecipes(boolean lazyRecipes) {
+    BuildAction.lazyRecipes = lazyRecipes;
+  }
+
+  /**
+   * Test if the recipe actions are resolved on demand.
+   *
+   * @return true if resolved on demand
+   */
+  public static boolean isLazyRecipes() {
+    return lazyRecipes;
+  }
+
+  /**
+   * Returns the accumulated metrics of each recipe.
+   *
+   * @param recipes to accumulate
+   * @return accumulated metrics by the recipe name, in order
+   */
+  public static Map<String, MetricAccumulator> accumulate(Recipes recipes) {
+    Map<String, MetricAccumulator> partials = new LinkedHashMap<>();
+    for (Recipe recipe : recipes) {
+      partials.put(recipe.getName(), MetricAccumulator.of(recipe));
+    }
+    return partials;
+  }
+
+  /**
+   * Sets the maximum number of the recipes whose reports are built at the same time.
+   *
+   * @param recipeThreads the number of recipes, 1 to build the reports one after another
+   */
+  public static void setRecipeThreads(int recipeThreads) {
+    BuildAction.recipeThreads = recipeThreads;
+  }
+
+  /**
+   * Returns the maximum number of the recipes whose reports are built at the same time.
+   *
+   * @return the number of recipes
+   */
+  public static int getRecipeThreads() {
+    return recipeThreads;
+  }
+
+  /**
+   * Builds the reports of the recipes on the shared executor, and prints the progress in the
+   * order of the recipes regardless of the order in which the reports are completed.
+   *
+   * @return the reports in the order of the recipes
+   */
+  private static List<RecipeReport> parseRecipes(TaskListener listener,
+      Configuration configuration, DataSource dataSource, FilePath reportRoot, Recipes recipes,
+      Map<String, MetricAccumulator> partials) throws IOException, InterruptedException {
+    RecipeReportBuilder builder = new RecipeReportBuilder(configuration, dataSource, reportRoot);
+    RecipeReport[] reports = new RecipeReport[recipes.size()];
+    AtomicInteger next = new AtomicInteger();
+    int[] printed = new int[1];
+    Callable<Void> worker = () -> {
+      for (int i = next.getAndIncrement(); i < reports.length; i = next.getAndIncrement()) {
+        Recipe recipe = recipes.get(i);
+        RecipeReport report = builder.parse(recipe, partials.get(recipe.getName()));
+        synchronized (reports) {
+          reports[i] = report;
+          while (printed[0] < reports.length && reports[printed[0]] != null) {
+            listener.getLogger().printf("[meta-shift-plugin] -> %s%n",
+                recipes.get(printed[0]++).getName());
+          }
+        }
+      }
+      return null;
+    };
+    int threads = Math.max(1, Math.min(recipeThreads, reports.length));
+    ManagedExecutor.getInstance().invokeAll(Collections.nCopies(threads, worker));
+    return Arrays.asList(reports);
+  }
+
   @Override
   public String getIconFileName() {
     return "/plugin/meta-shift/img/meta_shift_first.png";
@@ -207,7 +341,7 @@ public class BuildAction extends Actionable
     headerCodeQuality.type = MenuItemType.HEADER;
     menu.add(headerCodeQuality);
     // TODO: RecipeAction::getDisplayName may return null.
-    List<RecipeAction> actions = this.getActions(RecipeAction.class).stream()
+    List<RecipeAction> actions = this.getRecipes().stream()
         .sorted(Comparator.comparing(RecipeAction::getDisplayName)).collect(Collectors.toList());
 
     for (Action a : actions) {
@@ -229,12 +363,55 @@ public class BuildAction extends Actionable
    */
   public List<RecipeAction> getRecipes() {
     if (this.recipeActions == null) {
-      this.recipeActions = this.getActions(RecipeAction.class);
+      if (this.recipeNames == null) {
+        this.recipeActions = super.getActions(RecipeAction.class);
+      } else {
+        this.recipeActions = this.recipeNames.stream()
+            .map(name -> new RecipeAction(this, name, new RecipeReport(dataSource, name)))
+            .collect(Collectors.toList());
+      }
     }
 
     return this.recipeActions;
   }
 
+  /**
+   * Returns the actions of the type, including the recipe actions resolved on demand.
+   */
+  @Override
+  public <T extends Action> List<T> getActions(Class<T> type) {
+    List<T> actions = new ArrayList<>(super.getActions(type));
+    if (this.recipeNames != null && type.isAssignableFrom(RecipeAction.class)) {
+      getRecipes().forEach(o -> actions.add(type.cast(o)));
+    }
+    return actions;
+  }
+
+  @Override
+  public <T extends Action> T getAction(Class<T> type) {
+    T action = super.getAction(type);
+    if (action == null && this.recipeNames != null && type.isAssignableFrom(RecipeAction.class)
+        && !getRecipes().isEmpty()) {
+      return type.cast(getRecipes().get(0));
+    }
+    return action;
+  }
+
+  /**
+   * Resolves the recipe actions on demand by the url, or the other actions.
+   */
+  @Override
+  public Object getDynamic(String token, StaplerRequest2 req, StaplerResponse2 rsp) {
+    if (this.recipeNames != null) {
+      for (RecipeAction recipe : getRecipes()) {
+        if (recipe.getUrlName().equals(token)) {
+          return recipe;
+        }
+      }
+    }
+    return super.getDynamic(token, req, rsp);
+  }
+
   @Override
   public TableModel getTableModel(String id) {
     return new EvaluationSummaryTableModel(id, getRecipeSummaries());
@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) 2021 LG Electronics Inc.
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.lge.plugins.metashift.ui.project;
+
+import com.lge.plugins.metashift.utils.JsonUtils;
+import com.lge.plugins.metashift.utils.xml.SimpleXmlParser;
+import hudson.Extension;
+import hudson.model.PeriodicWork;
+
+/**
+ * Evicts the expired objects of the file caches periodically, so that the parsed reports which
+ * are not accessed any more are released without waiting for the next access.
+ *
+ * @author Sung Gon Kim
+ */
+@Extension
+public class FileCacheCleaner extends PeriodicWork {
+
+  @Override
+  public long getRecurrencePeriod() {
+    return MIN;
+  }
+
+  @Override
+  protected void doRun() {
+    SimpleXmlParser.getCache().cleanUp();
+    JsonUtils.getCache().cleanUp();
+  }
+}
@@ -54,39 +54,72 @@ public class MetaShiftProjectAction implements ProminentProjectAction,
   }
 
   /**
-   * Return last successful build action.
+   * Returns the entries of the trend index which are not failed, up to the last successful build,
+   * or null if the job has no trend index.
    */
-  public BuildAction getLastResultBuild() {
-    for (Run<?, ?> b = project.getParent().getLastSuccessfulBuild();
-        b != null; b = b.getPreviousNotFailedBuild()) {
-      if (b.getResult() == Result.FAILURE) {
-        continue;
-      }
-      BuildAction r = b.getAction(BuildAction.class);
-      if (r != null) {
-        return r;
+  private List<TrendIndex.Entry> getTrendEntries() {
+    TrendIndex index = new TrendIndex(project.getParent().getRootDir());
+    if (!index.exists()) {
+      return null;
+    }
+    List<TrendIndex.Entry> entries;
+    try {
+      entries = index.getEntries();
+    } catch (IOException ignored) {
+      return null;
+    }
+    Run<?, ?> last = project.getParent().getLastSuccessfulBuild();
+    List<TrendIndex.Entry> result = new ArrayList<>();
+    for (TrendIndex.Entry entry : entries) {
+      if (last != null && entry.getNumber() <= last.getNumber() && entry.getResult() != null
+          && !Result.FAILURE.toString().equals(entry.getResult())) {
+        result.add(entry);
       }
     }
-    return null;
+    return result;
   }
 
   /**
-   * Return the last successful build number.
+   * Returns the last build which is not failed and has the report.
    */
-  public Integer getLastResultBuildNumber() {
+  private Run<?, ?> getLastResultRun() {
+    List<TrendIndex.Entry> entries = getTrendEntries();
+    if (entries != null) {
+      for (int i = entries.size() - 1; i >= 0; i--) {
+        Run<?, ?> b = project.getParent().getBuildByNumber(entries.get(i).getNumber());
+        if (b != null && b.getAction(BuildAction.class) != null) {
+          return b;
+        }
+      }
+    }
     for (Run<?, ?> b = project.getParent().getLastSuccessfulBuild();
         b != null; b = b.getPreviousNotFailedBuild()) {
       if (b.getResult() == Result.FAILURE) {
         continue;
       }
-      BuildAction r = b.getAction(BuildAction.class);
-      if (r != null) {
-        return b.getNumber();
+      if (b.getAction(BuildAction.class) != null) {
+        return b;
       }
     }
     return null;
   }
 
+  /**
+   * Return last successful build action.
+   */
+  public BuildAction getLastResultBuild() {
+    Run<?, ?> b = getLastResultRun();
+    return b == null ? null : b.getAction(BuildAction.class);
+  }
+
+  /**
+   * Return the last successful build number.
+   */
+  public Integer getLastResultBuildNumber() {
+    Run<?, ?> b = getLastResultRun();
+    return b == null ? null : b.getNumber();
+  }
+
   /**
    * redirect to build action page.
    */
@@ -101,6 +134,8 @@ public class MetaShiftProjectAction implements ProminentProjectAction,
 
   /**
    * Returns the build trend chart model as JSON, consumed by the echarts-api trend chart renderer.
+   * The model is rendered from the trend index of the job, or from the builds if the job has no
+   * index yet.
    *
    * @param configuration trend configuration (number of builds to consider) as JSON
    * @return the {@link edu.hm.hafner.echarts.line.LinesChartModel} serialized to JSON
@@ -111,6 +146,12 @@ public class MetaShiftProjectAction implements ProminentProjectAction,
     ChartModelConfiguration config = ChartModelConfiguration.fromJson(configuration);
     int maxBuilds = config.isBuildCountDefined() ? config.getBuildCount() : MAX_TREND_CHART_SERIES;
 
+    List<TrendIndex.Entry> entries = getTrendEntries();
+    if (entries != null) {
+      return new JacksonFacade().toJson(TrendChartModel.create(
+          entries.subList(Math.max(0, entries.size() - maxBuilds), entries.size())));
+    }
+
     List<String> buildNames = new ArrayList<>();
     List<Integer> buildNumbers = new ArrayList<>();
     List<ProjectReport> reports = new ArrayList<>();
@@ -6,12 +6,17 @@
 package com.lge.plugins.metashift.ui.project;
 
 import com.lge.plugins.metashift.analysis.BuildStatusResolver;
+import com.lge.plugins.metashift.analysis.MetricAccumulator;
 import com.lge.plugins.metashift.models.Configuration;
 import com.lge.plugins.metashift.models.Recipes;
 import com.lge.plugins.metashift.parsers.FileParser;
 import com.lge.plugins.metashift.persistence.DataSource;
+import com.lge.plugins.metashift.persistence.SharedStore;
 import com.lge.plugins.metashift.ui.build.BuildAction;
+import com.lge.plugins.metashift.ui.recipe.RecipeAction;
 import com.lge.plugins.metashift.utils.ExecutorServiceUtils;
+import com.lge.plugins.metashift.utils.JsonUtils;
+import com.lge.plugins.metashift.utils.xml.SimpleXmlParser;
 import hudson.AbortException;
 import hudson.EnvVars;
 import hudson.Extension;
@@ -26,11 +31,17 @@ import hudson.tasks.BuildStepDescriptor;
 import hudson.tasks.Publisher;
 import hudson.tasks.Recorder;
 import hudson.util.FormValidation;
+import java.io.File;
 import java.io.IOException;
 import java.io.PrintStream;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.stream.Collectors;
 import jenkins.tasks.SimpleBuildStep;
 import net.sf.json.JSONObject;
 import org.apache.commons.lang.time.DurationFormatUtils;
@@ -157,18 +168,98 @@ public class MetaShiftPublisher extends Recorder implements SimpleBuildStep {
     return DurationFormatUtils.formatDuration(millis, "HH:mm:ss.S");
   }
 
+  /**
+   * Appends the ratios of the build to the trend index and the recipe series of the job, creating
+   * them from the latest previous builds shown in the trend chart at the first publish.
+   */
+  private void updateTrendIndex(Run<?, ?> run, TaskListener listener, BuildAction buildAction) {
+    File directory = run.getParent().getRootDir();
+    TrendIndex index = new TrendIndex(directory);
+    try {
+      if (!index.exists()) {
+        List<TrendIndex.Entry> entries = new ArrayList<>();
+        for (Run<?, ?> b = run.getPreviousNotFailedBuild();
+            b != null && entries.size() < MetaShiftProjectAction.MAX_TREND_CHART_SERIES;
+            b = b.getPreviousNotFailedBuild()) {
+          BuildAction action = b.getAction(BuildAction.class);
+          if (action != null && action.getReport() != null) {
+            Result result = b.getResult();
+            entries.add(0, TrendIndex.Entry.of(b.getNumber(), b.getDisplayName(),
+                action.getReport()).withResult(result == null ? null : result.toString()));
+          }
+        }
+        index.create(entries);
+      }
+      index.put(TrendIndex.Entry.of(run.getNumber(), run.getDisplayName(),
+          buildAction.getReport()));
+      Set<Integer> live = index.getNumbers();
+      seedRecipeTrends(directory, run, buildAction, live);
+      updateRecipeTrends(directory, run, buildAction, live);
+    } catch (IOException e) {
+      listener.getLogger().printf("[meta-shift-plugin] Failed to update the trend index: %s%n",
+          e.getMessage());
+    }
+  }
+
+  /**
+   * Creates the series of the recipes which have no series yet from the latest previous builds
+   * shown in the trend chart, as the series are added after the trend index of the job.
+   */
+  private void seedRecipeTrends(File directory, Run<?, ?> run, BuildAction buildAction,
+      Set<Integer> live) throws IOException {
+    Set<String> missing = buildAction.getRecipes().stream().map(RecipeAction::getName)
+        .filter(name -> !new RecipeTrend(directory, name).exists())
+        .collect(Collectors.toSet());
+    if (missing.isEmpty()) {
+      return;
+    }
+    int count = 0;
+    for (Run<?, ?> b = run.getPreviousNotFailedBuild();
+        b != null && count < MetaShiftProjectAction.MAX_TREND_CHART_SERIES;
+        b = b.getPreviousNotFailedBuild()) {
+      BuildAction action = b.getAction(BuildAction.class);
+      if (action == null || action.getReport() == null) {
+        continue;
+      }
+      count++;
+      for (RecipeAction recipe : action.getRecipes()) {
+        if (missing.contains(recipe.getName())) {
+          new RecipeTrend(directory, recipe.getName()).put(
+              RecipeTrend.Point.of(b.getNumber(), b.getDisplayName(), recipe.getReport()), live);
+        }
+      }
+    }
+  }
+
+  private void updateRecipeTrends(File directory, Run<?, ?> run, BuildAction action,
+      Set<Integer> live) throws IOException {
+    for (RecipeAction recipe : action.getRecipes()) {
+      new RecipeTrend(directory, recipe.getName()).put(
+          RecipeTrend.Point.of(run.getNumber(), run.getDisplayName(), recipe.getReport()), live);
+    }
+  }
+
   private Callable<Void> publishReport(Run<?, ?> run, TaskListener listener,
       Configuration configuration, FilePath reportPath, Recipes recipes) {
     return () -> {
       FilePath buildPath = new FilePath(run.getRootDir());
-      DataSource dataSource = new DataSource(new FilePath(buildPath, "meta-shift-report"));
+      FilePath storagePath = new FilePath(buildPath, "meta-shift-report");
+      DataSource dataSource;
+      if (SharedStore.isEnabled()) {
+        FilePath jobPath = new FilePath(run.getParent().getRootDir());
+        dataSource = new DataSource(storagePath, new FilePath(jobPath, SharedStore.DIRECTORY));
+      } else {
+        dataSource = new DataSource(storagePath);
+      }
 
+      Map<String, MetricAccumulator> partials = BuildAction.accumulate(recipes);
       BuildAction buildAction = new BuildAction(
-          run, listener, configuration, dataSource, reportPath, recipes);
+          run, listener, configuration, dataSource, reportPath, recipes, partials);
       run.addAction(buildAction);
+      updateTrendIndex(run, listener, buildAction);
 
       BuildStatusResolver buildStatus = new BuildStatusResolver(configuration);
-      buildStatus.parse(recipes);
+      buildStatus.parse(MetricAccumulator.merge(partials.values()));
       Result buildResult = buildStatus.getCombined();
 
       Result runResult = run.getResult() == null ? Result.SUCCESS : run.getResult();
@@ -227,6 +318,10 @@ public class MetaShiftPublisher extends Recorder implements SimpleBuildStep {
       throw new AbortException(e.toString());
     } catch (InterruptedException ignored) {
       run.setResult(Result.ABORTED);
+    } finally {
+      // release the parsed reports of this build only, as other jobs may be publishing
+      SimpleXmlParser.getCache().invalidate(reportPath);
+      JsonUtils.getCache().invalidate(reportPath);
     }
   }
 }
@@ -0,0 +1,301 @@
+/*
+ * Copyright (c) 2021 LG Electronics Inc.
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.lge.plugins.metashift.ui.project;
+
+import com.lge.plugins.metashift.builders.RecipeReport;
+import edu.hm.hafner.echarts.ChartModelConfiguration;
+import edu.hm.hafner.echarts.JacksonFacade;
+import java.io.File;
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import net.sf.json.JSONArray;
+import net.sf.json.JSONException;
+import net.sf.json.JSONNull;
+import net.sf.json.JSONObject;
+
+/**
+ * Provides the time series of a recipe, which keeps the evaluation ratios and the distributions
+ * of the metrics of each build.
+ *
+ * <p>The series of each recipe is a file of JSON lines in the recipe directory of the job, which
+ * is appended when a build is published, so that the trend of a recipe is read in a single pass
+ * without loading the builds. The builds are filtered by the trend index of the job, which keeps
+ * the results and the deletions of the builds, and the lines of the deleted builds are dropped
+ * once they take most of the file. Each file is locked on its own, so that the series of other
+ * recipes and jobs are written at the same time.</p>
+ *
+ * @author Sung Gon Kim
+ */
+public final class RecipeTrend {
+
+  /**
+   * Represents the name of the recipe directory in the job directory.
+   */
+  static final String DIRECTORY = "meta-shift-recipes";
+
+  /**
+   * Represents the names of the metrics in the order of {@link TrendIndex#METRICS}.
+   */
+  private static final List<String> NAMES = List.of(
+      "unitTests", "statementCoverage", "branchCoverage", "mutationTests");
+
+  /**
+   * Represents the states of the series files, which are the locks of the files as well.
+   */
+  private static final Map<File, Series> SERIES = new ConcurrentHashMap<>();
+
+  /**
+   * State of a series file.
+   */
+  private static final class Series {
+
+    /**
+     * Represents the number of lines in the file, or -1 if not counted yet.
+     */
+    private int lines = -1;
+  }
+
+  /**
+   * Point of the time series.
+   */
+  static final class Point {
+
+    /**
+     * Represents the ratios of the build.
+     */
+    private final TrendIndex.Entry entry;
+
+    /**
+     * Represents the distributions of the metrics.
+     */
+    private final List<JSONObject> distributions;
+
+    /**
+     * Default constructor.
+     *
+     * @param entry         of the ratios
+     * @param distributions of the metrics
+     */
+    Point(TrendIndex.Entry entry, List<JSONObject> distributions) {
+      this.entry = entry;
+      this.distributions = distributions;
+    }
+
+    /**
+     * Creates the point of the recipe report.
+     *
+     * @param number      of the build
+     * @param displayName of the build
+     * @param report      of the recipe
+     * @return point object
+     */
+    static Point of(int number, String displayName, RecipeReport report) {
+      List<JSONObject> distributions = TrendIndex.METRICS.stream()
+          .map(metric -> metric.apply(report).getDistribution())
+          .collect(Collectors.toList());
+      return new Point(TrendIndex.Entry.of(number, displayName, report), distributions);
+    }
+
+    TrendIndex.Entry getEntry() {
+      return entry;
+    }
+
+    JSONObject getDistribution(int index) {
+      return distributions.get(index);
+    }
+
+    JSONObject toJson() {
+      JSONObject object = new JSONObject();
+      object.put("number", entry.getNumber());
+      object.put("displayName", entry.getDisplayName());
+      for (int i = 0; i < NAMES.size(); i++) {
+        double ratio = entry.getRatio(i);
+        JSONObject metric = new JSONObject();
+        metric.put("ratio", Double.isNaN(ratio) ? JSONNull.getInstance() : ratio);
+        metric.put("distribution", distributions.get(i));
+        object.put(NAMES.get(i), metric);
+      }
+      return object;
+    }
+
+    static Point fromJson(JSONObject object) {
+      double[] ratios = new double[NAMES.size()];
+      List<JSONObject> distributions = new ArrayList<>();
+      for (int i = 0; i < NAMES.size(); i++) {
+        JSONObject metric = object.getJSONObject(NAMES.get(i));
+        Object ratio = metric.opt("ratio");
+        ratios[i] = (ratio instanceof Number) ? ((Number) ratio).doubleValue() : Double.NaN;
+        distributions.add(metric.optJSONObject("distribution"));
+      }
+      return new Point(new TrendIndex.Entry(object.getInt("number"),
+          object.getString("displayName"), ratios), distributions);
+    }
+  }
+
+  /**
+   * Represents the path to the job directory.
+   */
+  private final File directory;
+
+  /**
+   * Represents the path to the series file.
+   */
+  private final File file;
+
+  /**
+   * Default constructor.
+   *
+   * @param directory of the job
+   * @param recipe    name
+   */
+  public RecipeTrend(File directory, String recipe) {
+    this.directory = directory;
+    try {
+      this.file = new File(new File(directory, DIRECTORY),
+          URLEncoder.encode(recipe, StandardCharsets.UTF_8.name()) + ".log");
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Test if the series file exists.
+   *
+   * @return true if exists, false otherwise
+   */
+  public boolean exists() {
+    return file.exists();
+  }
+
+  /**
+   * Appends the point of the build, dropping the lines of the deleted builds once they take most
+   * of the file. The number of lines is counted once and kept in memory, so that the file is read
+   * again only when the lines are dropped.
+   *
+   * @param point of the build
+   * @param live  numbers of the builds in the trend index, or null if the job has no index
+   * @throws IOException if failed to operate with the series
+   */
+  void put(Point point, Set<Integer> live) throws IOException {
+    Series series = getSeries();
+    synchronized (series) {
+      Files.createDirectories(file.getParentFile().toPath());
+      if (series.lines < 0) {
+        series.lines = file.exists()
+            ? Files.readAllLines(file.toPath(), StandardCharsets.UTF_8).size() : 0;
+      }
+      Files.write(file.toPath(), Collections.singletonList(point.toJson().toString()),
+          StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+      series.lines++;
+      if (live == null || series.lines <= live.size() * 2 + 16) {
+        return;
+      }
+      List<String> kept = new ArrayList<>();
+      for (Point p : parse(Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)).values()) {
+        if (live.contains(p.getEntry().getNumber())) {
+          kept.add(p.toJson().toString());
+        }
+      }
+      File temp = new File(file.getParentFile(), file.getName() + ".tmp");
+      Files.write(temp.toPath(), kept, StandardCharsets.UTF_8);
+      Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+      series.lines = kept.size();
+    }
+  }
+
+  private Series getSeries() {
+    return SERIES.computeIfAbsent(file.getAbsoluteFile(), k -> new Series());
+  }
+
+  /**
+   * Returns the points of the latest builds which are completed and not failed, ordered by the
+   * build number. All the points are returned if the job has no trend index.
+   *
+   * @param maxBuilds the maximum number of the points
+   * @return list of points
+   * @throws IOException if failed to read the series
+   */
+  List<Point> getPoints(int maxBuilds) throws IOException {
+    Map<Integer, Point> points;
+    synchronized (getSeries()) {
+      if (!file.exists()) {
+        return Collections.emptyList();
+      }
+      points = parse(Files.readAllLines(file.toPath(), StandardCharsets.UTF_8));
+    }
+    TrendIndex index = new TrendIndex(directory);
+    if (index.exists()) {
+      Set<Integer> valid = index.getEntries().stream()
+          .filter(e -> e.getResult() != null && !"FAILURE".equals(e.getResult()))
+          .map(TrendIndex.Entry::getNumber).collect(Collectors.toSet());
+      points.keySet().retainAll(valid);
+    }
+    List<Point> list = new ArrayList<>(points.values());
+    return list.subList(Math.max(0, list.size() - maxBuilds), list.size());
+  }
+
+  private static Map<Integer, Point> parse(List<String> lines) {
+    Map<Integer, Point> points = new TreeMap<>();
+    for (String line : lines) {
+      try {
+        Point point = Point.fromJson(JSONObject.fromObject(line));
+        points.put(point.getEntry().getNumber(), point);
+      } catch (JSONException ignored) {
+        // skips the line partially written
+      }
+    }
+    return points;
+  }
+
+  /**
+   * Returns the trend chart model of the recipe as JSON.
+   *
+   * @param configuration trend configuration (number of builds to consider) as JSON
+   * @return the {@link edu.hm.hafner.echarts.line.LinesChartModel} serialized to JSON
+   */
+  public String getTrendModel(String configuration) {
+    ChartModelConfiguration config = ChartModelConfiguration.fromJson(configuration);
+    int maxBuilds = config.isBuildCountDefined() ? config.getBuildCount()
+        : MetaShiftProjectAction.MAX_TREND_CHART_SERIES;
+    List<TrendIndex.Entry> entries;
+    try {
+      entries = getPoints(maxBuilds).stream().map(Point::getEntry).collect(Collectors.toList());
+    } catch (IOException ignored) {
+      entries = Collections.emptyList();
+    }
+    return new JacksonFacade().toJson(TrendChartModel.create(entries));
+  }
+
+  /**
+   * Returns the time series of the recipe as JSON, with the ratio and the distribution of each
+   * metric of the builds.
+   *
+   * @param maxBuilds the maximum number of the builds
+   * @return JSON object
+   * @throws IOException if failed to read the series
+   */
+  public JSONObject toJson(int maxBuilds) throws IOException {
+    JSONArray builds = new JSONArray();
+    for (Point point : getPoints(maxBuilds)) {
+      builds.add(point.toJson());
+    }
+    JSONObject object = new JSONObject();
+    object.put("builds", builds);
+    return object;
+  }
+}
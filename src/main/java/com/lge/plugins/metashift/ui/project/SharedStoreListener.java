@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2021 LG Electronics Inc.
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.lge.plugins.metashift.ui.project;
+
+import com.lge.plugins.metashift.persistence.SharedStore;
+import hudson.Extension;
+import hudson.model.Run;
+import hudson.model.listeners.RunListener;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import jenkins.util.Timer;
+
+/**
+ * Releases the values of the deleted builds from the shared store of the job, and collects the
+ * store in the background, once for the builds deleted together.
+ *
+ * @author Sung Gon Kim
+ */
+@Extension
+public class SharedStoreListener extends RunListener<Run<?, ?>> {
+
+  private static final Logger LOGGER = Logger.getLogger(SharedStoreListener.class.getName());
+
+  /**
+   * Represents the delay in seconds before collecting, so that the builds deleted together are
+   * collected at once.
+   */
+  private static final long COLLECTION_DELAY = 60;
+
+  @Override
+  public void onDeleted(Run<?, ?> run) {
+    File directory = new File(run.getParent().getRootDir(), SharedStore.DIRECTORY);
+    if (!directory.exists()) {
+      return;
+    }
+    try {
+      SharedStore store = SharedStore.open(directory);
+      store.release(new File(run.getRootDir(), "meta-shift-report"));
+      if (store.requestCollection()) {
+        Timer.get().schedule(() -> collect(store, directory), COLLECTION_DELAY, TimeUnit.SECONDS);
+      }
+    } catch (IOException e) {
+      LOGGER.log(Level.WARNING, "Failed to release the shared values of " + run, e);
+    }
+  }
+
+  private static void collect(SharedStore store, File directory) {
+    try {
+      store.collect();
+    } catch (IOException e) {
+      LOGGER.log(Level.WARNING, "Failed to collect the shared store " + directory, e);
+    }
+  }
+}
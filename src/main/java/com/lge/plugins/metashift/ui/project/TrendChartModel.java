@@ -66,18 +66,48 @@ final class TrendChartModel {
       List<ProjectReport> reports) {
     LinesChartModel model = new LinesChartModel(buildNames, buildNumbers);
     for (SeriesDef def : SERIES) {
-      LineSeries series =
-          new LineSeries(def.name, def.color, StackedMode.SEPARATE_LINES, FilledMode.LINES);
       List<Double> data = new ArrayList<>();
       for (ProjectReport report : reports) {
         data.add(percentValue(def.mapper.apply(report)));
       }
-      series.addAll(data);
-      model.addSeries(series);
+      model.addSeries(createSeries(def, data));
     }
     return model;
   }
 
+  /**
+   * Creates a line chart model from the entries of the trend index, ordered oldest build first.
+   * The series follow the order of {@link TrendIndex#METRICS}.
+   *
+   * @param entries of the trend index
+   * @return the trend chart model
+   */
+  static LinesChartModel create(List<TrendIndex.Entry> entries) {
+    List<String> buildNames = new ArrayList<>();
+    List<Integer> buildNumbers = new ArrayList<>();
+    for (TrendIndex.Entry entry : entries) {
+      buildNames.add(entry.getDisplayName());
+      buildNumbers.add(entry.getNumber());
+    }
+    LinesChartModel model = new LinesChartModel(buildNames, buildNumbers);
+    for (int i = 0; i < SERIES.size(); i++) {
+      List<Double> data = new ArrayList<>();
+      for (TrendIndex.Entry entry : entries) {
+        double ratio = entry.getRatio(i);
+        data.add(Double.isNaN(ratio) ? null : (double) TableHtml.percent(ratio));
+      }
+      model.addSeries(createSeries(SERIES.get(i), data));
+    }
+    return model;
+  }
+
+  private static LineSeries createSeries(SeriesDef def, List<Double> data) {
+    LineSeries series =
+        new LineSeries(def.name, def.color, StackedMode.SEPARATE_LINES, FilledMode.LINES);
+    series.addAll(data);
+    return series;
+  }
+
   /**
    * Returns the qualification ratio of a metric in percent, or {@code null} when the metric is not
    * available so the chart renders a gap instead of a zero.
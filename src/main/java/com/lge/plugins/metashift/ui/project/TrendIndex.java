@@ -0,0 +1,375 @@
+/*
+ * Copyright (c) 2021 LG Electronics Inc.
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.lge.plugins.metashift.ui.project;
+
+import com.lge.plugins.metashift.builders.Group;
+import com.lge.plugins.metashift.builders.Report;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import net.sf.json.JSONObject;
+
+/**
+ * Provides the job-level index of the trend, which keeps the ratios of the metrics of each build.
+ *
+ * <p>The index is a log of tab-separated lines in the job directory. The ratios are appended when
+ * a build is published, the result when it is completed, and a removal when it is deleted, so
+ * that the trend chart and the last result are found without loading the builds and their stores.
+ * The later lines of a build override the earlier ones, and the log is rewritten with only the
+ * live lines once it grows much longer than them.</p>
+ *
+ * @author Sung Gon Kim
+ */
+final class TrendIndex {
+
+  /**
+   * Represents the name of the index file in the job directory.
+   */
+  static final String FILE = "meta-shift-trend.log";
+
+  private static final String PUT = "P";
+  private static final String RESULT = "R";
+  private static final String DELETE = "D";
+  private static final String UNAVAILABLE = "-";
+
+  /**
+   * Represents the metric groups of the ratios, in the order of the trend series.
+   */
+  static final List<Function<Report<? extends Group>, Group>> METRICS = List.of(
+      Report::getUnitTests, Report::getStatementCoverage,
+      Report::getBranchCoverage, Report::getMutationTests);
+
+  /**
+   * Represents the states of the index files, which are the locks of the files as well.
+   */
+  private static final Map<File, State> STATES = new ConcurrentHashMap<>();
+
+  /**
+   * State of an index file.
+   */
+  private static final class State {
+
+    /**
+     * Represents the numbers of the builds in the index, or null if not loaded yet.
+     */
+    private Set<Integer> numbers;
+
+    /**
+     * Represents the number of lines in the file.
+     */
+    private int lines;
+  }
+
+  /**
+   * Trend entry of a build.
+   */
+  static final class Entry {
+
+    /**
+     * Represents the build number.
+     */
+    private final int number;
+
+    /**
+     * Represents the display name of the build.
+     */
+    private final String displayName;
+
+    /**
+     * Represents the ratios of the metrics, or NaN if not available.
+     */
+    private final double[] ratios;
+
+    /**
+     * Represents the result of the build, or null if not completed.
+     */
+    private String result;
+
+    /**
+     * Default constructor.
+     *
+     * @param number      of the build
+     * @param displayName of the build
+     * @param ratios      of the metrics
+     */
+    Entry(int number, String displayName, double[] ratios) {
+      this.number = number;
+      this.displayName = displayName;
+      this.ratios = ratios;
+    }
+
+    /**
+     * Creates the entry of the project or recipe report.
+     *
+     * @param number      of the build
+     * @param displayName of the build
+     * @param report      of the build
+     * @return entry object
+     */
+    static Entry of(int number, String displayName, Report<? extends Group> report) {
+      double[] ratios = new double[METRICS.size()];
+      for (int i = 0; i < ratios.length; i++) {
+        JSONObject evaluation = METRICS.get(i).apply(report).getEvaluation();
+        ratios[i] = (evaluation != null && evaluation.optBoolean("available", false))
+            ? evaluation.getDouble("ratio") : Double.NaN;
+      }
+      return new Entry(number, displayName, ratios);
+    }
+
+    int getNumber() {
+      return number;
+    }
+
+    String getDisplayName() {
+      return displayName;
+    }
+
+    /**
+     * Returns the ratio of the metric.
+     *
+     * @param index of the metric in {@link #METRICS}
+     * @return ratio, or NaN if not available
+     */
+    double getRatio(int index) {
+      return ratios[index];
+    }
+
+    String getResult() {
+      return result;
+    }
+
+    /**
+     * Sets the result of the build.
+     *
+     * @param result of the build, or null if not completed
+     * @return this entry
+     */
+    Entry withResult(String result) {
+      this.result = result;
+      return this;
+    }
+  }
+
+  /**
+   * Represents the path to the index file.
+   */
+  private final File file;
+
+  /**
+   * Default constructor.
+   *
+   * @param directory of the job
+   */
+  TrendIndex(File directory) {
+    this.file = new File(directory, FILE);
+  }
+
+  /**
+   * Test if the index file exists.
+   *
+   * @return true if exists, false otherwise
+   */
+  boolean exists() {
+    return file.exists();
+  }
+
+  /**
+   * Appends the ratios of the build.
+   *
+   * @param entry of the build
+   * @throws IOException if failed to write the index
+   */
+  void put(Entry entry) throws IOException {
+    State state = getState();
+    synchronized (state) {
+      load(state);
+      append(state, format(entry));
+      state.numbers.add(entry.number);
+    }
+  }
+
+  private static String format(Entry entry) {
+    List<String> fields = new ArrayList<>();
+    fields.add(PUT);
+    fields.add(String.valueOf(entry.number));
+    for (double ratio : entry.ratios) {
+      fields.add(Double.isNaN(ratio) ? UNAVAILABLE : String.valueOf(ratio));
+    }
+    fields.add(entry.displayName.replaceAll("[\\t\\r\\n]", " "));
+    return String.join("\t", fields);
+  }
+
+  /**
+   * Creates the index with the entries of the previous builds, unless it already exists.
+   *
+   * @param entries of the builds, ordered by the build number
+   * @throws IOException if failed to write the index
+   */
+  void create(List<Entry> entries) throws IOException {
+    State state = getState();
+    synchronized (state) {
+      if (!file.exists()) {
+        Map<Integer, Entry> map = new TreeMap<>();
+        entries.forEach(entry -> map.put(entry.number, entry));
+        rewrite(state, map);
+      }
+    }
+  }
+
+  /**
+   * Appends the result of the build, if the build is in the index. The numbers of the builds are
+   * kept in memory, so that the index is not parsed at every build.
+   *
+   * @param number of the build
+   * @param result of the build
+   * @throws IOException if failed to operate with the index
+   */
+  void setResult(int number, String result) throws IOException {
+    State state = getState();
+    synchronized (state) {
+      if (load(state).contains(number)) {
+        append(state, String.join("\t", RESULT, String.valueOf(number), result));
+      }
+    }
+  }
+
+  /**
+   * Removes the build from the index, rewriting the index if mostly overridden.
+   *
+   * @param number of the build
+   * @throws IOException if failed to operate with the index
+   */
+  void remove(int number) throws IOException {
+    State state = getState();
+    synchronized (state) {
+      if (!file.exists()) {
+        return;
+      }
+      load(state);
+      append(state, String.join("\t", DELETE, String.valueOf(number)));
+      state.numbers.remove(number);
+      if (state.lines > state.numbers.size() * 3 + 16) {
+        rewrite(state, parse(Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)));
+      }
+    }
+  }
+
+  /**
+   * Returns the entries of the builds, ordered by the build number.
+   *
+   * @return list of entries
+   * @throws IOException if failed to read the index
+   */
+  List<Entry> getEntries() throws IOException {
+    State state = getState();
+    synchronized (state) {
+      if (!file.exists()) {
+        return new ArrayList<>();
+      }
+      List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+      Map<Integer, Entry> entries = parse(lines);
+      state.numbers = new HashSet<>(entries.keySet());
+      state.lines = lines.size();
+      return new ArrayList<>(entries.values());
+    }
+  }
+
+  /**
+   * Returns the numbers of the builds in the index, without parsing the index once loaded.
+   *
+   * @return set of the build numbers
+   * @throws IOException if failed to read the index
+   */
+  Set<Integer> getNumbers() throws IOException {
+    State state = getState();
+    synchronized (state) {
+      return new HashSet<>(load(state));
+    }
+  }
+
+  private State getState() {
+    return STATES.computeIfAbsent(file.getAbsoluteFile(), k -> new State());
+  }
+
+  /**
+   * Loads the numbers of the builds into the state unless loaded, or resets them if the index
+   * file does not exist anymore.
+   *
+   * @param state of the index file
+   * @return the numbers of the builds
+   * @throws IOException if failed to read the index
+   */
+  private Set<Integer> load(State state) throws IOException {
+    if (!file.exists()) {
+      state.numbers = new HashSet<>();
+      state.lines = 0;
+    } else if (state.numbers == null) {
+      List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+      state.numbers = new HashSet<>(parse(lines).keySet());
+      state.lines = lines.size();
+    }
+    return state.numbers;
+  }
+
+  private void append(State state, String line) throws IOException {
+    Files.write(file.toPath(), Collections.singletonList(line), StandardCharsets.UTF_8,
+        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    state.lines++;
+  }
+
+  private static Map<Integer, Entry> parse(List<String> lines) {
+    Map<Integer, Entry> entries = new TreeMap<>();
+    for (String line : lines) {
+      String[] fields = line.split("\t", -1);
+      try {
+        int number = Integer.parseInt(fields[1]);
+        if (PUT.equals(fields[0]) && fields.length == METRICS.size() + 3) {
+          double[] ratios = new double[METRICS.size()];
+          for (int i = 0; i < ratios.length; i++) {
+            String value = fields[i + 2];
+            ratios[i] = UNAVAILABLE.equals(value) ? Double.NaN : Double.parseDouble(value);
+          }
+          entries.put(number, new Entry(number, fields[fields.length - 1], ratios));
+        } else if (RESULT.equals(fields[0]) && fields.length == 3 && entries.containsKey(number)) {
+          entries.get(number).result = fields[2];
+        } else if (DELETE.equals(fields[0])) {
+          entries.remove(number);
+        }
+      } catch (ArrayIndexOutOfBoundsException | NumberFormatException ignored) {
+        // skips the line partially written
+      }
+    }
+    return entries;
+  }
+
+  private void rewrite(State state, Map<Integer, Entry> entries) throws IOException {
+    File temp = new File(file.getParentFile(), FILE + ".tmp");
+    Files.deleteIfExists(temp.toPath());
+    List<String> lines = new ArrayList<>();
+    for (Entry entry : entries.values()) {
+      lines.add(format(entry));
+      if (entry.result != null) {
+        lines.add(String.join("\t", RESULT, String.valueOf(entry.number), entry.result));
+      }
+    }
+    Files.write(temp.toPath(), lines, StandardCharsets.UTF_8);
+    Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    state.numbers = new HashSet<>(entries.keySet());
+    state.lines = lines.size();
+  }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2021 LG Electronics Inc.
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.lge.plugins.metashift.ui.project;
+
+import hudson.Extension;
+import hudson.model.Result;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.model.listeners.RunListener;
+import java.io.IOException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Records the results of the completed builds and removes the deleted builds in the trend index.
+ *
+ * @author Sung Gon Kim
+ */
+@Extension
+public class TrendIndexListener extends RunListener<Run<?, ?>> {
+
+  private static final Logger LOGGER = Logger.getLogger(TrendIndexListener.class.getName());
+
+  @Override
+  public void onCompleted(Run<?, ?> run, TaskListener listener) {
+    TrendIndex index = new TrendIndex(run.getParent().getRootDir());
+    Result result = run.getResult();
+    if (!index.exists() || result == null) {
+      return;
+    }
+    try {
+      index.setResult(run.getNumber(), result.toString());
+    } catch (IOException e) {
+      LOGGER.log(Level.WARNING, "Failed to record the result of " + run, e);
+    }
+  }
+
+  @Override
+  public void onDeleted(Run<?, ?> run) {
+    TrendIndex index = new TrendIndex(run.getParent().getRootDir());
+    if (!index.exists()) {
+      return;
+    }
+    try {
+      index.remove(run.getNumber());
+    } catch (IOException e) {
+      LOGGER.log(Level.WARNING, "Failed to remove " + run + " from the trend index", e);
+    }
+  }
+}
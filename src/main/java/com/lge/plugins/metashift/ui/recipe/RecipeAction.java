@@ -5,6 +5,7 @@
 
 package com.lge.plugins.metashift.ui.recipe;
 
+import com.lge.plugins.metashift.analysis.MetricAccumulator;
 import com.lge.plugins.metashift.builders.RecipeGroup;
 import com.lge.plugins.metashift.builders.RecipeReport;
 import com.lge.plugins.metashift.builders.RecipeReportBuilder;
@@ -13,6 +14,7 @@ import com.lge.plugins.metashift.models.Recipe;
 import com.lge.plugins.metashift.persistence.DataSource;
 import com.lge.plugins.metashift.ui.MetricView;
 import com.lge.plugins.metashift.ui.build.BuildAction;
+import com.lge.plugins.metashift.ui.project.RecipeTrend;
 import com.lge.plugins.metashift.ui.tables.FileSummaryTableModel;
 import com.lge.plugins.metashift.ui.tables.NativeTables;
 import com.lge.plugins.metashift.ui.tables.TestListTableModel;
@@ -21,6 +23,7 @@ import hudson.model.Action;
 import hudson.model.Run;
 import io.jenkins.plugins.datatables.AsyncTableContentProvider;
 import io.jenkins.plugins.datatables.TableModel;
+import io.jenkins.plugins.echarts.AsyncConfigurableTrendChart;
 import jakarta.servlet.ServletException;
 import java.io.IOException;
 import java.util.HashMap;
@@ -43,7 +46,8 @@ import org.kohsuke.stapler.export.ExportedBean;
  * source page of each file.
  */
 @ExportedBean
-public class RecipeAction implements Action, AsyncTableContentProvider {
+public class RecipeAction implements Action, AsyncTableContentProvider,
+    AsyncConfigurableTrendChart {
 
   BuildAction parent;
 
@@ -57,11 +61,29 @@ public class RecipeAction implements Action, AsyncTableContentProvider {
    */
   public RecipeAction(BuildAction parent, Configuration configuration, DataSource dataSource,
       FilePath reportRoot, Recipe recipe) throws IOException, InterruptedException {
+    this(parent, configuration, dataSource, reportRoot, recipe, MetricAccumulator.of(recipe));
+  }
+
+  /**
+   * Default constructor, reusing the accumulated metrics of the recipe.
+   */
+  public RecipeAction(BuildAction parent, Configuration configuration, DataSource dataSource,
+      FilePath reportRoot, Recipe recipe, MetricAccumulator accumulator)
+      throws IOException, InterruptedException {
     this.name = recipe.getName();
     this.parent = parent;
 
-    this.recipeReport =
-        new RecipeReportBuilder(configuration, dataSource, reportRoot).parse(recipe);
+    this.recipeReport = new RecipeReportBuilder(configuration, dataSource, reportRoot)
+        .parse(recipe, accumulator);
+  }
+
+  /**
+   * Creates the action of the recipe report which is already stored in the data source.
+   */
+  public RecipeAction(BuildAction parent, String name, RecipeReport recipeReport) {
+    this.name = name;
+    this.parent = parent;
+    this.recipeReport = recipeReport;
   }
 
   public BuildAction getParentAction() {
@@ -179,8 +201,7 @@ public class RecipeAction implements Action, AsyncTableContentProvider {
 
   private RecipeReport getPreviousReport() {
     if (getParentAction().getPreviousBuildAction() != null) {
-      List<RecipeAction> recipes =
-          getParentAction().getPreviousBuildAction().getActions(RecipeAction.class);
+      List<RecipeAction> recipes = getParentAction().getPreviousBuildAction().getRecipes();
       RecipeAction prevRecipe = recipes.stream()
           .filter(o -> o.name.equals(this.name)).findFirst().orElse(null);
       if (prevRecipe != null) {
@@ -258,6 +279,46 @@ public class RecipeAction implements Action, AsyncTableContentProvider {
         report.getMutationTests().getObjects(file));
   }
 
+  /**
+   * Returns the time series of this recipe, which is kept in the job directory.
+   *
+   * @return recipe trend
+   */
+  public RecipeTrend getTrend() {
+    return new RecipeTrend(getRun().getParent().getRootDir(), this.name);
+  }
+
+  @JavaScriptMethod
+  @Override
+  public String getConfigurableBuildTrendModel(String configuration) {
+    return getTrend().getTrendModel(configuration);
+  }
+
+  @Override
+  public boolean isTrendVisible() {
+    return getTrend().exists();
+  }
+
+  /**
+   * Serves the time series of this recipe as JSON. The number of builds is given by the optional
+   * builds parameter.
+   */
+  public void doTrend(StaplerRequest2 req, StaplerResponse2 res) throws IOException {
+    int maxBuilds = Integer.MAX_VALUE;
+    String builds = req.getParameter("builds");
+    if (builds != null) {
+      try {
+        maxBuilds = Math.max(0, Integer.parseInt(builds));
+      } catch (NumberFormatException ignored) {
+        // returns all the builds
+      }
+    }
+    JSONObject trend = getTrend().toJson(maxBuilds);
+    trend.put("recipe", this.name);
+    res.setContentType("application/json;charset=UTF-8");
+    res.getWriter().print(trend.toString());
+  }
+
   /**
    * Renders the per-file annotated source page.
    */
@@ -8,9 +8,6 @@ package com.lge.plugins.metashift.utils;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 
 /**
@@ -40,7 +37,7 @@ public class ExecutorServiceUtils {
   }
 
   /**
-   * Invokes all the tasks.
+   * Invokes all the tasks on the shared executor.
    *
    * @param tasks to invoke
    * @throws IOException          if failed to operate with files
@@ -48,25 +45,24 @@ public class ExecutorServiceUtils {
    */
   @SafeVarargs
   public static void invokeAll(Callable<Void>... tasks) throws IOException, InterruptedException {
-    try {
-      ExecutorService executor = Executors.newSingleThreadExecutor();
-      for (Future<Void> future : executor.invokeAll(Arrays.asList(tasks))) {
-        future.get();
-      }
-    } catch (ExecutionException e) {
-      Throwable cause = e.getCause();
-      if (cause instanceof IllegalArgumentException) {
-        throw (IllegalArgumentException) cause;
-      }
-      if (cause instanceof IOException) {
-        throw (IOException) cause;
-      }
-      throw new RuntimeException("Unknown exception: " + cause.getMessage(), cause);
-    }
+    ManagedExecutor.getInstance().invokeAll(Arrays.asList(tasks));
   }
 
   /**
-   * Invokes the task.
+   * Waits for the task of the shared executor to complete and returns its result.
+   *
+   * @param future of the task
+   * @param <T>    result type
+   * @return result of the task
+   * @throws IOException          if failed to operate with files
+   * @throws InterruptedException if an interruption occurs
+   */
+  public static <T> T get(Future<T> future) throws IOException, InterruptedException {
+    return ManagedExecutor.getInstance().get(future);
+  }
+
+  /**
+   * Invokes the task on the shared executor.
    *
    * @param task to invoke
    * @throws IOException          if failed to operate with files
@@ -0,0 +1,456 @@
+/*
+ * Copyright (c) 2021 LG Electronics Inc.
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.lge.plugins.metashift.utils;
+
+import hudson.FilePath;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.SoftReference;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.CloseShieldInputStream;
+
+/**
+ * A thread-safe cache of the objects created from files.
+ *
+ * <p>The objects are keyed by the path, the size and the last modified time of the file, so that
+ * a cache hit does not read the file at all. When the content hash is enabled, the hash is
+ * computed while the file is loaded, and files with identical contents share the same object.
+ * Either way, each file is read only once.</p>
+ *
+ * <p>The cache is bounded by the number of files and by the estimated weight of the objects,
+ * which is the size of the file multiplied by the weight ratio. The objects are held by soft
+ * references, so that the garbage collector can reclaim them under memory pressure, and are
+ * evicted when not used for the expiry time, either on access or by {@link #cleanUp()}. The
+ * objects of a directory can be evicted at once when its files are no longer needed.</p>
+ *
+ * @param <V> object type
+ * @author Sung Gon Kim
+ */
+public class FileCache<V> {
+
+  /**
+   * Loader interface which creates an object from the stream.
+   *
+   * @param <V> object type
+   * @param <E> exception type
+   */
+  @FunctionalInterface
+  public interface Loader<V, E extends Exception> {
+
+    /**
+     * Creates an object from the stream.
+     *
+     * @param stream of the file
+     * @return object
+     * @throws IOException if failed to read the stream
+     * @throws E           if failed to create the object
+     */
+    V load(InputStream stream) throws IOException, E;
+  }
+
+  /**
+   * A cache entry.
+   *
+   * @param <V> object type
+   */
+  private static final class Entry<V> {
+
+    /**
+     * Represents the path to the file.
+     */
+    private final String path;
+
+    /**
+     * Represents the object.
+     */
+    private final SoftReference<V> reference;
+
+    /**
+     * Represents the estimated weight of the object.
+     */
+    private final long weight;
+
+    /**
+     * Represents the content hash, nullable.
+     */
+    private final String checksum;
+
+    /**
+     * Represents the last access time in milliseconds.
+     */
+    private long accessed;
+
+    /**
+     * Default constructor.
+     *
+     * @param path     to the file
+     * @param object   to cache
+     * @param weight   of the object
+     * @param checksum of the contents, nullable
+     * @param accessed time in milliseconds
+     */
+    Entry(String path, V object, long weight, String checksum, long accessed) {
+      this.path = path;
+      this.reference = new SoftReference<>(object);
+      this.weight = weight;
+      this.checksum = checksum;
+      this.accessed = accessed;
+    }
+  }
+
+  /**
+   * Represents the entries keyed by the file metadata, in access order.
+   */
+  private final LinkedHashMap<String, Entry<V>> objects;
+
+  /**
+   * Represents the entries keyed by the content hash.
+   */
+  private final Map<String, Entry<V>> contents;
+
+  /**
+   * Represents the maximum number of files.
+   */
+  private final int capacity;
+
+  /**
+   * Represents the maximum weight of the objects.
+   */
+  private final long maxWeight;
+
+  /**
+   * Represents the estimated weight of an object per byte of the file.
+   */
+  private final int weightRatio;
+
+  /**
+   * Represents the expiry time in milliseconds, or zero not to expire.
+   */
+  private final long expiry;
+
+  /**
+   * Represents whether the cache is enabled.
+   */
+  private boolean enabled;
+
+  /**
+   * Represents whether the content hash is computed.
+   */
+  private boolean contentHash;
+
+  /**
+   * Represents the total weight of the entries.
+   */
+  private long weight;
+
+  /**
+   * Represents the number of cache hits.
+   */
+  private long hitCount;
+
+  /**
+   * Represents the number of cache misses.
+   */
+  private long missCount;
+
+  /**
+   * Represents the number of evicted entries.
+   */
+  private long evictionCount;
+
+  /**
+   * Default constructor.
+   *
+   * @param capacity    of the cache
+   * @param enabled     true to cache the objects
+   * @param contentHash true to share the objects of identical contents
+   */
+  public FileCache(final int capacity, final boolean enabled, final boolean contentHash) {
+    this(capacity, Long.MAX_VALUE, 1, 0, enabled, contentHash);
+  }
+
+  /**
+   * Default constructor.
+   *
+   * @param capacity    of the cache
+   * @param maxWeight   maximum weight of the objects
+   * @param weightRatio estimated weight of an object per byte of the file
+   * @param expiry      time in milliseconds to evict unused objects, zero not to expire
+   * @param enabled     true to cache the objects
+   * @param contentHash true to share the objects of identical contents
+   */
+  public FileCache(final int capacity, final long maxWeight, final int weightRatio,
+      final long expiry, final boolean enabled, final boolean contentHash) {
+    this.objects = new LinkedHashMap<>(16, 0.75f, true);
+    this.contents = new HashMap<>();
+    this.capacity = capacity;
+    this.maxWeight = maxWeight;
+    this.weightRatio = weightRatio;
+    this.expiry = expiry;
+    this.enabled = enabled;
+    this.contentHash = contentHash;
+  }
+
+  /**
+   * Enables or disables the cache, clearing the cached objects.
+   *
+   * @param enabled true to cache the objects
+   */
+  public synchronized void setEnabled(final boolean enabled) {
+    this.enabled = enabled;
+    clear();
+  }
+
+  /**
+   * Enables or disables the content hash.
+   *
+   * @param contentHash true to share the objects of identical contents
+   */
+  public synchronized void setContentHash(final boolean contentHash) {
+    this.contentHash = contentHash;
+  }
+
+  /**
+   * Removes all the cached objects.
+   */
+  public synchronized void clear() {
+    objects.clear();
+    contents.clear();
+    weight = 0;
+  }
+
+  /**
+   * Removes the cached objects of the files in the directory.
+   *
+   * @param directory of the files
+   * @return the number of removed objects
+   */
+  public synchronized int invalidate(final FilePath directory) {
+    String prefix = directory.getRemote();
+    int count = 0;
+    Iterator<Map.Entry<String, Entry<V>>> iterator = objects.entrySet().iterator();
+    while (iterator.hasNext()) {
+      Entry<V> entry = iterator.next().getValue();
+      if (isUnder(prefix, entry.path)) {
+        iterator.remove();
+        release(entry);
+        count++;
+      }
+    }
+    return count;
+  }
+
+  private static boolean isUnder(String directory, String path) {
+    if (!path.startsWith(directory)) {
+      return false;
+    }
+    if (path.length() == directory.length() || directory.endsWith("/")
+        || directory.endsWith("\\")) {
+      return true;
+    }
+    char separator = path.charAt(directory.length());
+    return separator == '/' || separator == '\\';
+  }
+
+  /**
+   * Evicts the objects which are expired or collected by the garbage collector, so that the
+   * objects not accessed any more are released as well.
+   */
+  public synchronized void cleanUp() {
+    expire(System.currentTimeMillis());
+  }
+
+  /**
+   * Returns the number of the cached files.
+   *
+   * @return number of files
+   */
+  public synchronized int size() {
+    return objects.size();
+  }
+
+  /**
+   * Returns the estimated weight of the cached objects.
+   *
+   * @return weight
+   */
+  public synchronized long getWeight() {
+    return weight;
+  }
+
+  /**
+   * Returns the number of cache hits.
+   *
+   * @return hit count
+   */
+  public synchronized long getHitCount() {
+    return hitCount;
+  }
+
+  /**
+   * Returns the number of cache misses.
+   *
+   * @return miss count
+   */
+  public synchronized long getMissCount() {
+    return missCount;
+  }
+
+  /**
+   * Returns the number of entries evicted by the size, weight, expiry or garbage collection.
+   *
+   * @return eviction count
+   */
+  public synchronized long getEvictionCount() {
+    return evictionCount;
+  }
+
+  /**
+   * Returns the object of the file, loading the file if it is not cached.
+   *
+   * @param file   to load
+   * @param loader to create the object
+   * @param <E>    exception type of the loader
+   * @return object
+   * @throws IOException          if failed to read the file
+   * @throws InterruptedException if an interruption occurs
+   * @throws E                    if failed to create the object
+   */
+  public <E extends Exception> V get(final FilePath file, final Loader<V, E> loader)
+      throws IOException, InterruptedException, E {
+    boolean caching;
+    boolean hashing;
+    synchronized (this) {
+      caching = enabled;
+      hashing = contentHash;
+    }
+    if (!caching) {
+      try (InputStream stream = file.read()) {
+        return loader.load(stream);
+      }
+    }
+
+    long length = file.length();
+    String key = file.getRemote() + ":" + length + ":" + file.lastModified();
+    synchronized (this) {
+      long now = System.currentTimeMillis();
+      expire(now);
+      Entry<V> entry = objects.get(key);
+      V object = (entry == null) ? null : entry.reference.get();
+      if (object != null) {
+        entry.accessed = now;
+        hitCount++;
+        return object;
+      }
+      if (entry != null) {
+        remove(key, entry);
+        evictionCount++;
+      }
+      missCount++;
+    }
+
+    V object;
+    String checksum = null;
+    try (InputStream stream = file.read()) {
+      if (hashing) {
+        DigestInputStream digest = new DigestInputStream(stream, newMessageDigest());
+        object = loader.load(new CloseShieldInputStream(digest));
+        IOUtils.skip(digest, Long.MAX_VALUE);
+        checksum = Hex.encodeHexString(digest.getMessageDigest().digest());
+      } else {
+        object = loader.load(stream);
+      }
+    }
+
+    long estimated = (length > Long.MAX_VALUE / weightRatio) ? Long.MAX_VALUE
+        : length * weightRatio;
+    if (estimated > maxWeight) {
+      return object;
+    }
+    synchronized (this) {
+      if (checksum != null) {
+        Entry<V> existing = contents.get(checksum);
+        V shared = (existing == null) ? null : existing.reference.get();
+        if (shared != null) {
+          object = shared;
+        }
+      }
+      Entry<V> previous = objects.get(key);
+      if (previous != null) {
+        remove(key, previous);
+      }
+      Entry<V> entry = new Entry<>(file.getRemote(), object, estimated, checksum,
+          System.currentTimeMillis());
+      objects.put(key, entry);
+      if (checksum != null) {
+        contents.put(checksum, entry);
+      }
+      weight += estimated;
+      evict();
+    }
+    return object;
+  }
+
+  /**
+   * Evicts the least recently used entries to meet the capacity and the maximum weight.
+   */
+  private void evict() {
+    Iterator<Map.Entry<String, Entry<V>>> iterator = objects.entrySet().iterator();
+    while ((objects.size() > capacity || weight > maxWeight) && iterator.hasNext()) {
+      Entry<V> entry = iterator.next().getValue();
+      iterator.remove();
+      release(entry);
+      evictionCount++;
+    }
+  }
+
+  /**
+   * Evicts the entries which are not used for the expiry time, or collected by the garbage
+   * collector.
+   *
+   * @param now current time in milliseconds
+   */
+  private void expire(long now) {
+    Iterator<Map.Entry<String, Entry<V>>> iterator = objects.entrySet().iterator();
+    while (iterator.hasNext()) {
+      Entry<V> entry = iterator.next().getValue();
+      boolean expired = expiry > 0 && now - entry.accessed >= expiry;
+      if (expired || entry.reference.get() == null) {
+        iterator.remove();
+        release(entry);
+        evictionCount++;
+      }
+    }
+  }
+
+  private void remove(String key, Entry<V> entry) {
+    objects.remove(key);
+    release(entry);
+  }
+
+  private void release(Entry<V> entry) {
+    weight -= entry.weight;
+    if (entry.checksum != null && contents.get(entry.checksum) == entry) {
+      contents.remove(entry.checksum);
+    }
+  }
+
+  private static MessageDigest newMessageDigest() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -11,7 +11,7 @@ import hudson.FilePath;
 import java.io.File;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
-import net.sf.json.JSONException;
+import jenkins.util.SystemProperties;
 import net.sf.json.JSONObject;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
@@ -28,10 +28,19 @@ public class JsonUtils {
    */
   public static final Any EMPTY = JsonIterator.deserialize("{}");
 
+  /**
+   * Represents the prefix of the system properties.
+   */
+  private static final String PREFIX = JsonUtils.class.getName();
+
   /**
    * Represents the cache object.
    */
-  private static final LruCache<String, Any> objects = new LruCache<>();
+  private static final FileCache<Any> objects = new FileCache<>(10,
+      SystemProperties.getLong(PREFIX + ".cacheWeight", 16L * 1024 * 1024), 4,
+      SystemProperties.getLong(PREFIX + ".cacheExpiry", 60L * 1000),
+      SystemProperties.getBoolean(PREFIX + ".cache", true),
+      SystemProperties.getBoolean(PREFIX + ".contentHash", true));
 
   /**
    * Creates a Json object using the given file.
@@ -41,21 +50,22 @@ public class JsonUtils {
    * @throws IOException          if a file IO fails
    * @throws InterruptedException if an interruption occurs
    */
-  public static synchronized Any createObject(final FilePath file)
+  public static Any createObject(final FilePath file)
       throws IOException, InterruptedException {
     if (file == null) {
       return JsonUtils.EMPTY;
     }
-    String checksum = file.digest();
-    if (!objects.containsKey(checksum)) {
-      try {
-        String data = IOUtils.toString(file.read(), StandardCharsets.UTF_8);
-        objects.put(checksum, JsonIterator.deserialize(data));
-      } catch (IOException e) {
-        throw new JSONException(e);
-      }
-    }
-    return objects.get(checksum);
+    return objects.get(file,
+        stream -> JsonIterator.deserialize(IOUtils.toString(stream, StandardCharsets.UTF_8)));
+  }
+
+  /**
+   * Returns the cache of the json objects.
+   *
+   * @return cache object
+   */
+  public static FileCache<Any> getCache() {
+    return objects;
   }
 
   /**
@@ -0,0 +1,311 @@
+/*
+ * Copyright (c) 2021 LG Electronics Inc.
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.lge.plugins.metashift.utils;
+
+import hudson.init.Terminator;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import jenkins.util.SystemProperties;
+
+/**
+ * A plugin-wide executor shared by the parsers and the report builders.
+ *
+ * <p>The number of threads is bounded by the threads property, which defaults to the number of
+ * available processors, and idle threads are released. On JDK 21 or later, the virtualThreads
+ * property runs each task on a virtual thread instead.</p>
+ *
+ * <p>A thread waiting for a task which is not started yet runs the task by itself, so the tasks
+ * can wait for other tasks without exhausting the pool.</p>
+ *
+ * @author Sung Gon Kim
+ */
+public final class ManagedExecutor {
+
+  /**
+   * Represents the prefix of the system properties.
+   */
+  private static final String PREFIX = ManagedExecutor.class.getName();
+
+  /**
+   * Represents the time to keep idle threads alive in seconds.
+   */
+  private static final long KEEP_ALIVE_SECONDS = 60;
+
+  /**
+   * Represents the shared instance.
+   */
+  private static ManagedExecutor instance;
+
+  /**
+   * Represents the executor service.
+   */
+  private final ExecutorService executor;
+
+  /**
+   * Represents the number of tasks waiting to start.
+   */
+  private final AtomicInteger queued;
+
+  /**
+   * Represents the number of running tasks.
+   */
+  private final AtomicInteger active;
+
+  /**
+   * Represents the number of completed tasks.
+   */
+  private final AtomicLong completed;
+
+  /**
+   * Default constructor.
+   *
+   * @param threads        maximum number of threads
+   * @param virtualThreads true to use virtual threads when available
+   */
+  ManagedExecutor(int threads, boolean virtualThreads) {
+    ExecutorService service = virtualThreads ? newVirtualThreadExecutor() : null;
+    this.executor = (service != null) ? service : newThreadPoolExecutor(Math.max(1, threads));
+    this.queued = new AtomicInteger();
+    this.active = new AtomicInteger();
+    this.completed = new AtomicLong();
+  }
+
+  /**
+   * Returns the shared instance, which is created on the first use.
+   *
+   * @return shared executor
+   */
+  public static synchronized ManagedExecutor getInstance() {
+    if (instance == null) {
+      instance = new ManagedExecutor(
+          SystemProperties.getInteger(PREFIX + ".threads",
+              Runtime.getRuntime().availableProcessors()),
+          SystemProperties.getBoolean(PREFIX + ".virtualThreads", false));
+    }
+    return instance;
+  }
+
+  /**
+   * Shuts down the shared instance, cancelling the running tasks.
+   */
+  @Terminator
+  public static synchronized void shutdownInstance() {
+    if (instance != null) {
+      instance.shutdown();
+      instance = null;
+    }
+  }
+
+  private static ExecutorService newThreadPoolExecutor(int threads) {
+    AtomicInteger counter = new AtomicInteger();
+    ThreadFactory factory = runnable -> {
+      Thread thread = new Thread(runnable, "meta-shift-executor-" + counter.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+    ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads,
+        KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), factory);
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+
+  private static ExecutorService newVirtualThreadExecutor() {
+    try {
+      return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor")
+          .invoke(null);
+    } catch (ReflectiveOperationException ignored) {
+      return null;
+    }
+  }
+
+  /**
+   * Submits the task.
+   *
+   * @param task to submit
+   * @param <T>  result type
+   * @return future of the task
+   */
+  public <T> Future<T> submit(Callable<T> task) {
+    Task<T> future = new Task<>(task);
+    executor.execute(future);
+    return future;
+  }
+
+  /**
+   * Submits the tasks.
+   *
+   * @param tasks to submit
+   * @param <T>   result type
+   * @return futures of the tasks in the same order
+   */
+  public <T> List<Future<T>> submitAll(Collection<? extends Callable<T>> tasks) {
+    List<Future<T>> futures = new ArrayList<>();
+    for (Callable<T> task : tasks) {
+      futures.add(submit(task));
+    }
+    return futures;
+  }
+
+  /**
+   * Waits for the task to complete and returns its result. The task is run by the current thread
+   * if it is not started yet. The task is cancelled if the current thread is interrupted.
+   *
+   * @param future of the task
+   * @param <T>    result type
+   * @return result of the task
+   * @throws IOException          if failed to operate with files
+   * @throws InterruptedException if an interruption occurs
+   */
+  public <T> T get(Future<T> future) throws IOException, InterruptedException {
+    if (future instanceof Task) {
+      ((Task<T>) future).run();
+    }
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      future.cancel(true);
+      throw e;
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof IllegalArgumentException) {
+        throw (IllegalArgumentException) cause;
+      }
+      if (cause instanceof IOException) {
+        throw (IOException) cause;
+      }
+      if (cause instanceof InterruptedException) {
+        throw (InterruptedException) cause;
+      }
+      throw new RuntimeException("Unknown exception: " + cause.getMessage(), cause);
+    }
+  }
+
+  /**
+   * Invokes all the tasks, and waits for them to complete. The other tasks are cancelled if any
+   * of them fails or the current thread is interrupted.
+   *
+   * @param tasks to invoke
+   * @throws IOException          if failed to operate with files
+   * @throws InterruptedException if an interruption occurs
+   */
+  public void invokeAll(Collection<? extends Callable<Void>> tasks)
+      throws IOException, InterruptedException {
+    List<Future<Void>> futures = submitAll(tasks);
+    try {
+      for (Future<Void> future : futures) {
+        get(future);
+      }
+    } finally {
+      cancelAll(futures);
+    }
+  }
+
+  /**
+   * Cancels the tasks which are not completed yet.
+   *
+   * @param futures of the tasks
+   */
+  public void cancelAll(Collection<? extends Future<?>> futures) {
+    for (Future<?> future : futures) {
+      future.cancel(true);
+    }
+  }
+
+  /**
+   * Returns the number of tasks waiting to start.
+   *
+   * @return number of queued tasks
+   */
+  public int getQueuedTasks() {
+    return queued.get();
+  }
+
+  /**
+   * Returns the number of running tasks.
+   *
+   * @return number of active tasks
+   */
+  public int getActiveTasks() {
+    return active.get();
+  }
+
+  /**
+   * Returns the number of completed tasks.
+   *
+   * @return number of completed tasks
+   */
+  public long getCompletedTasks() {
+    return completed.get();
+  }
+
+  /**
+   * Shuts down the executor, cancelling the running tasks.
+   */
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  /**
+   * A task which runs at most once, either by a worker or by the waiting thread.
+   *
+   * @param <T> result type
+   */
+  private final class Task<T> extends FutureTask<T> {
+
+    /**
+     * Represents whether the task is claimed by a thread.
+     */
+    private final AtomicBoolean started;
+
+    /**
+     * Default constructor.
+     *
+     * @param callable to run
+     */
+    Task(Callable<T> callable) {
+      super(callable);
+      this.started = new AtomicBoolean();
+      queued.incrementAndGet();
+    }
+
+    @Override
+    public void run() {
+      if (isDone() || !started.compareAndSet(false, true)) {
+        return;
+      }
+      queued.decrementAndGet();
+      active.incrementAndGet();
+      try {
+        super.run();
+      } finally {
+        active.decrementAndGet();
+        completed.incrementAndGet();
+      }
+    }
+
+    @Override
+    protected void done() {
+      if (started.compareAndSet(false, true)) {
+        queued.decrementAndGet();
+      }
+    }
+  }
+}
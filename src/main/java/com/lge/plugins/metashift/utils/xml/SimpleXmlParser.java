@@ -5,13 +5,14 @@
 
 package com.lge.plugins.metashift.utils.xml;
 
-import com.lge.plugins.metashift.utils.LruCache;
+import com.lge.plugins.metashift.utils.FileCache;
 import hudson.FilePath;
 import java.io.IOException;
 import java.io.StringReader;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import jenkins.util.SystemProperties;
 import org.w3c.dom.Document;
 import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
@@ -24,9 +25,19 @@ import org.xml.sax.SAXException;
 public class SimpleXmlParser {
 
   /**
-   * Represents the singleton cache object.
+   * Represents the prefix of the system properties.
    */
-  private static final LruCache<String, Document> objects = new LruCache<>();
+  private static final String PREFIX = SimpleXmlParser.class.getName();
+
+  /**
+   * Represents the singleton cache object. A document is estimated to take ten times the size of
+   * its file, and is evicted when not used for a minute.
+   */
+  private static final FileCache<Document> objects = new FileCache<>(10,
+      SystemProperties.getLong(PREFIX + ".cacheWeight", 256L * 1024 * 1024), 10,
+      SystemProperties.getLong(PREFIX + ".cacheExpiry", 60L * 1000),
+      SystemProperties.getBoolean(PREFIX + ".cache", true),
+      SystemProperties.getBoolean(PREFIX + ".contentHash", true));
 
   /**
    * Represents the document object.
@@ -51,16 +62,23 @@ public class SimpleXmlParser {
    */
   public SimpleXmlParser(final FilePath file)
       throws ParserConfigurationException, IOException, SAXException, InterruptedException {
-    String checksum = file.digest();
-    if (!objects.containsKey(checksum)) {
-      DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-      DocumentBuilder builder = factory.newDocumentBuilder();
-      builder.setEntityResolver((publicId, systemId) -> new InputSource(new StringReader("")));
-      Document document = builder.parse(file.read());
+    DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+    DocumentBuilder builder = factory.newDocumentBuilder();
+    builder.setEntityResolver((publicId, systemId) -> new InputSource(new StringReader("")));
+    this.document = objects.get(file, stream -> {
+      Document document = builder.parse(stream);
       document.getDocumentElement().normalize();
-      objects.put(checksum, document);
-    }
-    this.document = objects.get(checksum);
+      return document;
+    });
+  }
+
+  /**
+   * Returns the cache of the document objects.
+   *
+   * @return cache object
+   */
+  public static FileCache<Document> getCache() {
+    return objects;
   }
 
   /**
@@ -0,0 +1,241 @@
+/*
+ * Copyright (c) 2021 LG Electronics Inc.
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.lge.plugins.metashift.utils.xml;
+
+import hudson.FilePath;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * A streaming XML parser which visits the tags of the file in a single pass.
+ *
+ * <p>Unlike {@link SimpleXmlParser}, no document tree is built, so the memory usage does not
+ * depend on the size of the file.</p>
+ *
+ * @author Sung Gon Kim
+ */
+public class StreamingXmlParser implements Closeable {
+
+  /**
+   * Represents the shared factory object. External entities and DTDs are never resolved.
+   */
+  private static final XMLInputFactory factory = createFactory();
+
+  /**
+   * Represents the input stream.
+   */
+  private final InputStream stream;
+
+  /**
+   * Represents the stream reader.
+   */
+  private final XMLStreamReader reader;
+
+  /**
+   * Represents the depth of the current tag.
+   */
+  private int depth;
+
+  /**
+   * Default constructor.
+   *
+   * @param file path to the xml file
+   * @throws IOException          if failed to read the file
+   * @throws InterruptedException if an interruption occurs
+   * @throws XMLStreamException   if failed to parse the file
+   */
+  public StreamingXmlParser(final FilePath file)
+      throws IOException, InterruptedException, XMLStreamException {
+    this(file.read());
+  }
+
+  /**
+   * Default constructor.
+   *
+   * @param stream of the xml document, closed along with the parser
+   * @throws XMLStreamException if failed to parse the stream
+   */
+  public StreamingXmlParser(final InputStream stream) throws XMLStreamException {
+    this.stream = stream;
+    try {
+      this.reader = factory.createXMLStreamReader(stream);
+    } catch (XMLStreamException e) {
+      closeQuietly();
+      throw e;
+    }
+    this.depth = 0;
+  }
+
+  private static XMLInputFactory createFactory() {
+    XMLInputFactory factory = XMLInputFactory.newInstance();
+    factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    return factory;
+  }
+
+  /**
+   * Moves to the next start or end tag.
+   *
+   * @return true if a tag is found, false at the end of the document
+   * @throws XMLStreamException if failed to parse the document
+   */
+  public boolean next() throws XMLStreamException {
+    if (reader.isEndElement()) {
+      depth--;
+    }
+    while (reader.hasNext()) {
+      int event = reader.next();
+      if (event == XMLStreamConstants.START_ELEMENT) {
+        depth++;
+        return true;
+      }
+      if (event == XMLStreamConstants.END_ELEMENT) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Test if the current position is a start tag.
+   *
+   * @return true if it is a start tag, false otherwise
+   */
+  public boolean isStartTag() {
+    return reader.isStartElement();
+  }
+
+  /**
+   * Test if the current position is an end tag.
+   *
+   * @return true if it is an end tag, false otherwise
+   */
+  public boolean isEndTag() {
+    return reader.isEndElement();
+  }
+
+  /**
+   * Returns the depth of the current tag, where the root tag is 1.
+   *
+   * @return depth of the tag
+   */
+  public int getDepth() {
+    return depth;
+  }
+
+  /**
+   * Returns the tag name.
+   *
+   * @return tag name
+   */
+  public String getTagName() {
+    return reader.getLocalName();
+  }
+
+  /**
+   * Returns the attribute value of the start tag.
+   *
+   * @param name of the attribute
+   * @return attribute value
+   */
+  public String getAttribute(final String name) {
+    return getAttribute(name, "");
+  }
+
+  /**
+   * Returns the attribute value of the start tag.
+   *
+   * @param name         of the attribute
+   * @param defaultValue default value
+   * @return attribute value, or default value if null or empty string
+   */
+  public String getAttribute(final String name, final String defaultValue) {
+    String value = reader.getAttributeValue(null, name);
+    return (value == null || value.isEmpty()) ? defaultValue : value;
+  }
+
+  /**
+   * Test if the attribute of the start tag exists.
+   *
+   * @param name of the attribute
+   * @return true if the attribute exists, false otherwise
+   */
+  public boolean hasAttribute(final String name) {
+    return reader.getAttributeValue(null, name) != null;
+  }
+
+  /**
+   * Returns the content of the start tag, and moves to its end tag.
+   *
+   * @return text content
+   * @throws XMLStreamException if failed to parse the document
+   */
+  public String getTextContent() throws XMLStreamException {
+    return getTextContent(Integer.MAX_VALUE);
+  }
+
+  /**
+   * Returns the content of the start tag up to the given length, and moves to its end tag. The
+   * text beyond the limit is skipped without being read into memory.
+   *
+   * @param limit maximum number of characters to return
+   * @return text content
+   * @throws XMLStreamException if failed to parse the document
+   */
+  public String getTextContent(final int limit) throws XMLStreamException {
+    StringBuilder builder = new StringBuilder();
+    int level = 0;
+    while (reader.hasNext()) {
+      int event = reader.next();
+      if (event == XMLStreamConstants.START_ELEMENT) {
+        level++;
+      } else if (event == XMLStreamConstants.END_ELEMENT) {
+        if (level == 0) {
+          break;
+        }
+        level--;
+      } else if (reader.hasText() && builder.length() < limit
+          && event != XMLStreamConstants.COMMENT) {
+        int length = Math.min(reader.getTextLength(), limit - builder.length());
+        builder.append(reader.getTextCharacters(), reader.getTextStart(), length);
+      }
+    }
+    return builder.toString();
+  }
+
+  /**
+   * Skips the content of the start tag, and moves to its end tag.
+   *
+   * @throws XMLStreamException if failed to parse the document
+   */
+  public void skip() throws XMLStreamException {
+    getTextContent(0);
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      reader.close();
+    } catch (XMLStreamException ignored) {
+      // the underlying stream is closed below
+    } finally {
+      stream.close();
+    }
+  }
+
+  private void closeQuietly() {
+    try {
+      stream.close();
+    } catch (IOException ignored) {
+      // ignored
+    }
+  }
+}
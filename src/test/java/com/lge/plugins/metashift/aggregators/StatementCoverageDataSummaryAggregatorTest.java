@@ -113,4 +113,23 @@ public class StatementCoverageDataSummaryAggregatorTest {
     assertValues("a.file", 0, 1, 0.0, false);
     assertValues("b.file", 1, 0, 1.0, true);
   }
+
+  @Test
+  public void testParseRecipeWithNoTestData() {
+    recipe1.add(new StatementCoverageData(RECIPE1, "a.file", 1, true));
+    assertEquals(0, aggregator.parse(recipe1).size());
+  }
+
+  @Test
+  public void testParseRecipeKeepsOrderOfFiles() {
+    recipe1.add(new PassedTestData(RECIPE1, "A", "A", "A"));
+    recipe1.add(new StatementCoverageData(RECIPE1, "b.file", 1, true));
+    recipe1.add(new StatementCoverageData(RECIPE1, "a.file", 1, false));
+    recipe1.add(new StatementCoverageData(RECIPE1, "b.file", 2, false));
+    summaries = aggregator.parse(recipe1);
+    assertEquals(2, summaries.size());
+    assertEquals("b.file", summaries.get(0).getName());
+    assertEquals("a.file", summaries.get(1).getName());
+    assertValues("b.file", 1, 1, 0.5, true);
+  }
 }
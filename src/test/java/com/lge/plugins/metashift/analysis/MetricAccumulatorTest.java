@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2021 LG Electronics Inc.
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.lge.plugins.metashift.analysis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.lge.plugins.metashift.models.BranchCoverageData;
+import com.lge.plugins.metashift.models.Configuration;
+import com.lge.plugins.metashift.models.ErrorTestData;
+import com.lge.plugins.metashift.models.Evaluation;
+import com.lge.plugins.metashift.models.FailedTestData;
+import com.lge.plugins.metashift.models.KilledMutationTestData;
+import com.lge.plugins.metashift.models.PassedTestData;
+import com.lge.plugins.metashift.models.Recipe;
+import com.lge.plugins.metashift.models.Recipes;
+import com.lge.plugins.metashift.models.SkippedMutationTestData;
+import com.lge.plugins.metashift.models.SkippedTestData;
+import com.lge.plugins.metashift.models.StatementCoverageData;
+import com.lge.plugins.metashift.models.SurvivedMutationTestData;
+import com.lge.plugins.metashift.utils.ConfigurationUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for the MetricAccumulator class.
+ *
+ * @author Sung Gon Kim
+ */
+public class MetricAccumulatorTest {
+
+  private Configuration configuration;
+  private Recipes recipes;
+  private Recipe recipe1;
+  private Recipe recipe2;
+
+  @Before
+  public void setUp() {
+    configuration = ConfigurationUtils.of(50, 10, false);
+    recipe1 = new Recipe("A-A-A");
+    recipe2 = new Recipe("B-B-B");
+    recipes = new Recipes();
+    recipes.add(recipe1);
+    recipes.add(recipe2);
+  }
+
+  private void addAll(Recipe recipe) {
+    String name = recipe.getName();
+    recipe.add(new PassedTestData(name, "A", "A", "A"));
+    recipe.add(new FailedTestData(name, "A", "B", "A"));
+    recipe.add(new ErrorTestData(name, "A", "C", "A"));
+    recipe.add(new SkippedTestData(name, "A", "D", "A"));
+    recipe.add(new StatementCoverageData(name, "a.file", 1, true));
+    recipe.add(new StatementCoverageData(name, "a.file", 2, false));
+    recipe.add(new BranchCoverageData(name, "a.file", 1, 0, true));
+    recipe.add(new KilledMutationTestData(name, "a.file", "X", "X", 1, "X", "X"));
+    recipe.add(new SurvivedMutationTestData(name, "b.file", "X", "X", 1, "X", "X"));
+    recipe.add(new SkippedMutationTestData(name, "c.file", "X", "X", 1, "X", "X"));
+  }
+
+  @Test
+  public void testInitialState() {
+    MetricAccumulator accumulator = MetricAccumulator.of(recipes);
+    assertFalse(accumulator.hasTests());
+    assertFalse(accumulator.hasStatementCoverage());
+    assertFalse(accumulator.hasBranchCoverage());
+    assertFalse(accumulator.hasMutationTests());
+    assertEquals(0, accumulator.getTotalTests());
+    assertEquals(0, accumulator.getTotalMutations());
+  }
+
+  @Test
+  public void testAccumulateAllMetrics() {
+    addAll(recipe1);
+    MetricAccumulator accumulator = MetricAccumulator.of(recipe1);
+    assertTrue(accumulator.hasTests());
+    assertTrue(accumulator.hasStatementCoverage());
+    assertTrue(accumulator.hasBranchCoverage());
+    assertTrue(accumulator.hasMutationTests());
+    assertEquals(1, accumulator.getPassedTests());
+    assertEquals(1, accumulator.getFailedTests());
+    assertEquals(1, accumulator.getErrorTests());
+    assertEquals(1, accumulator.getSkippedTests());
+    assertEquals(1, accumulator.getCoveredStatements());
+    assertEquals(1, accumulator.getUncoveredStatements());
+    assertEquals(1, accumulator.getCoveredBranches());
+    assertEquals(0, accumulator.getUncoveredBranches());
+    assertEquals(1, accumulator.getKilledMutations());
+    assertEquals(1, accumulator.getSurvivedMutations());
+    assertEquals(1, accumulator.getSkippedMutations());
+  }
+
+  @Test
+  public void testMergeEqualsAccumulationOfRecipes() {
+    addAll(recipe1);
+    addAll(recipe2);
+    MetricAccumulator merged = MetricAccumulator.of(recipe1).merge(MetricAccumulator.of(recipe2));
+    MetricAccumulator accumulator = MetricAccumulator.of(recipes);
+    assertEquals(accumulator.getTotalTests(), merged.getTotalTests());
+    assertEquals(8, merged.getTotalTests());
+    assertEquals(accumulator.getCoveredStatements(), merged.getCoveredStatements());
+    assertEquals(accumulator.getUncoveredBranches(), merged.getUncoveredBranches());
+    assertEquals(accumulator.getTotalMutations(), merged.getTotalMutations());
+  }
+
+  @Test
+  public void testEvaluatorsAgreeWithStreamableInputs() {
+    addAll(recipe1);
+    MetricAccumulator accumulator = MetricAccumulator.of(recipes);
+    Evaluator[] evaluators = {
+        new UnitTestEvaluator(configuration),
+        new StatementCoverageEvaluator(configuration),
+        new BranchCoverageEvaluator(configuration),
+        new MutationTestEvaluator(configuration),
+    };
+    for (Evaluator evaluator : evaluators) {
+      Evaluation expected = evaluator.parse(recipes);
+      Evaluation actual = evaluator.parse(accumulator);
+      assertEquals(expected.isAvailable(), actual.isAvailable());
+      assertEquals(expected.getDenominator(), actual.getDenominator());
+      assertEquals(expected.getNumerator(), actual.getNumerator());
+      assertEquals(expected.isQualified(), actual.isQualified());
+    }
+  }
+}
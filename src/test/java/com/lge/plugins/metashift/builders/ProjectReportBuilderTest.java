@@ -7,19 +7,26 @@ package com.lge.plugins.metashift.builders;
 
 import static org.junit.Assert.assertEquals;
 
+import com.lge.plugins.metashift.analysis.BuildStatusResolver;
+import com.lge.plugins.metashift.analysis.MetricAccumulator;
 import com.lge.plugins.metashift.fixture.FakeRecipe;
 import com.lge.plugins.metashift.fixture.FakeReportBuilder;
 import com.lge.plugins.metashift.fixture.FakeSource;
 import com.lge.plugins.metashift.models.Configuration;
 import com.lge.plugins.metashift.models.Distribution;
+import com.lge.plugins.metashift.models.PassedTestData;
 import com.lge.plugins.metashift.models.Recipes;
+import com.lge.plugins.metashift.models.StatementCoverageData;
 import com.lge.plugins.metashift.parsers.FileParser;
 import com.lge.plugins.metashift.persistence.DataSource;
 import com.lge.plugins.metashift.utils.ConfigurationUtils;
 import hudson.FilePath;
+import hudson.model.Result;
 import java.io.File;
 import java.io.IOException;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 import net.sf.json.JSONArray;
 import net.sf.json.JSONObject;
@@ -137,4 +144,24 @@ public class ProjectReportBuilderTest {
         summaries.get(0).getDouble("ratio"), 0.01);
     assertEquals(1.0, summaries.get(1).getDouble("ratio"), 0.01);
   }
+
+  @Test
+  public void testCoverageOfTestsAndCoverageInDifferentRecipes()
+      throws IOException, InterruptedException {
+    Map<String, MetricAccumulator> partials = new LinkedHashMap<>();
+    partials.put(RECIPE1, new MetricAccumulator()
+        .add(new PassedTestData(RECIPE1, "A", "A", "A")));
+    partials.put(RECIPE2, new MetricAccumulator()
+        .add(new StatementCoverageData(RECIPE2, "a.cpp", 1, true))
+        .add(new StatementCoverageData(RECIPE2, "a.cpp", 2, false)));
+    Configuration configuration = ConfigurationUtils.of(60, 5, true);
+    DataSource dataSource = new DataSource(new FilePath(folder.newFolder()));
+    ProjectReport report = new ProjectReportBuilder(configuration, dataSource).parse(partials);
+    assertEquals(newEvaluation(true, 2, 1, false, 0.6, 0, "POSITIVE"),
+        report.getStatementCoverage().getEvaluation());
+
+    BuildStatusResolver resolver = new BuildStatusResolver(configuration);
+    resolver.parse(MetricAccumulator.merge(partials.values()));
+    assertEquals(Result.UNSTABLE, resolver.getStatementCoverage());
+  }
 }
@@ -79,4 +79,34 @@ public class DataListTest {
     assertEquals(3, dataList.objects(MutationTestData.class).count());
     assertEquals(4, dataList.objects(Data.class).count());
   }
+
+  @Test
+  public void testObjectsWithCompactCoverage() {
+    dataList.add(new PassedTestData("A-B-C", "suite", "test", "msg"));
+    dataList.add(new FileCoverage.Builder("A-B-C", "a.file").add(1, true, 1, 2).build());
+    assertEquals(4, dataList.size());
+    assertEquals(1, dataList.objects(StatementCoverageData.class).count());
+    assertEquals(2, dataList.objects(BranchCoverageData.class).count());
+    assertEquals(3, dataList.objects(CoverageData.class).count());
+    assertEquals(4, dataList.objects(Data.class).count());
+    assertEquals(0, dataList.objects(MutationTestData.class).count());
+  }
+
+  @Test
+  public void testSeal() {
+    dataList.add(new KilledMutationTestData("A-B-C", "a.file", "X", "X", 1, "X", "X"));
+    dataList.add(new PassedTestData("A-B-C", "suite", "test", "msg"));
+    dataList.seal();
+    assertTrue(dataList.isSealed());
+    assertEquals(2, dataList.size());
+    assertTrue(dataList.contains(MutationTestData.class));
+    assertEquals(1, dataList.objects(TestData.class).count());
+    assertEquals(2, dataList.objects(Data.class).count());
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testAddToSealedList() {
+    dataList.seal();
+    dataList.add(new PassedTestData("A-B-C", "suite", "test", "msg"));
+  }
 }
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2021 LG Electronics Inc.
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.lge.plugins.metashift.models;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.apache.commons.lang3.SerializationUtils;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for the FileCoverage class.
+ *
+ * @author Sung Gon Kim
+ */
+public class FileCoverageTest {
+
+  private FileCoverage.Builder builder;
+
+  @Before
+  public void setUp() {
+    builder = new FileCoverage.Builder("A-B-C", "a.file");
+  }
+
+  @Test
+  public void testInitialState() {
+    FileCoverage coverage = builder.build();
+    assertTrue(builder.isEmpty());
+    assertEquals("A-B-C", coverage.getRecipe());
+    assertEquals("a.file", coverage.getFile());
+    assertEquals(0, coverage.size());
+    assertFalse(coverage.contains(CoverageData.class));
+    assertEquals(0, coverage.objects(CoverageData.class).count());
+  }
+
+  @Test
+  public void testStatementsOnly() {
+    FileCoverage coverage = builder.add(1, true, 0, 0).add(2, false, 0, 0).build();
+    assertEquals(2, coverage.getStatements());
+    assertEquals(0, coverage.getBranches());
+    assertTrue(coverage.contains(StatementCoverageData.class));
+    assertTrue(coverage.contains(CoverageData.class));
+    assertFalse(coverage.contains(BranchCoverageData.class));
+    assertFalse(coverage.contains(TestData.class));
+    assertEquals(Arrays.asList(
+            new StatementCoverageData("A-B-C", "a.file", 1, true),
+            new StatementCoverageData("A-B-C", "a.file", 2, false)),
+        coverage.objects(StatementCoverageData.class).collect(Collectors.toList()));
+  }
+
+  @Test
+  public void testObjectsKeepParserOrder() {
+    FileCoverage coverage = builder.add(1, true, 1, 3).add(2, false, 0, 0).build();
+    List<CoverageData> objects = coverage.objects(CoverageData.class)
+        .collect(Collectors.toList());
+    assertEquals(Arrays.asList(
+            new StatementCoverageData("A-B-C", "a.file", 1, true),
+            new BranchCoverageData("A-B-C", "a.file", 1, 0, true),
+            new BranchCoverageData("A-B-C", "a.file", 1, 1, false),
+            new BranchCoverageData("A-B-C", "a.file", 1, 2, false),
+            new StatementCoverageData("A-B-C", "a.file", 2, false)),
+        objects);
+    assertTrue(objects.get(1).isCovered());
+    assertFalse(objects.get(2).isCovered());
+    assertEquals(5, coverage.size());
+  }
+
+  @Test
+  public void testBranchesOnly() {
+    FileCoverage coverage = builder.add(1, true, 2, 2).build();
+    assertEquals(2, coverage.objects(BranchCoverageData.class).count());
+    assertTrue(coverage.objects(BranchCoverageData.class).allMatch(CoverageData::isCovered));
+  }
+
+  @Test
+  public void testBuilderGrowsAndClears() {
+    for (int i = 0; i < 100; i++) {
+      builder.add(i, i % 2 == 0, 0, 0);
+    }
+    assertEquals(100, builder.build().size());
+    assertEquals(50, builder.build().objects(StatementCoverageData.class)
+        .filter(CoverageData::isCovered).count());
+    builder.clear();
+    assertTrue(builder.isEmpty());
+    assertEquals(0, builder.build().size());
+  }
+
+  @Test
+  public void testSerialization() {
+    FileCoverage coverage = builder.add(1, true, 1, 2).build();
+    FileCoverage copied = SerializationUtils.clone(coverage);
+    assertEquals(coverage.objects(CoverageData.class).collect(Collectors.toList()),
+        copied.objects(CoverageData.class).collect(Collectors.toList()));
+  }
+
+  @Test
+  public void testDataList() {
+    DataList dataList = new DataList();
+    dataList.add(new PassedTestData("A-B-C", "suite", "test", "msg"));
+    dataList.add(builder.add(1, true, 1, 2).build());
+    assertEquals(4, dataList.size());
+    assertTrue(dataList.contains(StatementCoverageData.class));
+    assertTrue(dataList.contains(BranchCoverageData.class));
+    assertEquals(3, dataList.objects(CoverageData.class).count());
+    assertEquals(1, dataList.objects(TestData.class).count());
+  }
+
+  @Test
+  public void testDataListWithObjectTypedCoverage() {
+    Recipe recipe = new Recipe("A-B-C");
+    recipe.add(builder.add(1, true, 1, 2).build());
+    assertEquals(3, recipe.objects(CoverageData.class).count());
+    assertTrue(recipe.contains(StatementCoverageData.class));
+    assertTrue(recipe.contains(BranchCoverageData.class));
+    assertEquals(1, recipe.objects(StatementCoverageData.class).count());
+    assertFalse(recipe.contains(FileCoverage.class));
+
+    DataList dataList = new DataList();
+    List<Object> objects = Arrays.asList(
+        new PassedTestData("A-B-C", "suite", "test", "msg"),
+        builder.build());
+    dataList.addAll(objects);
+    assertEquals(4, dataList.size());
+    assertEquals(2, dataList.objects(BranchCoverageData.class).count());
+    assertFalse(dataList.contains(FileCoverage.class));
+  }
+}
@@ -302,4 +302,34 @@ public class CoverageParserTest {
     assertTrue(dataList.objects(CoverageData.class)
         .allMatch(o -> o.getFile().equals(fakeSource.getFilename())));
   }
+
+  @Test
+  public void testStreamingModeEqualsToDocumentMode() throws Exception {
+    File source = utils.createDirectory("source");
+    File report = utils.createDirectory("report");
+    FakeRecipe fakeRecipe = new FakeRecipe(source);
+    fakeRecipe
+        .add(new FakeSource(fakeRecipe, 10, 5, 5, 0)
+            .setStatementCoverage(1, 2)
+            .setBranchCoverage(3, 4))
+        .add(new FakeSource(fakeRecipe, 10, 5, 5, 0)
+            .setStatementCoverage(5, 6)
+            .setBranchCoverage(7, 8));
+    fakeRecipe.toFile(report);
+    new FakeCoverageReport(fakeRecipe).toFile(report);
+    FilePath path = new FilePath(new File(report, fakeRecipe.getName()));
+
+    DataList expected = new DataList();
+    CoverageParser parser = new CoverageParser(path, expected);
+    parser.setStreaming(false);
+    ExecutorServiceUtils.invokeAll(parser);
+
+    parser = new CoverageParser(path, dataList);
+    parser.setStreaming(true);
+    ExecutorServiceUtils.invokeAll(parser);
+
+    assertDataList(true, 40);
+    assertEquals(expected.objects(CoverageData.class).collect(Collectors.toList()),
+        dataList.objects(CoverageData.class).collect(Collectors.toList()));
+  }
 }
@@ -7,6 +7,7 @@ package com.lge.plugins.metashift.parsers;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 import com.lge.plugins.metashift.fixture.FakeRecipe;
 import com.lge.plugins.metashift.fixture.FakeReportBuilder;
@@ -17,12 +18,16 @@ import com.lge.plugins.metashift.models.Recipe;
 import com.lge.plugins.metashift.models.Recipes;
 import com.lge.plugins.metashift.models.StatementCoverageData;
 import com.lge.plugins.metashift.models.TestData;
+import com.lge.plugins.metashift.utils.JsonUtils;
 import com.lge.plugins.metashift.utils.TemporaryFileUtils;
+import com.lge.plugins.metashift.utils.xml.SimpleXmlParser;
 import hudson.FilePath;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.PrintStream;
 import java.nio.charset.StandardCharsets;
+import java.util.stream.Collectors;
 import org.apache.commons.io.FileUtils;
 import org.junit.Before;
 import org.junit.Rule;
@@ -249,4 +254,98 @@ public class FileParserTest {
     assertEquals(1, recipes.size());
     assertNull(recipes.get(0).getSourceDir());
   }
+
+  @Test
+  public void testParallelModeKeepsOrderOfSerialMode() throws Exception {
+    for (int i = 0; i < 5; i++) {
+      builder.add(new FakeRecipe(source)
+          .add(new FakeSource(10, 3, 2, 1)
+              .setMutationTests(1, 2, 3)
+              .setTests(1, 2, 3, 4)
+              .setStatementCoverage(1, 2)
+              .setBranchCoverage(1, 2)));
+    }
+    builder.toFile(report);
+
+    parser.setParallel(false);
+    Recipes expected = parser.parse(new FilePath(report));
+    parser.setParallel(true);
+    recipes = parser.parse(new FilePath(report));
+
+    assertEquals(5, recipes.size());
+    for (int i = 0; i < expected.size(); i++) {
+      assertEquals(expected.get(i).getName(), recipes.get(i).getName());
+      assertEquals(expected.get(i).objects(TestData.class).collect(Collectors.toList()),
+          recipes.get(i).objects(TestData.class).collect(Collectors.toList()));
+      assertEquals(expected.get(i).objects(StatementCoverageData.class)
+              .collect(Collectors.toList()),
+          recipes.get(i).objects(StatementCoverageData.class).collect(Collectors.toList()));
+    }
+  }
+
+  @Test
+  public void testParseCallableReturnsRecipesAndLog() throws Exception {
+    builder
+        .add(new FakeRecipe(source)
+            .add(new FakeSource(10, 3, 2, 0).setStatementCoverage(1, 2).setTests(1, 1, 0, 0)))
+        .add(new FakeRecipe(source)
+            .add(new FakeSource(20, 6, 5, 0).setMutationTests(1, 2, 3)));
+    builder.toFile(report);
+
+    FileParser.Result result = new FileParser.ParseCallable(true).invoke(report, null);
+    recipes = new FileParser().parse(new FilePath(report));
+
+    assertEquals(recipes.size(), result.getRecipes().size());
+    for (int i = 0; i < recipes.size(); i++) {
+      assertEquals(recipes.get(i).getName(), result.getRecipes().get(i).getName());
+      assertEquals(recipes.get(i).objects(TestData.class).collect(Collectors.toList()),
+          result.getRecipes().get(i).objects(TestData.class).collect(Collectors.toList()));
+      assertEquals(recipes.get(i).objects(MutationTestData.class).collect(Collectors.toList()),
+          result.getRecipes().get(i).objects(MutationTestData.class)
+              .collect(Collectors.toList()));
+    }
+    assertTrue(result.getLog().contains("[meta-shift-plugin] -> Found 2 recipe data"));
+  }
+
+  @Test
+  public void testParseCallableReleasesCachedReports() throws Exception {
+    builder.add(new FakeRecipe(source)
+        .add(new FakeSource(10, 3, 2, 0).setStatementCoverage(1, 2).setTests(1, 1, 0, 0)));
+    builder.toFile(report);
+
+    new FileParser.ParseCallable(true).invoke(report, null);
+
+    FilePath path = new FilePath(report);
+    assertEquals(0, SimpleXmlParser.getCache().invalidate(path));
+    assertEquals(0, JsonUtils.getCache().invalidate(path));
+  }
+
+  private String parseToLog(boolean parallel) throws Exception {
+    ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    FileParser parser = new FileParser(
+        new PrintStream(buffer, true, StandardCharsets.UTF_8.name()));
+    parser.setParallel(parallel);
+    parser.setAgent(false);
+    parser.parse(new FilePath(report));
+    return buffer.toString(StandardCharsets.UTF_8.name());
+  }
+
+  @Test
+  public void testParallelModeKeepsLogOfSerialMode() throws Exception {
+    for (int i = 0; i < 5; i++) {
+      builder.add(new FakeRecipe(source)
+          .add(new FakeSource(10, 3, 2, 1).setMutationTests(1, 2, 3)));
+    }
+    builder.toFile(report);
+    for (File directory : report.listFiles()) {
+      FileUtils.deleteDirectory(new File(directory, "coverage"));
+      FileUtils.deleteDirectory(new File(directory, "test"));
+    }
+
+    String expected = parseToLog(false);
+    assertTrue(expected.contains("not found"));
+    for (int i = 0; i < 5; i++) {
+      assertEquals(expected, parseToLog(true));
+    }
+  }
 }
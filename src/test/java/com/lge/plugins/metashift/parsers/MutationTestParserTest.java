@@ -7,6 +7,7 @@ package com.lge.plugins.metashift.parsers;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import com.lge.plugins.metashift.fixture.FakeMutationTestReport;
 import com.lge.plugins.metashift.fixture.FakeRecipe;
@@ -24,6 +25,7 @@ import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
+import org.xml.sax.SAXException;
 
 /**
  * Unit tests for the MutationTestParser class.
@@ -221,4 +223,55 @@ public class MutationTestParserTest {
     assertTrue(dataList.objects(MutationTestData.class)
         .allMatch(o -> o.getFile().equals(fakeSource.getFilename())));
   }
+
+  @Test
+  public void testStreamingModeEqualsToDocumentMode() throws Exception {
+    File source = utils.createDirectory("source");
+    File report = utils.createDirectory("report");
+    FakeRecipe fakeRecipe = new FakeRecipe(source);
+    fakeRecipe
+        .add(new FakeSource(fakeRecipe, 10, 5, 5, 0).setMutationTests(1, 2, 3))
+        .add(new FakeSource(fakeRecipe, 10, 5, 5, 0).setMutationTests(4, 5, 6));
+    fakeRecipe.toFile(report);
+    new FakeMutationTestReport(fakeRecipe).toFile(report);
+    FilePath path = new FilePath(new File(report, fakeRecipe.getName()));
+
+    DataList expected = new DataList();
+    MutationTestParser parser = new MutationTestParser(path, expected);
+    parser.setStreaming(false);
+    ExecutorServiceUtils.invokeAll(parser);
+
+    parser = new MutationTestParser(path, dataList);
+    parser.setStreaming(true);
+    ExecutorServiceUtils.invokeAll(parser);
+
+    assertDataList(true, 21);
+    assertEquals(expected.objects(MutationTestData.class).collect(Collectors.toList()),
+        dataList.objects(MutationTestData.class).collect(Collectors.toList()));
+  }
+
+  @Test
+  public void testMissingLineNumberIsParseErrorInBothModes() throws Exception {
+    File directory = utils.createDirectory("report", "A-1.0.0-r0");
+    builder
+        .append("<mutations>")
+        .append("  <mutation detected='true'>")
+        .append("    <sourceFilePath>a.cpp</sourceFilePath>")
+        .append("    <lineNumber></lineNumber>")
+        .append("  </mutation>")
+        .append("</mutations>");
+    utils.writeLines(builder, directory, "checktest", "mutations.xml");
+
+    for (boolean streaming : new boolean[]{false, true}) {
+      MutationTestParser parser = new MutationTestParser(new FilePath(directory), dataList);
+      parser.setStreaming(streaming);
+      try {
+        parser.parse();
+        fail("Expected a parse error");
+      } catch (IllegalArgumentException e) {
+        assertTrue(e.getMessage().startsWith("Failed to parse: "));
+        assertTrue(e.getCause() instanceof SAXException);
+      }
+    }
+  }
 }
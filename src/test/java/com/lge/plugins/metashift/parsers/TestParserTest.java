@@ -20,6 +20,7 @@ import java.io.File;
 import java.io.IOException;
 import java.util.List;
 import java.util.stream.Collectors;
+import org.apache.commons.lang3.StringUtils;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -254,4 +255,81 @@ public class TestParserTest {
     assertTrue(dataList.objects(TestData.class)
         .allMatch(o -> o.getFile().equals(fakeSource.getFilename()) && o.getLine() == 1));
   }
+
+  @Test
+  public void testStreamingModeTruncatesLongMessage() throws Exception {
+    File directory = utils.createDirectory("report", "G-1.0.0-r0");
+    String message = StringUtils.repeat('x', TestParser.MAX_MESSAGE_LENGTH + 1);
+    builder
+        .append("<testsuites>")
+        .append("  <testsuite name='A'>")
+        .append("    <testcase name='test1'>")
+        .append("      <system-out>").append(message).append("</system-out>")
+        .append("      <failure>").append(message).append("</failure>")
+        .append("    </testcase>")
+        .append("  </testsuite>")
+        .append("</testsuites>");
+    utils.writeLines(builder, directory, "test", "1.xml");
+    parse(directory);
+    assertDataList(true, 1);
+    assertValues(0, "G-1.0.0-r0", "A", "test1", message.substring(1));
+  }
+
+  @Test
+  public void testStreamingModeEqualsToDocumentMode() throws Exception {
+    File source = utils.createDirectory("source");
+    File report = utils.createDirectory("report");
+    FakeRecipe fakeRecipe = new FakeRecipe(source);
+    fakeRecipe
+        .add(new FakeSource(fakeRecipe, 10, 5, 5, 0).setTests(1, 2, 3, 4))
+        .add(new FakeSource(fakeRecipe, 10, 5, 5, 0).setTests(5, 6, 7, 8));
+    fakeRecipe.toFile(report);
+    new FakeTestReport(fakeRecipe).toFile(report);
+    FilePath path = new FilePath(new File(report, fakeRecipe.getName()));
+
+    DataList expected = new DataList();
+    TestParser parser = new TestParser(path, expected);
+    parser.setStreaming(false);
+    ExecutorServiceUtils.invokeAll(parser);
+
+    parser = new TestParser(path, dataList);
+    parser.setStreaming(true);
+    ExecutorServiceUtils.invokeAll(parser);
+
+    assertDataList(true, 36);
+    assertEquals(expected.objects(TestData.class).collect(Collectors.toList()),
+        dataList.objects(TestData.class).collect(Collectors.toList()));
+  }
+
+  @Test
+  public void testStreamingModeCountsNestedSuitesAsDocumentMode() throws Exception {
+    File directory = utils.createDirectory("report", "H-1.0.0-r0");
+    builder
+        .append("<testsuites>")
+        .append("  <testsuite name='A'>")
+        .append("    <testcase name='test1'/>")
+        .append("    <testsuite name='B'>")
+        .append("      <testcase name='test2'><failure message='failed'/></testcase>")
+        .append("    </testsuite>")
+        .append("  </testsuite>")
+        .append("</testsuites>");
+    utils.writeLines(builder, directory, "test", "1.xml");
+    FilePath path = new FilePath(directory);
+
+    DataList expected = new DataList();
+    TestParser parser = new TestParser(path, expected);
+    parser.setStreaming(false);
+    ExecutorServiceUtils.invokeAll(parser);
+
+    parser = new TestParser(path, dataList);
+    parser.setStreaming(true);
+    ExecutorServiceUtils.invokeAll(parser);
+
+    assertDataList(true, 3);
+    assertValues(0, "H-1.0.0-r0", "A", "test1", "");
+    assertValues(1, "H-1.0.0-r0", "A", "test2", "failed");
+    assertValues(2, "H-1.0.0-r0", "B", "test2", "failed");
+    assertEquals(expected.objects(TestData.class).collect(Collectors.toList()),
+        dataList.objects(TestData.class).collect(Collectors.toList()));
+  }
 }
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2021 LG Electronics Inc.
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.lge.plugins.metashift.persistence;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import net.sf.json.JSONArray;
+import net.sf.json.JSONNull;
+import net.sf.json.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for the BinaryCodec class.
+ *
+ * @author Sung Gon Kim
+ */
+public class BinaryCodecTest {
+
+  private BinaryCodec codec;
+
+  @Before
+  public void setUp() {
+    codec = new BinaryCodec();
+  }
+
+  private JSONObject createObject(int index) {
+    JSONObject object = new JSONObject();
+    object.put("name", "file" + index);
+    object.put("line", index);
+    object.put("size", 1L << 40);
+    object.put("ratio", 0.5);
+    object.put("covered", index % 2 == 0);
+    return object;
+  }
+
+  @Test
+  public void testEncodeAndDecodeJsonObject() throws IOException {
+    JSONObject object = createObject(1);
+    object.put("nested", createObject(2));
+    object.put("empty", JSONNull.getInstance());
+    JSONObject actual = (JSONObject) codec.decode(codec.encode(object));
+    assertEquals(object, actual);
+    assertEquals(Integer.class, actual.get("line").getClass());
+    assertEquals(Long.class, actual.get("size").getClass());
+    assertEquals("file2", actual.getJSONObject("nested").getString("name"));
+  }
+
+  @Test
+  public void testEncodeAndDecodeJsonArray() throws IOException {
+    JSONArray array = new JSONArray();
+    for (int i = 0; i < 100; i++) {
+      array.add(createObject(i));
+    }
+    byte[] bytes = codec.encode(array);
+    assertEquals(array, codec.decode(bytes));
+    assertTrue(bytes.length * 2 < new SerializationCodec().encode(array).length);
+  }
+
+  @Test
+  public void testEncodeAndDecodeScalars() throws IOException {
+    assertNull(codec.decode(codec.encode(null)));
+    assertEquals("{[hello world]}", codec.decode(codec.encode("{[hello world]}")));
+    assertEquals(-1, codec.decode(codec.encode(-1)));
+    assertEquals(Long.MIN_VALUE, codec.decode(codec.encode(Long.MIN_VALUE)));
+    assertEquals(true, codec.decode(codec.encode(true)));
+  }
+
+  @Test
+  public void testUnsupportedValuesAreSerialized() throws IOException {
+    JSONObject object = new JSONObject();
+    object.put("name", "A");
+    object.put("list", JSONArray.fromObject(Arrays.asList("[A]", "B")));
+    assertEquals(object, codec.decode(codec.encode(object)));
+
+    ArrayList<String> list = new ArrayList<>(Arrays.asList("A", "B"));
+    byte[] bytes = codec.encode(list);
+    assertTrue(codec.canDecode(bytes));
+    assertEquals(list, codec.decode(bytes));
+  }
+
+  @Test
+  public void testCanDecode() throws IOException {
+    assertTrue(codec.canDecode(codec.encode("A")));
+    assertFalse(codec.canDecode(new SerializationCodec().encode("A")));
+    assertFalse(codec.canDecode(new byte[0]));
+  }
+
+  @Test(expected = IOException.class)
+  public void testDecodeMalformedBytes() throws IOException {
+    codec.decode(new byte[]{0x4d, 1, 100});
+  }
+}
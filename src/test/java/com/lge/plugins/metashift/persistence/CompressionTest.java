@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2021 LG Electronics Inc.
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.lge.plugins.metashift.persistence;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.lge.plugins.metashift.persistence.Compression.Block;
+import com.lge.plugins.metashift.persistence.Compression.Method;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Test;
+
+/**
+ * Unit tests for the Compression class.
+ *
+ * @author Sung Gon Kim
+ */
+public class CompressionTest {
+
+  private static final byte[] SMALL = "hello world".getBytes(StandardCharsets.UTF_8);
+  private static final byte[] LARGE = StringUtils.repeat("{\"name\":\"file\",\"covered\":true}", 100)
+      .getBytes(StandardCharsets.UTF_8);
+
+  private static byte[] roundTrip(Block block) throws IOException {
+    return Compression.decompress(block.getMethod().getId(), block.getBytes());
+  }
+
+  @Test
+  public void testSmallValuesAreStoredRaw() {
+    Block block = new Compression(Method.DEFLATE, 1, 64).compress(SMALL);
+    assertEquals(Method.NONE, block.getMethod());
+    assertSame(SMALL, block.getBytes());
+  }
+
+  @Test
+  public void testNoCompression() {
+    Block block = new Compression(Method.NONE, 1, 0).compress(LARGE);
+    assertEquals(Method.NONE, block.getMethod());
+    assertSame(LARGE, block.getBytes());
+  }
+
+  @Test
+  public void testIncompressibleValuesAreStoredRaw() {
+    Block block = new Compression(Method.GZIP, 9, 0).compress(SMALL);
+    assertEquals(Method.NONE, block.getMethod());
+  }
+
+  @Test
+  public void testGzip() throws IOException {
+    Block block = new Compression(Method.GZIP, 6, 0).compress(LARGE);
+    assertEquals(Method.GZIP, block.getMethod());
+    assertTrue(block.getBytes().length < LARGE.length);
+    assertArrayEquals(LARGE, roundTrip(block));
+  }
+
+  @Test
+  public void testDeflateIsSmallerThanGzip() throws IOException {
+    Block deflate = new Compression(Method.DEFLATE, 1, 0).compress(LARGE);
+    Block gzip = new Compression(Method.GZIP, 1, 0).compress(LARGE);
+    assertEquals(Method.DEFLATE, deflate.getMethod());
+    assertTrue(deflate.getBytes().length < gzip.getBytes().length);
+    assertArrayEquals(LARGE, roundTrip(deflate));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidLevel() {
+    new Compression(Method.GZIP, 0, 0);
+  }
+
+  @Test(expected = IOException.class)
+  public void testUnknownMethod() throws IOException {
+    Compression.decompress((byte) 100, SMALL);
+  }
+}
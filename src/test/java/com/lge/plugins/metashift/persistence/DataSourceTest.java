@@ -7,11 +7,14 @@ package com.lge.plugins.metashift.persistence;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
 
 import hudson.FilePath;
 import java.io.File;
 import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import net.sf.json.JSONObject;
 import org.junit.Before;
 import org.junit.Rule;
@@ -70,4 +73,76 @@ public class DataSourceTest {
     assertEquals(1, newDataSource.size());
     assertEquals(source, newDataSource.get("hello", "world"));
   }
+
+  @Test
+  public void testBatchIsInvisibleUntilCommit() throws IOException {
+    DataSource.Batch batch = dataSource.begin();
+    batch.put("HELLO", "hello");
+    Map<String, String> objects = new LinkedHashMap<>();
+    objects.put("a.file", "A");
+    objects.put("b.file", "B");
+    batch.putAll(objects, "files");
+    assertEquals(3, batch.size());
+    assertEquals(0, dataSource.size());
+    assertFalse(dataSource.has("hello"));
+
+    batch.commit();
+    assertEquals(0, batch.size());
+    assertEquals(3, dataSource.size());
+    assertEquals("HELLO", dataSource.get("hello"));
+    assertEquals("B", dataSource.get("files", "b.file"));
+  }
+
+  @Test
+  public void testCommittedBatchIsPersistent() throws IOException, InterruptedException {
+    DataSource.Batch batch = dataSource.begin();
+    batch.put("HELLO", "hello");
+    batch.put("WORLD", "world");
+    batch.commit();
+
+    DataSource newDataSource = new DataSource(new FilePath(storage));
+    assertEquals(2, newDataSource.size());
+    assertEquals("WORLD", newDataSource.get("world"));
+  }
+
+  @Test
+  public void testReadValuesOfJavaSerialization() throws IOException {
+    Codec codec = DataSource.getCodec();
+    try {
+      DataSource.setCodec(new SerializationCodec());
+      dataSource.put("HELLO", "hello");
+    } finally {
+      DataSource.setCodec(codec);
+    }
+    dataSource.put("WORLD", "world");
+    assertEquals("HELLO", dataSource.get("hello"));
+    assertEquals("WORLD", dataSource.get("world"));
+  }
+
+  @Test
+  public void testRepeatedReadsAreCached() throws IOException {
+    ValueCache cache = ValueCache.getInstance();
+    JSONObject source = new JSONObject();
+    source.put("hello", "world");
+    dataSource.put(source, "json", "object");
+
+    long hits = cache.getHitCount();
+    long misses = cache.getMissCount();
+    JSONObject first = dataSource.get("json", "object");
+    first.put("hello", "modified");
+    JSONObject second = dataSource.get("json", "object");
+    assertNotSame(first, second);
+    assertEquals(source, second);
+    assertNull(dataSource.get("unknown"));
+    assertNull(dataSource.get("unknown"));
+    assertEquals(hits + 2, cache.getHitCount());
+    assertEquals(misses + 2, cache.getMissCount());
+
+    dataSource.put("HELLO", "json", "object");
+    assertEquals("HELLO", dataSource.get("json", "object"));
+    DataSource.Batch batch = dataSource.begin();
+    batch.put("WORLD", "unknown");
+    batch.commit();
+    assertEquals("WORLD", dataSource.get("unknown"));
+  }
 }
@@ -17,7 +17,7 @@ import hudson.FilePath;
 import java.io.File;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
-import java.util.Objects;
+import org.apache.commons.io.FileUtils;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -33,8 +33,7 @@ public class FileStoreTest {
   @Rule
   public final TemporaryFolder folder = new TemporaryFolder();
   private File storage;
-  private File objects;
-  private File referer;
+  private File segments;
   private FileStore fileStore;
 
   @Before
@@ -42,15 +41,19 @@ public class FileStoreTest {
     TemporaryFileUtils utils = new TemporaryFileUtils(folder);
     storage = utils.getPath("path", "to", "storage");
     fileStore = new FileStore(new FilePath(storage));
-    objects = new File(storage, "objects");
-    referer = new File(storage, "index.json");
+    segments = new File(storage, "segments");
+  }
+
+  private long getSegmentsSize() {
+    return FileUtils.listFiles(segments, new String[]{"dat"}, false).stream()
+        .mapToLong(File::length).sum();
   }
 
   @Test
   public void testInitialState() {
     assertEquals(0, fileStore.size());
-    assertTrue(objects.exists());
-    assertTrue(referer.exists());
+    assertTrue(storage.exists());
+    assertFalse(new File(storage, "index.json").exists());
   }
 
   @Test
@@ -67,9 +70,10 @@ public class FileStoreTest {
   public void testPutIdenticalDataStoresSingleFile() throws IOException {
     byte[] HELLO_WORLD = "hello world".getBytes(StandardCharsets.UTF_8);
     fileStore.put("A", HELLO_WORLD);
+    long size = getSegmentsSize();
     fileStore.put("B", HELLO_WORLD);
     assertEquals(2, fileStore.size());
-    assertEquals(1, Objects.requireNonNull(objects.listFiles(File::isDirectory)).length);
+    assertEquals(size, getSegmentsSize());
   }
 
   @Test
@@ -77,9 +81,12 @@ public class FileStoreTest {
     byte[] HELLO = "hello".getBytes(StandardCharsets.UTF_8);
     byte[] WORLD = "world".getBytes(StandardCharsets.UTF_8);
     fileStore.put("A", HELLO);
+    long size = getSegmentsSize();
     fileStore.put("B", WORLD);
     assertEquals(2, fileStore.size());
-    assertEquals(2, Objects.requireNonNull(objects.listFiles(File::isDirectory)).length);
+    assertTrue(getSegmentsSize() > size);
+    assertArrayEquals(HELLO, fileStore.get("A"));
+    assertArrayEquals(WORLD, fileStore.get("B"));
   }
 
   @Test
@@ -91,8 +98,8 @@ public class FileStoreTest {
     fileStore.put("A", WORLD);
     byte[] second = fileStore.get("A");
     assertNotEquals(first, second);
+    assertArrayEquals(WORLD, second);
     assertEquals(1, fileStore.size());
-    assertEquals(2, Objects.requireNonNull(objects.listFiles(File::isDirectory)).length);
   }
 
   @Test
@@ -104,4 +111,14 @@ public class FileStoreTest {
     assertEquals(1, newFileStore.size());
     assertArrayEquals(HELLO_WORLD, newFileStore.get("X"));
   }
+
+  @Test
+  public void testStoresOfSameDirectoryShareIndex() throws IOException, InterruptedException {
+    byte[] HELLO = "hello".getBytes(StandardCharsets.UTF_8);
+    FileStore newFileStore = new FileStore(new FilePath(storage));
+    assertEquals(0, newFileStore.size());
+    fileStore.put("A", HELLO);
+    assertEquals(1, newFileStore.size());
+    assertArrayEquals(HELLO, newFileStore.get("A"));
+  }
 }
@@ -0,0 +1,242 @@
+/*
+ * Copyright (c) 2021 LG Electronics Inc.
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.lge.plugins.metashift.persistence;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit tests for the SegmentStore class.
+ *
+ * @author Sung Gon Kim
+ */
+public class SegmentStoreTest {
+
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
+  private File storage;
+  private File log;
+
+  @Before
+  public void setUp() throws IOException {
+    storage = folder.newFolder();
+    log = new File(new File(storage, SegmentStore.SEGMENTS), SegmentStore.INDEX);
+  }
+
+  private static byte[] bytes(String value) {
+    return value.getBytes(StandardCharsets.UTF_8);
+  }
+
+  private void writeLegacyObject(String path, byte[] value) throws IOException {
+    File file = new File(new File(storage, SegmentStore.LEGACY_OBJECTS), path);
+    FileUtils.forceMkdirParent(file);
+    try (OutputStream os = new GZIPOutputStream(Files.newOutputStream(file.toPath()))) {
+      os.write(value);
+    }
+  }
+
+  @Test
+  public void testPutAllWritesSingleFrame() throws IOException {
+    SegmentStore store = new SegmentStore(storage);
+    Map<String, byte[]> values = new LinkedHashMap<>();
+    values.put("A", bytes("hello"));
+    values.put("B", bytes("world"));
+    values.put("C", bytes("hello"));
+    store.putAll(values);
+    long length = log.length();
+
+    store.putAll(values);
+    SegmentStore newStore = new SegmentStore(storage);
+    assertEquals(3, newStore.size());
+    assertArrayEquals(bytes("world"), newStore.get("B"));
+    assertArrayEquals(bytes("hello"), newStore.get("C"));
+    assertEquals(length * 2 - 8, log.length());
+  }
+
+  @Test
+  public void testReadLegacyLayout() throws IOException {
+    writeLegacyObject("ab/cdef", bytes("hello"));
+    FileUtils.writeStringToFile(new File(storage, SegmentStore.LEGACY_INDEX),
+        "{\"A\": \"ab/cdef\"}", StandardCharsets.UTF_8);
+
+    SegmentStore store = new SegmentStore(storage);
+    assertEquals(1, store.size());
+    assertArrayEquals(bytes("hello"), store.get("A"));
+
+    store.put("A", bytes("world"));
+    store.put("B", bytes("hello"));
+    SegmentStore newStore = new SegmentStore(storage);
+    assertEquals(2, newStore.size());
+    assertArrayEquals(bytes("world"), newStore.get("A"));
+    assertArrayEquals(bytes("hello"), newStore.get("B"));
+  }
+
+  @Test
+  public void testPartiallyWrittenFrameIsDiscarded() throws IOException {
+    SegmentStore store = new SegmentStore(storage);
+    store.put("A", bytes("hello"));
+    long length = log.length();
+    FileUtils.writeByteArrayToFile(log, new byte[]{0, 0, 1, 0, 1, 2}, true);
+
+    SegmentStore newStore = new SegmentStore(storage);
+    assertEquals(1, newStore.size());
+    newStore.put("B", bytes("world"));
+    assertTrue(log.length() > length);
+
+    SegmentStore lastStore = new SegmentStore(storage);
+    assertEquals(2, lastStore.size());
+    assertArrayEquals(bytes("hello"), lastStore.get("A"));
+    assertArrayEquals(bytes("world"), lastStore.get("B"));
+  }
+
+  @Test
+  public void testConcurrentWriters() throws Exception {
+    SegmentStore store = new SegmentStore(storage);
+    List<Thread> threads = new ArrayList<>();
+    List<Exception> failures = new ArrayList<>();
+    for (int t = 0; t < 4; t++) {
+      String prefix = String.valueOf(t);
+      threads.add(new Thread(() -> {
+        try {
+          for (int i = 0; i < 50; i++) {
+            store.put(prefix + ":" + i, bytes(prefix + ":" + (i % 10)));
+          }
+        } catch (IOException e) {
+          synchronized (failures) {
+            failures.add(e);
+          }
+        }
+      }));
+    }
+    threads.forEach(Thread::start);
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertTrue(failures.isEmpty());
+
+    SegmentStore newStore = new SegmentStore(storage);
+    assertEquals(200, newStore.size());
+    assertArrayEquals(bytes("3:7"), newStore.get("3:47"));
+    assertNull(newStore.get("4:0"));
+  }
+
+  @Test
+  public void testOpenSharesLoadedIndex() throws IOException {
+    SegmentStore store = SegmentStore.open(storage);
+    assertSame(store, SegmentStore.open(storage));
+    store.put("A", bytes("hello"));
+    assertSame(store, SegmentStore.open(new File(storage, ".")));
+    assertArrayEquals(bytes("hello"), SegmentStore.open(storage).get("A"));
+  }
+
+  @Test
+  public void testOpenReloadsIndexWrittenByOthers() throws IOException {
+    SegmentStore store = SegmentStore.open(storage);
+    new SegmentStore(storage).put("A", bytes("hello"));
+    assertEquals(0, store.size());
+
+    assertSame(store, SegmentStore.open(storage));
+    assertArrayEquals(bytes("hello"), store.get("A"));
+  }
+
+  @Test
+  public void testReloadKeepsSingleWriter() throws IOException {
+    SegmentStore store = SegmentStore.open(storage);
+    store.put("A", bytes("hello"));
+    new SegmentStore(storage).put("B", bytes("world"));
+
+    SegmentStore reopened = SegmentStore.open(storage);
+    store.put("C", bytes("first"));
+    reopened.put("D", bytes("second"));
+
+    SegmentStore loaded = new SegmentStore(storage);
+    assertArrayEquals(bytes("hello"), loaded.get("A"));
+    assertArrayEquals(bytes("world"), loaded.get("B"));
+    assertArrayEquals(bytes("first"), loaded.get("C"));
+    assertArrayEquals(bytes("second"), loaded.get("D"));
+  }
+
+  @Test
+  public void testReadValuesOfDifferentCompressions() throws IOException {
+    Compression compression = SegmentStore.getCompression();
+    byte[] value = bytes(StringUtils.repeat("hello world", 100));
+    SegmentStore store = new SegmentStore(storage);
+    try {
+      for (Compression.Method method : Compression.Method.values()) {
+        SegmentStore.setCompression(new Compression(method, 1, 0));
+        store.put(method.name(), bytes(method.name() + value.length));
+      }
+      store.put("LARGE", value);
+    } finally {
+      SegmentStore.setCompression(compression);
+    }
+    SegmentStore newStore = new SegmentStore(storage);
+    for (Compression.Method method : Compression.Method.values()) {
+      assertArrayEquals(bytes(method.name() + value.length), newStore.get(method.name()));
+    }
+    assertArrayEquals(value, newStore.get("LARGE"));
+  }
+
+  @Test
+  public void testPackLegacyObjects() throws IOException {
+    writeLegacyObject("ab/cdef", bytes("hello"));
+    writeLegacyObject("12/3456", bytes("world"));
+    FileUtils.writeStringToFile(new File(storage, SegmentStore.LEGACY_INDEX),
+        "{\"A\": \"ab/cdef\", \"B\": \"12/3456\", \"C\": \"ab/cdef\"}",
+        StandardCharsets.UTF_8);
+    SegmentStore store = new SegmentStore(storage);
+    store.put("B", bytes("newer"));
+    assertTrue(store.hasLegacyKeys());
+
+    assertEquals(2, store.pack());
+    assertFalse(store.hasLegacyKeys());
+    assertFalse(new File(storage, SegmentStore.LEGACY_OBJECTS).exists());
+    assertFalse(new File(storage, SegmentStore.LEGACY_INDEX).exists());
+    assertArrayEquals(bytes("hello"), store.get("C"));
+
+    SegmentStore newStore = new SegmentStore(storage);
+    assertEquals(3, newStore.size());
+    assertArrayEquals(bytes("hello"), newStore.get("A"));
+    assertArrayEquals(bytes("newer"), newStore.get("B"));
+  }
+
+  @Test
+  public void testMemoryMappedReads() throws IOException {
+    boolean memoryMapped = SegmentStore.isMemoryMapped();
+    try {
+      SegmentStore.setMemoryMapped(true);
+      SegmentStore store = new SegmentStore(storage);
+      store.put("A", bytes("hello"));
+      assertArrayEquals(bytes("hello"), store.get("A"));
+      store.put("B", bytes("world"));
+      assertArrayEquals(bytes("world"), store.get("B"));
+      assertArrayEquals(bytes("hello"), store.get("A"));
+    } finally {
+      SegmentStore.setMemoryMapped(memoryMapped);
+    }
+  }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2021 LG Electronics Inc.
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.lge.plugins.metashift.persistence;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import hudson.FilePath;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit tests for the SharedStore class.
+ *
+ * @author Sung Gon Kim
+ */
+public class SharedStoreTest {
+
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
+  private File job;
+  private File shared;
+  private Random random;
+
+  @Before
+  public void setUp() throws IOException {
+    job = folder.newFolder("job");
+    shared = new File(job, SharedStore.DIRECTORY);
+    random = new Random(0);
+  }
+
+  private File getStorage(int number) {
+    return new File(new File(new File(job, "builds"), String.valueOf(number)),
+        "meta-shift-report");
+  }
+
+  private FileStore createFileStore(int number) throws IOException, InterruptedException {
+    return new FileStore(new FilePath(getStorage(number)), new FilePath(shared));
+  }
+
+  private byte[] createValue(int size) {
+    byte[] value = new byte[size];
+    random.nextBytes(value);
+    return value;
+  }
+
+  @Test
+  public void testOpenSharesStore() throws IOException {
+    SharedStore store = SharedStore.open(shared);
+    assertSame(store, SharedStore.open(new File(shared, ".")));
+    assertEquals(0, store.size());
+  }
+
+  @Test
+  public void testLargeValuesAreStoredOnce() throws IOException, InterruptedException {
+    byte[] large = createValue(SharedStore.getThreshold());
+    byte[] small = createValue(10);
+    FileStore first = createFileStore(1);
+    first.put("A", large);
+    first.put("B", small);
+    FileStore second = createFileStore(2);
+    second.put("A", large);
+
+    SharedStore store = SharedStore.open(shared);
+    assertEquals(1, store.size());
+    assertEquals(2, store.getReferenceCount(DigestUtils.sha256Hex(large)));
+    assertEquals(0, store.getReferenceCount(DigestUtils.sha256Hex(small)));
+    assertArrayEquals(large, second.get("A"));
+    assertArrayEquals(small, first.get("B"));
+
+    SegmentStore reloaded = new SegmentStore(getStorage(1));
+    assertArrayEquals(large, reloaded.get("A"));
+    assertArrayEquals(small, reloaded.get("B"));
+  }
+
+  @Test
+  public void testReleaseCollectsUnreferencedValues() throws IOException, InterruptedException {
+    byte[] common = createValue(2000);
+    byte[] unique = createValue(3000);
+    FileStore first = createFileStore(1);
+    first.put("A", common);
+    first.put("B", unique);
+    FileStore second = createFileStore(2);
+    second.put("A", common);
+
+    SharedStore store = SharedStore.open(shared);
+    store.release(getStorage(1));
+    assertEquals(2, store.size());
+    assertEquals(1, store.collect());
+    assertEquals(1, store.size());
+    assertEquals(1, store.getReferenceCount(DigestUtils.sha256Hex(common)));
+    assertNull(store.get(DigestUtils.sha256Hex(unique)));
+    assertArrayEquals(common, second.get("A"));
+    assertArrayEquals(common, new SegmentStore(getStorage(2)).get("A"));
+  }
+
+  @Test
+  public void testCollectKeepsValuesUnderHalfOfStore() throws IOException, InterruptedException {
+    byte[] common = createValue(3000);
+    byte[] unique = createValue(2000);
+    createFileStore(1).put("A", common);
+    createFileStore(1).put("B", unique);
+    createFileStore(2).put("A", common);
+
+    SharedStore store = SharedStore.open(shared);
+    store.release(getStorage(1));
+    assertEquals(0, store.collect());
+    assertEquals(2, store.size());
+    assertArrayEquals(unique, store.get(DigestUtils.sha256Hex(unique)));
+  }
+
+  @Test
+  public void testCollectReleasesDeletedBuilds() throws IOException, InterruptedException {
+    byte[] value = createValue(2000);
+    createFileStore(1).put("A", value);
+    FileUtils.deleteDirectory(getStorage(1).getParentFile());
+
+    SharedStore store = SharedStore.open(shared);
+    assertEquals(1, store.collect());
+    assertEquals(0, store.size());
+    assertEquals(0, store.getReferenceCount(DigestUtils.sha256Hex(value)));
+    assertEquals(0, new File(shared, SharedStore.REFS).list().length);
+    assertFalse(new File(shared, "compacting").exists());
+  }
+
+  @Test
+  public void testReferencesAreRecordedOnce() throws IOException, InterruptedException {
+    byte[] value = createValue(2000);
+    createFileStore(1).put("A", value);
+    createFileStore(1).put("B", value);
+    createFileStore(1).put("A", value);
+
+    File[] lists = new File(shared, SharedStore.REFS).listFiles();
+    assertEquals(1, lists.length);
+    assertEquals(1, FileUtils.readLines(lists[0], StandardCharsets.UTF_8).size());
+  }
+
+  @Test
+  public void testRequestCollectionOnceUntilCollected() throws IOException {
+    SharedStore store = SharedStore.open(shared);
+    assertTrue(store.requestCollection());
+    assertFalse(store.requestCollection());
+    store.collect();
+    assertTrue(store.requestCollection());
+  }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2021 LG Electronics Inc.
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.lge.plugins.metashift.persistence;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.util.Collections;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for the ValueCache class.
+ *
+ * @author Sung Gon Kim
+ */
+public class ValueCacheTest {
+
+  private static final File FIRST = new File("builds/1/meta-shift-report");
+  private static final File SECOND = new File("builds/2/meta-shift-report");
+
+  private ValueCache cache;
+
+  @Before
+  public void setUp() {
+    cache = new ValueCache(1000);
+  }
+
+  private void store(File storage, String name, Object value, long size) {
+    cache.store(storage, name, value, size, cache.getGeneration());
+  }
+
+  @Test
+  public void testInitialState() {
+    assertEquals(0, cache.size());
+    assertEquals(0, cache.getWeight());
+    assertEquals(1000, cache.getMaxWeight());
+    assertEquals(0, cache.getHitRatio(), 0);
+  }
+
+  @Test
+  public void testLookupCountsHitsAndMisses() {
+    assertNull(cache.lookup(FIRST, "A"));
+    store(FIRST, "A", "HELLO", 10);
+    store(FIRST, "B", null, 0);
+    assertEquals("HELLO", cache.lookup(FIRST, "A").getValue());
+    assertNull(cache.lookup(FIRST, "B").getValue());
+    assertNull(cache.lookup(SECOND, "A"));
+    assertEquals(2, cache.getHitCount());
+    assertEquals(2, cache.getMissCount());
+    assertEquals(0.5, cache.getHitRatio(), 0);
+  }
+
+  @Test
+  public void testLeastRecentlyUsedEntriesAreEvicted() {
+    store(FIRST, "A", "A", 300);
+    store(FIRST, "B", "B", 300);
+    cache.lookup(FIRST, "A");
+    store(FIRST, "C", "C", 300);
+    assertEquals(2, cache.size());
+    assertEquals(1, cache.getEvictionCount());
+    assertNull(cache.lookup(FIRST, "B"));
+    assertNotNull(cache.lookup(FIRST, "A"));
+
+    store(FIRST, "D", "D", 2000);
+    assertNull(cache.lookup(FIRST, "D"));
+    cache.setMaxWeight(0);
+    assertEquals(0, cache.size());
+    assertEquals(0, cache.getWeight());
+  }
+
+  @Test
+  public void testInvalidateDiscardsValues() {
+    store(FIRST, "A", "A", 10);
+    store(FIRST, "B", "B", 10);
+    store(SECOND, "A", "A", 10);
+    cache.invalidate(FIRST, Collections.singleton("A"));
+    assertNull(cache.lookup(FIRST, "A"));
+    assertEquals(2, cache.size());
+
+    cache.invalidate(FIRST);
+    assertEquals(1, cache.size());
+    assertNotNull(cache.lookup(SECOND, "A"));
+
+    cache.clear();
+    assertEquals(0, cache.size());
+    assertEquals(0, cache.getWeight());
+  }
+
+  @Test
+  public void testValuesLoadedBeforeInvalidationAreNotCached() {
+    long generation = cache.getGeneration();
+    cache.invalidate(FIRST, Collections.singleton("A"));
+    cache.store(FIRST, "A", "STALE", 10, generation);
+    assertNull(cache.lookup(FIRST, "A"));
+  }
+}
@@ -15,10 +15,13 @@ import com.lge.plugins.metashift.fixture.FakeRecipe;
 import com.lge.plugins.metashift.fixture.FakeReportBuilder;
 import com.lge.plugins.metashift.fixture.FakeSource;
 import com.lge.plugins.metashift.ui.project.MetaShiftPublisher;
+import com.lge.plugins.metashift.ui.recipe.RecipeAction;
 import hudson.model.FreeStyleBuild;
 import hudson.model.FreeStyleProject;
 import hudson.model.Result;
 import java.io.File;
+import java.util.List;
+import java.util.stream.Collectors;
 import net.sf.json.JSONObject;
 import org.junit.Before;
 import org.junit.Rule;
@@ -151,4 +154,41 @@ public class BuildActionTest {
     assertEquals(action.getAvailableCount() - action.getQualifiedCount(),
         action.getFailedCards().size());
   }
+
+  @Test
+  public void testCreateRecipesInParallel() throws Exception {
+    File source = new File(new File(folder.getRoot(), "workspace"), "source");
+    for (int i = 0; i < 4; i++) {
+      FakeRecipe recipe = new FakeRecipe(source, String.format("R%d-1.0.0-r0", i));
+      recipe.add(new FakeSource(10, 4, 5, 6)
+          .setTests(1, 2, 3, 4)
+          .setStatementCoverage(1, 2)
+          .setBranchCoverage(3, 4)
+          .setMutationTests(1, 2, 3));
+      builder.add(recipe);
+    }
+    builder.toFile(report);
+
+    int threads = BuildAction.getRecipeThreads();
+    try {
+      BuildAction.setRecipeThreads(4);
+      FreeStyleBuild run = jenkins.buildAndAssertStatus(Result.SUCCESS, project);
+      BuildAction buildAction = run.getAction(BuildAction.class);
+
+      List<String> names = buildAction.getRecipes().stream().map(RecipeAction::getName)
+          .collect(Collectors.toList());
+      assertEquals(4, names.size());
+      List<String> progress = run.getLog(1000).stream()
+          .filter(line -> line.matches("\\[meta-shift-plugin\\] -> R\\d-1\\.0\\.0-r0"))
+          .map(line -> line.substring("[meta-shift-plugin] -> ".length()))
+          .collect(Collectors.toList());
+      assertEquals(names, progress);
+      for (RecipeAction recipeAction : buildAction.getRecipes()) {
+        assertValues(recipeAction.getReport().getStatementCoverage().getEvaluation(),
+            false, true, 0.8, 5, 2, 0.4);
+      }
+    } finally {
+      BuildAction.setRecipeThreads(threads);
+    }
+  }
 }
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2021 LG Electronics Inc.
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.lge.plugins.metashift.ui.project;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import net.sf.json.JSONArray;
+import net.sf.json.JSONNull;
+import net.sf.json.JSONObject;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit tests for the {@link RecipeTrend} class.
+ */
+public class RecipeTrendTest {
+
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
+
+  private File job;
+  private RecipeTrend trend;
+
+  @Before
+  public void setUp() throws IOException {
+    job = folder.newFolder();
+    trend = new RecipeTrend(job, "A-1.0.0-r0");
+  }
+
+  private RecipeTrend.Point createPoint(int number) {
+    JSONObject distribution = new JSONObject();
+    distribution.put("passed", number);
+    return new RecipeTrend.Point(
+        new TrendIndex.Entry(number, "#" + number, new double[]{0.5, Double.NaN, 1.0, 0.0}),
+        Collections.nCopies(4, distribution));
+  }
+
+  private void put(int number) throws IOException {
+    trend.put(createPoint(number), null);
+  }
+
+  private List<Integer> getNumbers(int maxBuilds) throws IOException {
+    return trend.getPoints(maxBuilds).stream().map(o -> o.getEntry().getNumber())
+        .collect(Collectors.toList());
+  }
+
+  @Test
+  public void testInitialState() throws IOException {
+    assertFalse(trend.exists());
+    assertTrue(trend.getPoints(10).isEmpty());
+  }
+
+  @Test
+  public void testPutAndReadPoints() throws IOException {
+    put(2);
+    put(1);
+    put(3);
+    assertTrue(trend.exists());
+    assertEquals(Arrays.asList(1, 2, 3), getNumbers(10));
+    assertEquals(Arrays.asList(2, 3), getNumbers(2));
+
+    RecipeTrend.Point point = new RecipeTrend(job, "A-1.0.0-r0").getPoints(1).get(0);
+    assertEquals("#3", point.getEntry().getDisplayName());
+    assertEquals(0.5, point.getEntry().getRatio(0), 0);
+    assertTrue(Double.isNaN(point.getEntry().getRatio(1)));
+    assertEquals(3, point.getDistribution(3).getInt("passed"));
+    assertFalse(new RecipeTrend(job, "B-1.0.0-r0").exists());
+  }
+
+  @Test
+  public void testPointsAreFilteredByTrendIndex() throws IOException {
+    TrendIndex index = new TrendIndex(job);
+    for (int i = 1; i <= 4; i++) {
+      index.put(new TrendIndex.Entry(i, "#" + i, new double[4]));
+      put(i);
+    }
+    index.setResult(1, "SUCCESS");
+    index.setResult(2, "FAILURE");
+    index.setResult(3, "UNSTABLE");
+    index.setResult(4, "SUCCESS");
+    index.remove(4);
+    assertEquals(Arrays.asList(1, 3), getNumbers(10));
+  }
+
+  @Test
+  public void testLinesOfDeletedBuildsAreDropped() throws IOException {
+    Set<Integer> live = Collections.singleton(100);
+    for (int i = 1; i <= 20; i++) {
+      trend.put(createPoint(i), live);
+    }
+    trend.put(createPoint(100), live);
+    File file = new File(new File(job, RecipeTrend.DIRECTORY), "A-1.0.0-r0.log");
+    assertTrue(Files.readAllLines(file.toPath(), StandardCharsets.UTF_8).size() < 20);
+  }
+
+  @Test
+  public void testLinesAreKeptWithoutTrendIndex() throws IOException {
+    for (int i = 1; i <= 40; i++) {
+      put(i);
+    }
+    assertEquals(40, getNumbers(100).size());
+  }
+
+  @Test
+  public void testToJson() throws IOException {
+    put(1);
+    JSONArray builds = trend.toJson(10).getJSONArray("builds");
+    assertEquals(1, builds.size());
+    JSONObject build = builds.getJSONObject(0);
+    assertEquals(1, build.getInt("number"));
+    assertEquals(0.5, build.getJSONObject("unitTests").getDouble("ratio"), 0);
+    assertTrue(build.getJSONObject("statementCoverage").get("ratio") instanceof JSONNull);
+    assertEquals(1, build.getJSONObject("mutationTests").getJSONObject("distribution")
+        .getInt("passed"));
+  }
+}
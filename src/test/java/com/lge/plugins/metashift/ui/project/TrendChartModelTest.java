@@ -97,4 +97,17 @@ public class TrendChartModelTest {
     assertEquals(Arrays.asList("#1", "#2"), model.getDomainAxisLabels());
     assertEquals(Arrays.asList(100.0, 100.0), seriesOf(model, "Unit Tests").getData());
   }
+
+  @Test
+  public void testModelOfTrendIndex() {
+    LinesChartModel model = TrendChartModel.create(Arrays.asList(
+        new TrendIndex.Entry(1, "#1", new double[]{1.0, Double.NaN, 0.5, 0.0}),
+        TrendIndex.Entry.of(2, "#2", report)));
+
+    assertEquals(Arrays.asList("#1", "#2"), model.getDomainAxisLabels());
+    assertEquals(Arrays.asList(1, 2), model.getBuildNumbers());
+    assertEquals(Arrays.asList(100.0, 100.0), seriesOf(model, "Unit Tests").getData());
+    assertEquals(Arrays.asList(null, null), seriesOf(model, "Statement Coverage").getData());
+    assertEquals(Arrays.asList(50.0, null), seriesOf(model, "Branch Coverage").getData());
+  }
 }
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2021 LG Electronics Inc.
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.lge.plugins.metashift.ui.project;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.apache.commons.io.FileUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit tests for the {@link TrendIndex} class.
+ */
+public class TrendIndexTest {
+
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
+
+  private File job;
+  private TrendIndex index;
+
+  @Before
+  public void setUp() throws IOException {
+    job = folder.newFolder();
+    index = new TrendIndex(job);
+  }
+
+  private TrendIndex.Entry createEntry(int number) {
+    return new TrendIndex.Entry(number, "#" + number,
+        new double[]{0.5, Double.NaN, 1.0, 0.25 * (number % 4)});
+  }
+
+  private List<Integer> getNumbers() throws IOException {
+    return index.getEntries().stream().map(TrendIndex.Entry::getNumber)
+        .collect(Collectors.toList());
+  }
+
+  @Test
+  public void testInitialState() throws IOException {
+    assertFalse(index.exists());
+    assertTrue(index.getEntries().isEmpty());
+  }
+
+  @Test
+  public void testPutAndReadEntries() throws IOException {
+    index.put(createEntry(2));
+    index.put(createEntry(1));
+    index.setResult(2, "SUCCESS");
+    index.setResult(3, "SUCCESS");
+
+    assertTrue(index.exists());
+    assertEquals(Arrays.asList(1, 2), getNumbers());
+    TrendIndex.Entry entry = new TrendIndex(job).getEntries().get(1);
+    assertEquals("#2", entry.getDisplayName());
+    assertEquals("SUCCESS", entry.getResult());
+    assertEquals(0.5, entry.getRatio(0), 0);
+    assertTrue(Double.isNaN(entry.getRatio(1)));
+    assertNull(index.getEntries().get(0).getResult());
+  }
+
+  @Test
+  public void testLaterLinesOverride() throws IOException {
+    index.put(createEntry(1));
+    index.setResult(1, "SUCCESS");
+    index.setResult(1, "FAILURE");
+    index.put(createEntry(2));
+    index.remove(2);
+    assertEquals("FAILURE", index.getEntries().get(0).getResult());
+    assertEquals(Arrays.asList(1), getNumbers());
+  }
+
+  @Test
+  public void testCreateKeepsExistingIndex() throws IOException {
+    index.create(Arrays.asList(createEntry(1).withResult("UNSTABLE"), createEntry(2)));
+    index.create(Arrays.asList(createEntry(3)));
+    assertEquals(Arrays.asList(1, 2), getNumbers());
+    assertEquals("UNSTABLE", index.getEntries().get(0).getResult());
+  }
+
+  @Test
+  public void testRemoveRewritesOverriddenLines() throws IOException {
+    File file = new File(job, TrendIndex.FILE);
+    for (int i = 1; i <= 20; i++) {
+      index.put(createEntry(i));
+      index.setResult(i, "SUCCESS");
+    }
+    for (int i = 1; i < 20; i++) {
+      index.remove(i);
+    }
+    List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+    assertTrue(lines.size() < 20);
+    assertEquals(Arrays.asList(20), getNumbers());
+    assertEquals("SUCCESS", index.getEntries().get(0).getResult());
+  }
+
+  @Test
+  public void testPartiallyWrittenLineIsSkipped() throws IOException {
+    index.put(createEntry(1));
+    FileUtils.writeStringToFile(new File(job, TrendIndex.FILE), "P\t2\t0.", StandardCharsets.UTF_8,
+        true);
+    assertEquals(Arrays.asList(1), getNumbers());
+  }
+
+  @Test
+  public void testNumbersAreKeptPerIndexFile() throws IOException {
+    TrendIndex other = new TrendIndex(folder.newFolder());
+    index.put(createEntry(1));
+    index.put(createEntry(2));
+    other.put(createEntry(3));
+    index.remove(1);
+    assertEquals(new HashSet<>(Arrays.asList(2)), index.getNumbers());
+    assertEquals(new HashSet<>(Arrays.asList(2)), new TrendIndex(job).getNumbers());
+    assertEquals(new HashSet<>(Arrays.asList(3)), other.getNumbers());
+
+    Files.delete(new File(job, TrendIndex.FILE).toPath());
+    index.setResult(2, "SUCCESS");
+    assertFalse(index.exists());
+    assertTrue(index.getNumbers().isEmpty());
+  }
+}
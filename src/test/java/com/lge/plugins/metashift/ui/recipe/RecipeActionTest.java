@@ -6,6 +6,7 @@
 package com.lge.plugins.metashift.ui.recipe;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 
 import com.lge.plugins.metashift.builders.RecipeReport;
 import com.lge.plugins.metashift.fixture.FakeRecipe;
@@ -18,13 +19,17 @@ import hudson.model.FreeStyleBuild;
 import hudson.model.FreeStyleProject;
 import hudson.model.Result;
 import java.io.File;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import net.sf.json.JSONObject;
+import org.apache.commons.io.FileUtils;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
 import org.jvnet.hudson.test.JenkinsRule;
+import org.kohsuke.stapler.StaplerRequest2;
+import org.kohsuke.stapler.StaplerResponse2;
 
 /**
  * Unit tests for the RecipeAction class.
@@ -93,4 +98,37 @@ public class RecipeActionTest {
     assertValues(recipeReport.getUnitTests().getEvaluation(), false, true, 0.95, 10, 1, 0.1);
   }
 
+  @Test
+  public void testCreateLazily() throws Exception {
+    fakeRecipe
+        .add(new FakeSource(10, 4, 5, 6)
+            .setTests(1, 2, 3, 4)
+            .setStatementCoverage(1, 2)
+            .setBranchCoverage(3, 4)
+            .setMutationTests(1, 2, 3));
+    builder.add(fakeRecipe);
+    builder.toFile(report);
+    FreeStyleBuild run;
+    try {
+      BuildAction.setLazyRecipes(true);
+      run = jenkins.buildAndAssertStatus(Result.SUCCESS, project);
+    } finally {
+      BuildAction.setLazyRecipes(false);
+    }
+    String xml = FileUtils.readFileToString(new File(run.getRootDir(), "build.xml"),
+        StandardCharsets.UTF_8);
+    assertFalse(xml.contains(RecipeAction.class.getName()));
+
+    run.reload();
+    BuildAction buildAction = run.getAction(BuildAction.class);
+    List<RecipeAction> recipeActions = buildAction.getActions(RecipeAction.class);
+    assertEquals(1, recipeActions.size());
+    RecipeAction recipeAction = recipeActions.get(0);
+    assertEquals(recipeAction, buildAction.getDynamic(recipeAction.getUrlName(),
+        (StaplerRequest2) null, (StaplerResponse2) null));
+    assertValues(recipeAction.getReport().getStatementCoverage().getEvaluation(),
+        false, true, 0.8, 5, 2, 0.4);
+    assertValues(recipeAction.getReport().getUnitTests().getEvaluation(),
+        false, true, 0.95, 10, 1, 0.1);
+  }
 }
@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2021 LG Electronics Inc.
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.lge.plugins.metashift.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import hudson.FilePath;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit tests for the FileCache class.
+ *
+ * @author Sung Gon Kim
+ */
+public class FileCacheTest {
+
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
+  private TemporaryFileUtils utils;
+  private AtomicInteger reads;
+  private FileCache.Loader<String, IOException> loader;
+
+  @Before
+  public void setUp() {
+    utils = new TemporaryFileUtils(folder);
+    reads = new AtomicInteger();
+    loader = stream -> {
+      reads.incrementAndGet();
+      return new String(IOUtils.toByteArray(stream), StandardCharsets.UTF_8);
+    };
+  }
+
+  private File createFile(String name, String data) throws IOException {
+    File file = utils.getPath(name);
+    FileUtils.writeStringToFile(file, data, StandardCharsets.UTF_8);
+    return file;
+  }
+
+  @Test
+  public void testCacheHitDoesNotReadFile() throws Exception {
+    FileCache<String> cache = new FileCache<>(10, true, true);
+    File file = createFile("a.txt", "hello");
+    String object = cache.get(new FilePath(file), loader);
+    assertSame(object, cache.get(new FilePath(file), loader));
+    assertEquals(1, reads.get());
+    assertEquals(1, cache.size());
+  }
+
+  @Test
+  public void testModifiedFileIsReloaded() throws Exception {
+    FileCache<String> cache = new FileCache<>(10, true, false);
+    File file = createFile("a.txt", "hello");
+    assertEquals("hello", cache.get(new FilePath(file), loader));
+    FileUtils.writeStringToFile(file, "hello world", StandardCharsets.UTF_8);
+    assertEquals("hello world", cache.get(new FilePath(file), loader));
+    assertEquals(2, reads.get());
+  }
+
+  @Test
+  public void testIdenticalContentsShareObjectWithContentHash() throws Exception {
+    FileCache<String> cache = new FileCache<>(10, true, true);
+    String object1 = cache.get(new FilePath(createFile("a.txt", "hello")), loader);
+    String object2 = cache.get(new FilePath(createFile("b.txt", "hello")), loader);
+    assertSame(object1, object2);
+    assertEquals(2, reads.get());
+  }
+
+  @Test
+  public void testIdenticalContentsWithoutContentHash() throws Exception {
+    FileCache<String> cache = new FileCache<>(10, true, false);
+    String object1 = cache.get(new FilePath(createFile("a.txt", "hello")), loader);
+    String object2 = cache.get(new FilePath(createFile("b.txt", "hello")), loader);
+    assertNotSame(object1, object2);
+  }
+
+  @Test
+  public void testDisabledCacheReadsEveryTime() throws Exception {
+    FileCache<String> cache = new FileCache<>(10, true, true);
+    cache.setEnabled(false);
+    File file = createFile("a.txt", "hello");
+    assertNotSame(cache.get(new FilePath(file), loader), cache.get(new FilePath(file), loader));
+    assertEquals(2, reads.get());
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void testHitAndMissCounts() throws Exception {
+    FileCache<String> cache = new FileCache<>(10, true, false);
+    File file = createFile("a.txt", "hello");
+    cache.get(new FilePath(file), loader);
+    cache.get(new FilePath(file), loader);
+    cache.get(new FilePath(file), loader);
+    assertEquals(2, cache.getHitCount());
+    assertEquals(1, cache.getMissCount());
+    assertEquals(0, cache.getEvictionCount());
+  }
+
+  @Test
+  public void testEvictionByCapacity() throws Exception {
+    FileCache<String> cache = new FileCache<>(2, true, false);
+    cache.get(new FilePath(createFile("a.txt", "a")), loader);
+    cache.get(new FilePath(createFile("b.txt", "b")), loader);
+    cache.get(new FilePath(createFile("c.txt", "c")), loader);
+    assertEquals(2, cache.size());
+    assertEquals(1, cache.getEvictionCount());
+  }
+
+  @Test
+  public void testEvictionByWeight() throws Exception {
+    FileCache<String> cache = new FileCache<>(10, 20, 2, 0, true, false);
+    cache.get(new FilePath(createFile("a.txt", "12345")), loader);
+    assertEquals(10, cache.getWeight());
+    cache.get(new FilePath(createFile("b.txt", "12345")), loader);
+    assertEquals(20, cache.getWeight());
+    cache.get(new FilePath(createFile("c.txt", "12345")), loader);
+    assertEquals(20, cache.getWeight());
+    assertEquals(2, cache.size());
+    assertEquals(1, cache.getEvictionCount());
+  }
+
+  @Test
+  public void testObjectHeavierThanMaxWeightIsNotCached() throws Exception {
+    FileCache<String> cache = new FileCache<>(10, 5, 2, 0, true, false);
+    assertEquals("12345", cache.get(new FilePath(createFile("a.txt", "12345")), loader));
+    assertEquals(0, cache.size());
+    assertEquals(0, cache.getWeight());
+  }
+
+  @Test
+  public void testEvictionByExpiry() throws Exception {
+    FileCache<String> cache = new FileCache<>(10, 100, 1, 1, true, false);
+    File file = createFile("a.txt", "hello");
+    cache.get(new FilePath(file), loader);
+    Thread.sleep(10);
+    cache.get(new FilePath(file), loader);
+    assertEquals(2, reads.get());
+    assertEquals(1, cache.getEvictionCount());
+  }
+
+  @Test
+  public void testClearReleasesWeight() throws Exception {
+    FileCache<String> cache = new FileCache<>(10, 100, 1, 0, true, true);
+    cache.get(new FilePath(createFile("a.txt", "hello")), loader);
+    cache.clear();
+    assertEquals(0, cache.size());
+    assertEquals(0, cache.getWeight());
+  }
+
+  @Test
+  public void testCleanUpEvictsExpiredObjectsWithoutAccess() throws Exception {
+    FileCache<String> cache = new FileCache<>(10, 100, 1, 1, true, false);
+    cache.get(new FilePath(createFile("a.txt", "hello")), loader);
+    Thread.sleep(10);
+    cache.cleanUp();
+    assertEquals(0, cache.size());
+    assertEquals(0, cache.getWeight());
+    assertEquals(1, cache.getEvictionCount());
+  }
+
+  @Test
+  public void testInvalidateRemovesObjectsOfDirectory() throws Exception {
+    FileCache<String> cache = new FileCache<>(10, 100, 1, 0, true, true);
+    cache.get(new FilePath(createFile("job1/a.txt", "hello")), loader);
+    cache.get(new FilePath(createFile("job1/b/c.txt", "world")), loader);
+    cache.get(new FilePath(createFile("job10/a.txt", "other")), loader);
+    assertEquals(2, cache.invalidate(new FilePath(utils.getPath("job1"))));
+    assertEquals(1, cache.size());
+    assertEquals(5, cache.getWeight());
+  }
+}
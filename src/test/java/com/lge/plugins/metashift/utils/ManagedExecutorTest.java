@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2021 LG Electronics Inc.
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.lge.plugins.metashift.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for the ManagedExecutor class.
+ *
+ * @author Sung Gon Kim
+ */
+public class ManagedExecutorTest {
+
+  private ManagedExecutor executor;
+
+  @Before
+  public void setUp() {
+    executor = new ManagedExecutor(2, false);
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdown();
+  }
+
+  private Callable<Void> counter(AtomicInteger count) {
+    return () -> {
+      count.incrementAndGet();
+      return null;
+    };
+  }
+
+  @Test
+  public void testInitialState() {
+    assertEquals(0, executor.getQueuedTasks());
+    assertEquals(0, executor.getActiveTasks());
+    assertEquals(0, executor.getCompletedTasks());
+  }
+
+  @Test
+  public void testInvokeAll() throws IOException, InterruptedException {
+    AtomicInteger count = new AtomicInteger();
+    executor.invokeAll(Arrays.asList(counter(count), counter(count), counter(count)));
+    assertEquals(3, count.get());
+    assertEquals(0, executor.getQueuedTasks());
+  }
+
+  @Test
+  public void testSubmitAllKeepsOrder() throws IOException, InterruptedException {
+    List<Future<Integer>> futures = executor.submitAll(Arrays.asList(() -> 1, () -> 2, () -> 3));
+    assertEquals(1, (int) executor.get(futures.get(0)));
+    assertEquals(2, (int) executor.get(futures.get(1)));
+    assertEquals(3, (int) executor.get(futures.get(2)));
+  }
+
+  @Test
+  public void testNestedTasksWithSingleThread() throws IOException, InterruptedException {
+    executor.shutdown();
+    executor = new ManagedExecutor(1, false);
+    AtomicInteger count = new AtomicInteger();
+    Callable<Void> nested = () -> {
+      executor.invokeAll(Arrays.asList(counter(count), counter(count)));
+      return null;
+    };
+    executor.invokeAll(Arrays.asList(nested, nested, nested));
+    assertEquals(6, count.get());
+  }
+
+  @Test
+  public void testActiveTasks() throws Exception {
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    Future<Void> future = executor.submit(() -> {
+      started.countDown();
+      release.await();
+      return null;
+    });
+    assertTrue(started.await(10, TimeUnit.SECONDS));
+    assertEquals(1, executor.getActiveTasks());
+    release.countDown();
+    executor.get(future);
+  }
+
+  @Test
+  public void testCancelAllReleasesQueuedTasks() throws Exception {
+    executor.shutdown();
+    executor = new ManagedExecutor(1, false);
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    Future<Void> blocker = executor.submit(() -> {
+      started.countDown();
+      release.await();
+      return null;
+    });
+    assertTrue(started.await(10, TimeUnit.SECONDS));
+    AtomicInteger count = new AtomicInteger();
+    List<Future<Void>> futures = executor.submitAll(Collections.singletonList(counter(count)));
+    executor.cancelAll(futures);
+    assertEquals(0, executor.getQueuedTasks());
+    release.countDown();
+    executor.get(blocker);
+    assertEquals(0, count.get());
+  }
+
+  @Test(expected = IOException.class)
+  public void testInvokeAllThrowsException() throws IOException, InterruptedException {
+    Callable<Void> task = () -> {
+      throw new IOException();
+    };
+    executor.invokeAll(Collections.singletonList(task));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testGetThrowsIllegalArgumentException() throws IOException, InterruptedException {
+    Callable<Void> task = () -> {
+      throw new IllegalArgumentException();
+    };
+    executor.get(executor.submit(task));
+  }
+
+  @Test
+  public void testSharedInstance() {
+    ManagedExecutor instance = ManagedExecutor.getInstance();
+    assertEquals(instance, ManagedExecutor.getInstance());
+    ManagedExecutor.shutdownInstance();
+    assertTrue(instance != ManagedExecutor.getInstance());
+  }
+}
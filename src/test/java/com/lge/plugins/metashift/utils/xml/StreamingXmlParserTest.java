@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2021 LG Electronics Inc.
+ * SPDX-License-Identifier: MIT
+ */
+
+package com.lge.plugins.metashift.utils.xml;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.lge.plugins.metashift.utils.TemporaryFileUtils;
+import hudson.FilePath;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import javax.xml.stream.XMLStreamException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit tests for the StreamingXmlParser class.
+ *
+ * @author Sung Gon Kim
+ */
+public class StreamingXmlParserTest {
+
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
+  private TemporaryFileUtils utils;
+  private StringBuilder builder;
+  private StreamingXmlParser parser;
+
+  @Before
+  public void setUp() {
+    utils = new TemporaryFileUtils(folder, '\'', '"');
+    builder = new StringBuilder();
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    if (parser != null) {
+      parser.close();
+    }
+  }
+
+  private void prepare() throws Exception {
+    File file = utils.getPath("test.xml");
+    utils.writeLines(builder, file);
+    parser = new StreamingXmlParser(new FilePath(file));
+  }
+
+  private void assertTag(boolean start, String name, int depth) throws XMLStreamException {
+    assertTrue(parser.next());
+    assertEquals(start, parser.isStartTag());
+    assertEquals(!start, parser.isEndTag());
+    assertEquals(name, parser.getTagName());
+    assertEquals(depth, parser.getDepth());
+  }
+
+  @Test(expected = NoSuchFileException.class)
+  public void testWithUnknownPath() throws Exception {
+    new StreamingXmlParser(new FilePath(utils.getPath("path-to-unknown")));
+  }
+
+  @Test(expected = XMLStreamException.class)
+  public void testParserWithMalformedTag() throws Exception {
+    builder.append("<a><b></a>");
+    prepare();
+    while (parser.next()) {
+      parser.getTagName();
+    }
+  }
+
+  @Test
+  public void testParserWithEmptyTag() throws Exception {
+    builder.append("<a/>");
+    prepare();
+    assertTag(true, "a", 1);
+    assertTag(false, "a", 1);
+    assertFalse(parser.next());
+  }
+
+  @Test
+  public void testParserWithNestedTags() throws Exception {
+    builder
+        .append("<?xml version='1.0'?>")
+        .append("<!DOCTYPE a SYSTEM 'http://localhost/unknown.dtd'>")
+        .append("<a>")
+        .append("  <!-- comment -->")
+        .append("  <b><c/></b>")
+        .append("  <b/>")
+        .append("</a>");
+    prepare();
+    assertTag(true, "a", 1);
+    assertTag(true, "b", 2);
+    assertTag(true, "c", 3);
+    assertTag(false, "c", 3);
+    assertTag(false, "b", 2);
+    assertTag(true, "b", 2);
+    assertTag(false, "b", 2);
+    assertTag(false, "a", 1);
+    assertFalse(parser.next());
+  }
+
+  @Test
+  public void testGetAttribute() throws Exception {
+    builder.append("<a x='1' y=''/>");
+    prepare();
+    assertTrue(parser.next());
+    assertEquals("1", parser.getAttribute("x"));
+    assertEquals("1", parser.getAttribute("x", "2"));
+    assertEquals("", parser.getAttribute("y"));
+    assertEquals("2", parser.getAttribute("y", "2"));
+    assertEquals("2", parser.getAttribute("z", "2"));
+    assertTrue(parser.hasAttribute("x"));
+    assertTrue(parser.hasAttribute("y"));
+    assertFalse(parser.hasAttribute("z"));
+  }
+
+  @Test
+  public void testGetTextContent() throws Exception {
+    builder.append("<a><b>x<![CDATA[<y>]]><c>z</c></b><d/></a>");
+    prepare();
+    assertTag(true, "a", 1);
+    assertTag(true, "b", 2);
+    assertEquals("x<y>z", parser.getTextContent());
+    assertTrue(parser.isEndTag());
+    assertEquals("b", parser.getTagName());
+    assertTag(true, "d", 2);
+  }
+
+  @Test
+  public void testGetTextContentWithLimit() throws Exception {
+    builder.append("<a><b>0123456789</b><c>012</c></a>");
+    prepare();
+    assertTag(true, "a", 1);
+    assertTag(true, "b", 2);
+    assertEquals("01234", parser.getTextContent(5));
+    assertTag(true, "c", 2);
+    assertEquals("012", parser.getTextContent(5));
+    assertTag(false, "a", 1);
+  }
+
+  @Test
+  public void testSkip() throws Exception {
+    builder.append("<a><b>text<c/></b><d/></a>");
+    prepare();
+    assertTag(true, "a", 1);
+    assertTag(true, "b", 2);
+    parser.skip();
+    assertTag(true, "d", 2);
+    assertTag(false, "d", 2);
+    assertTag(false, "a", 1);
+    assertFalse(parser.next());
+  }
+}